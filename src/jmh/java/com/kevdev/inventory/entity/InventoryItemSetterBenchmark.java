@@ -0,0 +1,66 @@
+package com.kevdev.inventory.entity;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Commit-style updates on inventory items. Every InventoryItem setter stamps updatedAt with
+ * Instant.now(); {@code clockReads} performs the same number of clock reads on their own, so
+ * the difference is the cost of the update itself.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InventoryItemSetterBenchmark {
+
+    @Param({"1", "10", "100", "1000"})
+    int lines;
+
+    private List<InventoryItem> items;
+
+    @Setup
+    public void setUp() {
+        items = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++) {
+            items.add(new InventoryItem("SKU-" + i, "MAIN", 1_000_000, 0));
+        }
+    }
+
+    @Benchmark
+    public void setterChurn(Blackhole blackhole) {
+        Instant now = Instant.now();
+        for (InventoryItem item : items) {
+            item.setOnHandQuantity(item.getOnHandQuantity() - 1);
+            item.setReservedQuantity(item.getReservedQuantity() + 1);
+            item.setUpdatedAt(now);
+            blackhole.consume(item);
+        }
+    }
+
+    @Benchmark
+    public void clockReads(Blackhole blackhole) {
+        blackhole.consume(Instant.now());
+        for (int i = 0; i < items.size(); i++) {
+            blackhole.consume(Instant.now());
+            blackhole.consume(Instant.now());
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.kevdev.inventory.messaging.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON cost of the Kafka payloads: OrderCreatedEvent is read by the listener,
+ * InventoryReservationResultEvent is written into the outbox.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventJsonBenchmark {
+
+    @Param({"1", "10", "100", "1000"})
+    int lines;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private ObjectReader orderReader;
+    private ObjectWriter orderWriter;
+    private ObjectWriter resultWriter;
+
+    private OrderCreatedEvent order;
+    private byte[] orderJson;
+    private InventoryReservationResultEvent result;
+
+    @Setup
+    public void setUp() throws Exception {
+        orderReader = objectMapper.readerFor(OrderCreatedEvent.class);
+        orderWriter = objectMapper.writerFor(OrderCreatedEvent.class);
+        resultWriter = objectMapper.writerFor(InventoryReservationResultEvent.class);
+
+        List<OrderItemEvent> items = new ArrayList<>(lines);
+        List<InventoryReservationResultEvent.LineResult> results = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++) {
+            items.add(new OrderItemEvent((long) i, "SKU-" + i, "MAIN", 2));
+            results.add(new InventoryReservationResultEvent.LineResult("SKU-" + i, "MAIN", 2, 2, "RESERVED", null));
+        }
+        order = new OrderCreatedEvent("order-1", items);
+        orderJson = orderWriter.writeValueAsBytes(order);
+        result = new InventoryReservationResultEvent("order-1", "CONFIRMED", results);
+    }
+
+    @Benchmark
+    public OrderCreatedEvent readOrderCreated() throws Exception {
+        return orderReader.readValue(orderJson);
+    }
+
+    @Benchmark
+    public byte[] writeOrderCreated() throws Exception {
+        return orderWriter.writeValueAsBytes(order);
+    }
+
+    @Benchmark
+    public String writeReservationResult() throws Exception {
+        // the outbox stores payloads as text
+        return resultWriter.writeValueAsString(result);
+    }
+}
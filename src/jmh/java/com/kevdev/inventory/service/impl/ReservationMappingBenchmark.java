@@ -0,0 +1,84 @@
+package com.kevdev.inventory.service.impl;
+
+import com.kevdev.inventory.dto.ReservationResponseDto;
+import com.kevdev.inventory.entity.Reservation;
+import com.kevdev.inventory.entity.ReservationLine;
+import com.kevdev.inventory.entity.ReservationLineStatus;
+import com.kevdev.inventory.entity.ReservationStatus;
+import com.kevdev.inventory.messaging.event.InventoryReservationResultEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of building a reservation with the Lombok builder chain and mapping it to the API
+ * response and the Kafka result event.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReservationMappingBenchmark {
+
+    @Param({"1", "10", "100", "1000"})
+    int lines;
+
+    private Reservation reservation;
+    private ReservationResponseDto response;
+
+    @Setup
+    public void setUp() {
+        reservation = buildReservation(lines);
+        response = ReservationMapper.toResponse(reservation);
+    }
+
+    @Benchmark
+    public Reservation buildWithBuilders() {
+        return buildReservation(lines);
+    }
+
+    @Benchmark
+    public ReservationResponseDto mapToResponse() {
+        return ReservationMapper.toResponse(reservation);
+    }
+
+    @Benchmark
+    public InventoryReservationResultEvent mapToResultEvent() {
+        return ReservationMapper.toResultEvent("order-1", response);
+    }
+
+    static Reservation buildReservation(int lineCount) {
+        Instant now = Instant.now();
+        Reservation reservation = Reservation.builder()
+                .orderId("order-1")
+                .status(ReservationStatus.CONFIRMED)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+
+        for (int i = 0; i < lineCount; i++) {
+            reservation.getLines().add(ReservationLine.builder()
+                    .reservation(reservation)
+                    .sku("SKU-" + i)
+                    .locationId("MAIN")
+                    .requestedQuantity(2)
+                    .reservedQuantity(2)
+                    .status(ReservationLineStatus.RESERVED)
+                    .build());
+        }
+        return reservation;
+    }
+}
@@ -0,0 +1,94 @@
+package com.kevdev.inventory.service.impl;
+
+import com.kevdev.inventory.InventoryServiceApplication;
+import com.kevdev.inventory.dto.ReservationCreateRequestDto;
+import com.kevdev.inventory.dto.ReservationItemRequestDto;
+import com.kevdev.inventory.dto.ReservationResponseDto;
+import com.kevdev.inventory.entity.InventoryItem;
+import com.kevdev.inventory.repository.InventoryItemRepository;
+import com.kevdev.inventory.repository.ReservationRepository;
+import com.kevdev.inventory.service.ReservationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Order status lookup against the H2 test profile: the projection read path behind
+ * {@code GET /by-order/{orderId}} versus loading the Reservation and its lines as entities and
+ * mapping them. Run with -prof gc to compare allocation per call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReservationReadBenchmark {
+
+    @Param({"1", "10", "100"})
+    int lines;
+
+    private ConfigurableApplicationContext context;
+    private ReservationService reservationService;
+    private ReservationRepository reservationRepository;
+    private TransactionTemplate readOnly;
+    private String orderId;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(InventoryServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties("spring.jpa.properties.hibernate.generate_statistics=false",
+                        "logging.level.root=WARN")
+                .run();
+        reservationService = context.getBean(ReservationService.class);
+        reservationRepository = context.getBean(ReservationRepository.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+
+        InventoryItemRepository inventoryItemRepository = context.getBean(InventoryItemRepository.class);
+        orderId = "read-bench-" + lines;
+        List<ReservationItemRequestDto> items = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++) {
+            String sku = "READ-BENCH-" + lines + "-" + i;
+            inventoryItemRepository.save(new InventoryItem(sku, "MAIN", 1_000, 0));
+            items.add(new ReservationItemRequestDto(sku, "MAIN", 1L));
+        }
+        reservationService.createReservation(new ReservationCreateRequestDto(orderId, items));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ReservationResponseDto projection() {
+        return reservationService.getReservationByOrderId(orderId);
+    }
+
+    @Benchmark
+    public ReservationResponseDto entities() {
+        return readOnly.execute(status -> ReservationMapper.toResponse(
+                reservationRepository.findByOrderId(orderId).orElseThrow()));
+    }
+}
@@ -0,0 +1,46 @@
+package com.kevdev.inventory.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kevdev.inventory.controller.AdmissionControlFilter;
+import com.kevdev.inventory.service.admission.AdaptiveLimiter;
+import com.kevdev.inventory.service.admission.GradientLimit;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+@EnableConfigurationProperties(AdmissionControlProperties.class)
+@ConditionalOnProperty(name = "inventory.admission.enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionControlConfig {
+
+    @Bean
+    public AdaptiveLimiter adaptiveLimiter(AdmissionControlProperties properties, MeterRegistry meterRegistry) {
+        GradientLimit limit = new GradientLimit(
+                properties.initialLimit(),
+                properties.minLimit(),
+                properties.maxLimit(),
+                properties.rttTolerance(),
+                properties.smoothing(),
+                properties.longWindow()
+        );
+        return new AdaptiveLimiter(limit, properties.readReserve(), meterRegistry);
+    }
+
+    @Bean
+    public FilterRegistrationBean<AdmissionControlFilter> admissionControlFilter(
+            AdaptiveLimiter adaptiveLimiter,
+            AdmissionControlProperties properties,
+            ObjectMapper objectMapper
+    ) {
+        FilterRegistrationBean<AdmissionControlFilter> registration = new FilterRegistrationBean<>(
+                new AdmissionControlFilter(adaptiveLimiter, objectMapper, properties.retryAfter()));
+        registration.setUrlPatterns(properties.urlPatterns());
+        // ahead of everything else, so shed requests cost as little as possible
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
@@ -0,0 +1,31 @@
+package com.kevdev.inventory.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Adaptive concurrency limit in front of the write-heavy endpoints. The limit moves between
+ * {@code minLimit} and {@code maxLimit} with observed latency: it shrinks once request latency
+ * exceeds {@code rttTolerance} times the long-term average over roughly {@code longWindow}
+ * requests, and grows otherwise. Writes may only use {@code 1 - readReserve} of the limit so
+ * reads are still admitted when writes are shed. Shed requests get 503 with
+ * {@code retryAfter} as the Retry-After hint.
+ */
+@ConfigurationProperties(prefix = "inventory.admission")
+public record AdmissionControlProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("20") int initialLimit,
+        @DefaultValue("4") int minLimit,
+        @DefaultValue("200") int maxLimit,
+        @DefaultValue("2.0") double rttTolerance,
+        @DefaultValue("0.2") double smoothing,
+        @DefaultValue("600") int longWindow,
+        @DefaultValue("0.25") double readReserve,
+        @DefaultValue("PT1S") Duration retryAfter,
+        @DefaultValue({"/api/inventory/items/adjust/*", "/api/inventory/items/reserve/*", "/api/inventory/reservations/*"})
+        List<String> urlPatterns
+) {
+}
@@ -0,0 +1,9 @@
+package com.kevdev.inventory.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(AllocationProperties.class)
+public class AllocationConfig {
+}
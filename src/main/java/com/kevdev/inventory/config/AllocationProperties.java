@@ -0,0 +1,23 @@
+package com.kevdev.inventory.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.List;
+
+/**
+ * Multi-location allocation of reservation lines. {@code strategy} names an
+ * {@code AllocationStrategy} bean: {@code closest}, {@code most-stock} or {@code fewest-splits}.
+ * {@code locationOrder} ranks locations from closest to farthest; unlisted locations come last.
+ * With {@code applyTo=ALL}, lines that name a location are allocated too, starting there.
+ */
+@ConfigurationProperties(prefix = "inventory.allocation")
+public record AllocationProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("closest") String strategy,
+        @DefaultValue("UNLOCATED") ApplyTo applyTo,
+        @DefaultValue("MAIN") List<String> locationOrder
+) {
+
+    public enum ApplyTo { UNLOCATED, ALL }
+}
@@ -0,0 +1,24 @@
+package com.kevdev.inventory.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Asynchronous reservation submissions. Accepted requests wait in a bounded in-process queue
+ * and are reserved in batches of up to {@code batchSize}, waiting at most {@code linger} for a
+ * batch to fill. Results stay pollable for {@code resultTtl}. A full queue answers 503 with
+ * {@code retryAfter} as the Retry-After hint.
+ */
+@ConfigurationProperties(prefix = "inventory.reservations.async")
+public record AsyncReservationProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("10000") int queueCapacity,
+        @DefaultValue("500") int batchSize,
+        @DefaultValue("PT0.02S") Duration linger,
+        @DefaultValue("PT15M") Duration resultTtl,
+        @DefaultValue("100000") long maxResults,
+        @DefaultValue("PT1S") Duration retryAfter
+) {
+}
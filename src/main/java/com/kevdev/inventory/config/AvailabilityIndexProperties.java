@@ -0,0 +1,18 @@
+package com.kevdev.inventory.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Local per-SKU availability aggregate. {@code ttl} bounds how long an entry can miss writes
+ * made by other instances.
+ */
+@ConfigurationProperties(prefix = "inventory.availability")
+public record AvailabilityIndexProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("100000") long maximumSkus,
+        @DefaultValue("10s") Duration ttl
+) {
+}
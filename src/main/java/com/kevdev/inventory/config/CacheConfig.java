@@ -0,0 +1,9 @@
+package com.kevdev.inventory.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(InventoryCacheProperties.class)
+public class CacheConfig {
+}
@@ -0,0 +1,28 @@
+package com.kevdev.inventory.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Retries for service methods that lose an optimistic version check. Retries are drawn from a
+ * shared budget that earns {@code budgetRatio} of a retry per call, up to {@code budgetCapacity},
+ * so a conflict storm cannot multiply the load it puts on the database. From attempt
+ * {@code escalateAfter + 1} on, and for keys that conflicted {@code hotKeyThreshold} times within
+ * {@code hotKeyWindow}, rows are locked pessimistically instead.
+ */
+@ConfigurationProperties(prefix = "inventory.retry")
+public record ConflictRetryProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("5") int maxAttempts,
+        @DefaultValue("PT0.005S") Duration initialBackoff,
+        @DefaultValue("PT0.2S") Duration maxBackoff,
+        @DefaultValue("0.1") double budgetRatio,
+        @DefaultValue("50") int budgetCapacity,
+        @DefaultValue("2") int escalateAfter,
+        @DefaultValue("3") int hotKeyThreshold,
+        @DefaultValue("PT1M") Duration hotKeyWindow,
+        @DefaultValue("10000") int maxTrackedKeys
+) {
+}
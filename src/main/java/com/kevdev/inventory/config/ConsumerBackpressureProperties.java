@@ -0,0 +1,26 @@
+package com.kevdev.inventory.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Backpressure for the orders.created listeners. Consumption pauses when connection pool
+ * utilization (active plus pending over max) or mean processing latency since the last check
+ * crosses its pause threshold, and resumes once both are back under their resume thresholds
+ * and the container has stayed paused for at least minPause.
+ */
+@ConfigurationProperties(prefix = "inventory.kafka.backpressure")
+public record ConsumerBackpressureProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("1s") Duration checkInterval,
+        @DefaultValue("0.9") double poolPauseThreshold,
+        @DefaultValue("0.6") double poolResumeThreshold,
+        @DefaultValue("2s") Duration latencyPauseThreshold,
+        @DefaultValue("500ms") Duration latencyResumeThreshold,
+        @DefaultValue("5s") Duration minPause,
+        @DefaultValue("orders-created") List<String> listenerIds
+) {
+}
@@ -0,0 +1,37 @@
+package com.kevdev.inventory.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+@EnableConfigurationProperties(DataSourceLimitProperties.class)
+public class DataSourceLimitConfig {
+
+    @Bean
+    public static BeanPostProcessor concurrencyLimitedDataSourcePostProcessor(
+            ObjectProvider<DataSourceLimitProperties> limitProperties
+    ) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ConcurrencyLimitedDataSource) {
+                    return bean;
+                }
+                DataSourceLimitProperties properties = limitProperties.getObject();
+                if (!properties.enabled()) {
+                    return bean;
+                }
+                return new ConcurrencyLimitedDataSource(
+                        dataSource,
+                        properties.maxConcurrency(),
+                        properties.acquireTimeout()
+                );
+            }
+        };
+    }
+}
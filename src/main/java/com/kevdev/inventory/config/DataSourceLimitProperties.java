@@ -0,0 +1,19 @@
+package com.kevdev.inventory.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Caps how many threads may hold a database connection at once. Meant for virtual-thread mode,
+ * where thousands of request threads would otherwise pile up inside the Hikari pool; keep
+ * {@code maxConcurrency} at or below the pool size.
+ */
+@ConfigurationProperties(prefix = "inventory.datasource.limit")
+public record DataSourceLimitProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("10") int maxConcurrency,
+        @DefaultValue("PT5S") Duration acquireTimeout
+) {
+}
@@ -0,0 +1,15 @@
+package com.kevdev.inventory.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Sizing of the in-memory cache of recently reserved order ids in front of the reservation
+ * table. The unique order id constraint remains the source of truth; the cache only decides
+ * how often duplicates are looked up.
+ */
+@ConfigurationProperties(prefix = "inventory.idempotency")
+public record IdempotencyProperties(
+        @DefaultValue("10000") int recentCacheSize
+) {
+}
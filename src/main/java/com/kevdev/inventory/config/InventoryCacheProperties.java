@@ -0,0 +1,17 @@
+package com.kevdev.inventory.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Local read-through cache for inventory item reads.
+ */
+@ConfigurationProperties(prefix = "inventory.cache.items")
+public record InventoryCacheProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("100000") long maximumSize,
+        @DefaultValue("30s") Duration ttl
+) {
+}
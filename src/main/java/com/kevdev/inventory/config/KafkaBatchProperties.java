@@ -0,0 +1,19 @@
+package com.kevdev.inventory.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Micro-batching settings for the orders.created consumer. A batch closes when maxRecords
+ * are available or the broker has waited linger for minBytes of data, whichever comes first.
+ */
+@ConfigurationProperties(prefix = "inventory.kafka.batch")
+public record KafkaBatchProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("500") int maxRecords,
+        @DefaultValue("50ms") Duration linger,
+        @DefaultValue("65536") int minBytes
+) {
+}
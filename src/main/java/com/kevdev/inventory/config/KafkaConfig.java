@@ -1,20 +1,29 @@
 package com.kevdev.inventory.config;
 
-import com.kevdev.inventory.messaging.event.InventoryReservationResultEvent;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.kafka.ConcurrentKafkaListenerContainerFactoryConfigurer;
 import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.ssl.SslBundles;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.MicrometerConsumerListener;
+import org.springframework.kafka.core.MicrometerProducerListener;
 import org.springframework.kafka.core.ProducerFactory;
-import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.util.backoff.FixedBackOff;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -22,6 +31,7 @@ import java.util.Map;
 @Configuration
 @EnableKafka
 @ConditionalOnProperty(name = "inventory.kafka.enabled", havingValue = "true")
+@EnableConfigurationProperties({KafkaBatchProperties.class, ConsumerBackpressureProperties.class})
 public class KafkaConfig {
 
     @Bean
@@ -41,21 +51,68 @@ public class KafkaConfig {
     }
 
     @Bean
-    public ProducerFactory<String, InventoryReservationResultEvent> inventoryResultProducerFactory(
+    public ProducerFactory<String, String> outboxProducerFactory(
             KafkaProperties kafkaProperties,
-            SslBundles sslBundles
+            SslBundles sslBundles,
+            OutboxProperties outboxProperties,
+            MeterRegistry meterRegistry
     ) {
         Map<String, Object> props = new HashMap<>(kafkaProperties.buildProducerProperties(sslBundles));
         props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
-        return new DefaultKafkaProducerFactory<>(props);
+        // Outbox payloads are already serialized JSON.
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.ACKS_CONFIG, "all");
+        props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        props.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5);
+        props.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, outboxProperties.compressionType());
+        props.put(ProducerConfig.LINGER_MS_CONFIG, outboxProperties.lingerMs());
+        DefaultKafkaProducerFactory<String, String> factory = new DefaultKafkaProducerFactory<>(props);
+        // client metrics (send latency, record errors) for this hand-built factory
+        factory.addListener(new MicrometerProducerListener<>(meterRegistry));
+        return factory;
     }
 
     @Bean
-    public KafkaTemplate<String, InventoryReservationResultEvent> inventoryResultKafkaTemplate(
-            ProducerFactory<String, InventoryReservationResultEvent> factory
+    public KafkaTemplate<String, String> outboxKafkaTemplate(ProducerFactory<String, String> outboxProducerFactory) {
+        return new KafkaTemplate<>(outboxProducerFactory);
+    }
+
+    /**
+     * Picked up by Boot for both orders.created container factories. A failed record (or the
+     * first failed record of a batch) is retried with a short backoff before its offset is
+     * committed; orders that reference unknown items fail the same way every time and are
+     * logged and skipped straight away.
+     */
+    @Bean
+    public DefaultErrorHandler orderListenerErrorHandler() {
+        DefaultErrorHandler errorHandler = new DefaultErrorHandler(new FixedBackOff(1_000L, 5));
+        errorHandler.addNotRetryableExceptions(IllegalArgumentException.class);
+        return errorHandler;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "inventory.kafka.batch.enabled", havingValue = "true")
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> batchKafkaListenerContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+            KafkaProperties kafkaProperties,
+            SslBundles sslBundles,
+            KafkaBatchProperties batchProperties,
+            MeterRegistry meterRegistry
     ) {
-        return new KafkaTemplate<>(factory);
+        Map<String, Object> props = new HashMap<>(kafkaProperties.buildConsumerProperties(sslBundles));
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, batchProperties.maxRecords());
+        props.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, (int) batchProperties.linger().toMillis());
+        props.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, batchProperties.minBytes());
+
+        DefaultKafkaConsumerFactory<Object, Object> consumerFactory = new DefaultKafkaConsumerFactory<>(props);
+        // client metrics, including records-lag per partition
+        consumerFactory.addListener(new MicrometerConsumerListener<>(meterRegistry));
+
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, consumerFactory);
+        factory.setBatchListener(true);
+        // Offsets are committed once the listener returns, i.e. after the batch transaction committed.
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
+        return factory;
     }
 }
-
@@ -0,0 +1,21 @@
+package com.kevdev.inventory.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Transactional outbox for events produced by the service. When disabled, events are not
+ * recorded at all, matching the behaviour of running without Kafka.
+ */
+@ConfigurationProperties(prefix = "inventory.outbox")
+public record OutboxProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("500") int batchSize,
+        @DefaultValue("PT0.2S") Duration pollInterval,
+        @DefaultValue("PT30S") Duration sendTimeout,
+        @DefaultValue("lz4") String compressionType,
+        @DefaultValue("10") int lingerMs
+) {
+}
@@ -0,0 +1,19 @@
+package com.kevdev.inventory.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Hold lifetime for new reservations and settings for the sweeper that expires them.
+ * {@code enabled} only controls the sweeper; holds always get an expiry.
+ */
+@ConfigurationProperties(prefix = "inventory.reservations.expiry")
+public record ReservationExpiryProperties(
+        @DefaultValue("PT15M") Duration holdTtl,
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("500") int batchSize,
+        @DefaultValue("PT5S") Duration sweepInterval
+) {
+}
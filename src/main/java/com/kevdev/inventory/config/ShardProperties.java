@@ -0,0 +1,14 @@
+package com.kevdev.inventory.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Single-writer reservation shards. A count of 0 means one shard per available processor.
+ */
+@ConfigurationProperties(prefix = "inventory.shards")
+public record ShardProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("0") int count
+) {
+}
@@ -0,0 +1,21 @@
+package com.kevdev.inventory.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Snapshot sweeper and rebuild settings for the stock ledger. {@code snapshotEnabled} only
+ * controls the sweeper; movements are always recorded. {@code repairQuietPeriod} is how long
+ * no movement may have been recorded before the ledger endpoint accepts a repair.
+ */
+@ConfigurationProperties(prefix = "inventory.ledger")
+public record StockLedgerProperties(
+        @DefaultValue("true") boolean snapshotEnabled,
+        @DefaultValue("PT5M") Duration snapshotInterval,
+        @DefaultValue("1000") int snapshotBatchSize,
+        @DefaultValue("8") int rebuildPartitions,
+        @DefaultValue("PT1M") Duration repairQuietPeriod
+) {
+}
@@ -0,0 +1,85 @@
+package com.kevdev.inventory.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kevdev.inventory.dto.ErrorResponse;
+import com.kevdev.inventory.service.admission.AdaptiveLimiter;
+import com.kevdev.inventory.service.admission.AdaptiveLimiter.Permit;
+import com.kevdev.inventory.service.admission.AdaptiveLimiter.Priority;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Sheds requests above the adaptive concurrency limit with a fast 503 before they reach the
+ * controllers and the connection pool. GET and HEAD count as reads.
+ * <p>
+ * Streaming NDJSON requests are admitted like any other write but never sampled: they run for
+ * as long as the client keeps sending, and one such duration would inflate the long-term
+ * latency the limit compares against.
+ */
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private final AdaptiveLimiter limiter;
+    private final ObjectMapper objectMapper;
+    private final String retryAfterSeconds;
+
+    public AdmissionControlFilter(AdaptiveLimiter limiter, ObjectMapper objectMapper, Duration retryAfter) {
+        this.limiter = limiter;
+        this.objectMapper = objectMapper;
+        this.retryAfterSeconds = Long.toString(Math.max(1L, (retryAfter.toMillis() + 999) / 1000));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Optional<Permit> permit = limiter.tryAcquire(priorityOf(request));
+        if (permit.isEmpty()) {
+            reject(request, response);
+            return;
+        }
+
+        boolean completed = false;
+        try {
+            chain.doFilter(request, response);
+            completed = response.getStatus() < HttpStatus.INTERNAL_SERVER_ERROR.value();
+        } finally {
+            permit.get().release(completed && !isStreaming(request));
+        }
+    }
+
+    private static boolean isStreaming(HttpServletRequest request) {
+        String contentType = request.getContentType();
+        return contentType != null && contentType.regionMatches(
+                true, 0, MediaType.APPLICATION_NDJSON_VALUE, 0, MediaType.APPLICATION_NDJSON_VALUE.length());
+    }
+
+    private static Priority priorityOf(HttpServletRequest request) {
+        String method = request.getMethod();
+        return HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method) ? Priority.READ : Priority.WRITE;
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        HttpStatus status = HttpStatus.SERVICE_UNAVAILABLE;
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponse(
+                Instant.now(),
+                status.value(),
+                status.getReasonPhrase(),
+                "Server is at its concurrency limit, retry later",
+                request.getRequestURI()
+        ));
+    }
+}
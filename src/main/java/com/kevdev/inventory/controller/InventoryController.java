@@ -1,22 +1,44 @@
 package com.kevdev.inventory.controller;
 
+import com.kevdev.inventory.dto.InventoryBatchGetRequestDto;
 import com.kevdev.inventory.dto.InventoryItemResponse;
+import com.kevdev.inventory.dto.InventoryLookupResultDto;
 import com.kevdev.inventory.dto.StockAdjustmentRequestDto;
 import com.kevdev.inventory.dto.ReserveStockRequest;
+import com.kevdev.inventory.dto.SkuAvailabilityBatchRequestDto;
+import com.kevdev.inventory.dto.SkuAvailabilityDto;
+import com.kevdev.inventory.dto.SkuAvailabilityLookupDto;
+import com.kevdev.inventory.entity.InventoryKey;
 import com.kevdev.inventory.service.InventoryService;
+import com.kevdev.inventory.service.impl.StockAdjustmentStreamProcessor;
+import com.kevdev.inventory.service.shard.ReservationShards;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/inventory")
 public class InventoryController {
 
     private final InventoryService inventoryService;
+    private final ReservationShards reservationShards;
+    private final StockAdjustmentStreamProcessor stockAdjustmentStreamProcessor;
 
-    public InventoryController(InventoryService inventoryService) {
+    public InventoryController(
+            InventoryService inventoryService,
+            ReservationShards reservationShards,
+            StockAdjustmentStreamProcessor stockAdjustmentStreamProcessor
+    ) {
         this.inventoryService = inventoryService;
+        this.reservationShards = reservationShards;
+        this.stockAdjustmentStreamProcessor = stockAdjustmentStreamProcessor;
     }
 
     @GetMapping("/items")
@@ -28,14 +50,50 @@ public class InventoryController {
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/items/batch-get")
+    public ResponseEntity<List<InventoryLookupResultDto>> getInventoryBatch(
+            @Valid @RequestBody InventoryBatchGetRequestDto request
+    ) {
+        List<InventoryKey> keys = request.items().stream()
+                .map(item -> new InventoryKey(item.sku(), item.locationId()))
+                .toList();
+        return ResponseEntity.ok(inventoryService.getInventoryBatch(keys));
+    }
+
+    @GetMapping("/skus/{sku}/availability")
+    public ResponseEntity<SkuAvailabilityDto> getAvailability(@PathVariable String sku) {
+        return ResponseEntity.ok(inventoryService.getAvailability(sku));
+    }
+
+    @PostMapping("/skus/availability/batch-get")
+    public ResponseEntity<List<SkuAvailabilityLookupDto>> getAvailabilityBatch(
+            @Valid @RequestBody SkuAvailabilityBatchRequestDto request
+    ) {
+        return ResponseEntity.ok(inventoryService.getAvailabilityBatch(request.skus()));
+    }
+
     @PostMapping("/items/adjust")
     public ResponseEntity<InventoryItemResponse> adjustStock(
             @Valid @RequestBody StockAdjustmentRequestDto request
     ) {
-        InventoryItemResponse response = inventoryService.adjustStock(request);
+        InventoryItemResponse response = reservationShards.execute(
+                List.of(new InventoryKey(request.getSku(), request.getLocationId())),
+                () -> inventoryService.adjustStock(request)
+        );
         return ResponseEntity.ok(response);
     }
 
+    // NDJSON in, one NDJSON result line per input line out, applied in chunks as it streams
+    @PostMapping(
+            value = "/items/adjust/bulk",
+            consumes = MediaType.APPLICATION_NDJSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE
+    )
+    public void adjustStockBulk(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        stockAdjustmentStreamProcessor.process(request.getInputStream(), response.getOutputStream());
+    }
+
     // optional thin endpoints for simple reserve and release
     // paths changed so they do not overlap with ReservationController
 
@@ -43,7 +101,10 @@ public class InventoryController {
     public ResponseEntity<Void> reserveStock(
             @Valid @RequestBody ReserveStockRequest request
     ) {
-        inventoryService.reserveStock(request);
+        reservationShards.run(
+                List.of(new InventoryKey(request.getSku(), request.getLocationId())),
+                () -> inventoryService.reserveStock(request)
+        );
         return ResponseEntity.status(HttpStatus.CREATED).build();
     }
 
@@ -51,7 +112,10 @@ public class InventoryController {
     public ResponseEntity<Void> releaseStock(
             @Valid @RequestBody ReserveStockRequest request
     ) {
-        inventoryService.releaseReserved(request);
+        reservationShards.run(
+                List.of(new InventoryKey(request.getSku(), request.getLocationId())),
+                () -> inventoryService.releaseReserved(request)
+        );
         return ResponseEntity.noContent().build();
     }
 }
@@ -1,22 +1,44 @@
 package com.kevdev.inventory.controller;
 
+import com.kevdev.inventory.dto.ReservationActionItemDto;
 import com.kevdev.inventory.dto.ReservationActionRequestDto;
+import com.kevdev.inventory.dto.ReservationBulkActionRequestDto;
+import com.kevdev.inventory.dto.ReservationBulkCreateRequestDto;
+import com.kevdev.inventory.dto.ReservationBulkResultDto;
 import com.kevdev.inventory.dto.ReservationCreateRequestDto;
 import com.kevdev.inventory.dto.ReservationResponseDto;
+import com.kevdev.inventory.dto.ReservationSubmissionDto;
+import com.kevdev.inventory.entity.InventoryKey;
 import com.kevdev.inventory.service.ReservationService;
+import com.kevdev.inventory.service.impl.ReservationBatchProcessor;
+import com.kevdev.inventory.service.shard.ReservationShards;
+import com.kevdev.inventory.service.submission.ReservationSubmissionQueue;
+import com.kevdev.inventory.service.submission.SubmissionNotFoundException;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/inventory/reservations")
 public class ReservationController {
 
     private final ReservationService reservationService;
+    private final ReservationShards reservationShards;
+    private final ReservationSubmissionQueue submissionQueue;
+    private final ReservationBatchProcessor batchProcessor;
 
-    public ReservationController(ReservationService reservationService) {
+    public ReservationController(ReservationService reservationService,
+                                 ReservationShards reservationShards,
+                                 ReservationSubmissionQueue submissionQueue,
+                                 ReservationBatchProcessor batchProcessor) {
         this.reservationService = reservationService;
+        this.reservationShards = reservationShards;
+        this.submissionQueue = submissionQueue;
+        this.batchProcessor = batchProcessor;
     }
 
     // POST  /api/inventory/reservations
@@ -24,17 +46,50 @@ public class ReservationController {
     public ResponseEntity<ReservationResponseDto> createReservation(
             @Valid @RequestBody ReservationCreateRequestDto request
     ) {
-        ReservationResponseDto response = reservationService.createReservation(request);
+        List<InventoryKey> keys = request.items().stream()
+                .flatMap(item -> reservationService.findCandidateKeys(item.sku(), item.locationId()).stream())
+                .toList();
+        ReservationResponseDto response = reservationShards.execute(
+                keys,
+                () -> reservationService.createReservation(request)
+        );
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    // POST  /api/inventory/reservations/submissions
+    @PostMapping("/submissions")
+    public ResponseEntity<ReservationSubmissionDto> submitReservation(
+            @Valid @RequestBody ReservationCreateRequestDto request
+    ) {
+        ReservationSubmissionDto submission = submissionQueue.submit(request);
+        return ResponseEntity.accepted()
+                .location(UriComponentsBuilder.fromPath("/api/inventory/reservations/submissions/{orderId}")
+                        .buildAndExpand(request.orderId())
+                        .encode()
+                        .toUri())
+                .body(submission);
+    }
+
+    // GET  /api/inventory/reservations/submissions/{orderId}
+    @GetMapping("/submissions/{orderId}")
+    public ReservationSubmissionDto getSubmission(
+            @PathVariable("orderId") String orderId
+    ) {
+        return submissionQueue.find(orderId)
+                .or(() -> reservationService.findReservationByOrderId(orderId).map(ReservationSubmissionDto::completed))
+                .orElseThrow(() -> new SubmissionNotFoundException(orderId));
+    }
+
     // POST  /api/inventory/reservations/{reservationId}/commit
     @PostMapping("/{reservationId}/commit")
     public ReservationResponseDto commitReservation(
             @PathVariable("reservationId") Long reservationId,
             @RequestBody ReservationActionRequestDto request
     ) {
-        return reservationService.commitReservation(reservationId, request.reason());
+        return reservationShards.execute(
+                reservationService.findInventoryKeys(reservationId),
+                () -> reservationService.commitReservation(reservationId, request.reason())
+        );
     }
 
     // POST  /api/inventory/reservations/{reservationId}/release
@@ -43,7 +98,40 @@ public class ReservationController {
             @PathVariable("reservationId") Long reservationId,
             @RequestBody ReservationActionRequestDto request
     ) {
-        return reservationService.releaseReservation(reservationId, request.reason());
+        return reservationShards.execute(
+                reservationService.findInventoryKeys(reservationId),
+                () -> reservationService.releaseReservation(reservationId, request.reason())
+        );
+    }
+
+    // POST  /api/inventory/reservations/batch
+    @PostMapping("/batch")
+    public List<ReservationBulkResultDto> createReservations(
+            @Valid @RequestBody ReservationBulkCreateRequestDto request
+    ) {
+        return batchProcessor.createReservations(request.reservations());
+    }
+
+    // POST  /api/inventory/reservations/batch/commit
+    @PostMapping("/batch/commit")
+    public List<ReservationBulkResultDto> commitReservations(
+            @Valid @RequestBody ReservationBulkActionRequestDto request
+    ) {
+        return reservationShards.execute(
+                reservationService.findInventoryKeysByReservationIds(reservationIds(request)),
+                () -> reservationService.commitReservations(request.items())
+        );
+    }
+
+    // POST  /api/inventory/reservations/batch/release
+    @PostMapping("/batch/release")
+    public List<ReservationBulkResultDto> releaseReservations(
+            @Valid @RequestBody ReservationBulkActionRequestDto request
+    ) {
+        return reservationShards.execute(
+                reservationService.findInventoryKeysByReservationIds(reservationIds(request)),
+                () -> reservationService.releaseReservations(request.items())
+        );
     }
 
     // GET  /api/inventory/reservations/order/{orderId}
@@ -53,5 +141,11 @@ public class ReservationController {
     ) {
         return reservationService.getReservationByOrderId(orderId);
     }
-}
 
+    private static List<Long> reservationIds(ReservationBulkActionRequestDto request) {
+        return request.items().stream()
+                .map(ReservationActionItemDto::reservationId)
+                .distinct()
+                .toList();
+    }
+}
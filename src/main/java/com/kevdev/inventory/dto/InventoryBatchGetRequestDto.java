@@ -0,0 +1,14 @@
+package com.kevdev.inventory.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record InventoryBatchGetRequestDto(
+        @NotEmpty @Size(max = InventoryBatchGetRequestDto.MAX_KEYS) List<@Valid InventoryKeyRequestDto> items
+) {
+
+    public static final int MAX_KEYS = 5000;
+}
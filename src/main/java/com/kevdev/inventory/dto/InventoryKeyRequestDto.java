@@ -0,0 +1,9 @@
+package com.kevdev.inventory.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+public record InventoryKeyRequestDto(
+        @NotBlank String sku,
+        @NotBlank String locationId
+) {
+}
@@ -0,0 +1,12 @@
+package com.kevdev.inventory.dto;
+
+/**
+ * One entry of a batch lookup, in request order. {@code item} is null when the pair is unknown.
+ */
+public record InventoryLookupResultDto(
+        String sku,
+        String locationId,
+        boolean found,
+        InventoryItemResponse item
+) {
+}
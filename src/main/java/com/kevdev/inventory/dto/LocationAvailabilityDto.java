@@ -0,0 +1,9 @@
+package com.kevdev.inventory.dto;
+
+public record LocationAvailabilityDto(
+        String locationId,
+        long quantityOnHand,
+        long quantityReserved,
+        long quantityAvailable
+) {
+}
@@ -0,0 +1,9 @@
+package com.kevdev.inventory.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+public record ReservationActionItemDto(
+        @NotNull Long reservationId,
+        String reason
+) {
+}
@@ -0,0 +1,15 @@
+package com.kevdev.inventory.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record ReservationBulkActionRequestDto(
+        @NotEmpty @Size(max = ReservationBulkActionRequestDto.MAX_RESERVATIONS)
+        List<@Valid ReservationActionItemDto> items
+) {
+
+    public static final int MAX_RESERVATIONS = 5000;
+}
@@ -0,0 +1,15 @@
+package com.kevdev.inventory.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record ReservationBulkCreateRequestDto(
+        @NotEmpty @Size(max = ReservationBulkCreateRequestDto.MAX_RESERVATIONS)
+        List<@Valid ReservationCreateRequestDto> reservations
+) {
+
+    public static final int MAX_RESERVATIONS = 1000;
+}
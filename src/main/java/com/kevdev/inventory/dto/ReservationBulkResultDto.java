@@ -0,0 +1,20 @@
+package com.kevdev.inventory.dto;
+
+/**
+ * Per-reservation result of a bulk create, commit or release, in request order. {@code status}
+ * is the reservation status after the call, or {@link #REJECTED} with the cause in
+ * {@code message} when the item was skipped. {@code orderId} is only set for creates.
+ */
+public record ReservationBulkResultDto(
+        Long reservationId,
+        String orderId,
+        String status,
+        String message
+) {
+
+    public static final String REJECTED = "REJECTED";
+
+    public static ReservationBulkResultDto rejected(Long reservationId, String orderId, String message) {
+        return new ReservationBulkResultDto(reservationId, orderId, REJECTED, message);
+    }
+}
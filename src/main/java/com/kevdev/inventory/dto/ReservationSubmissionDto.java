@@ -0,0 +1,34 @@
+package com.kevdev.inventory.dto;
+
+/**
+ * State of an asynchronous reservation submission, keyed by order id. {@code reservation} is
+ * set once the submission is COMPLETED; {@code message} explains a FAILED one.
+ */
+public record ReservationSubmissionDto(
+        String orderId,
+        String status,
+        ReservationResponseDto reservation,
+        String message
+) {
+
+    public static final String QUEUED = "QUEUED";
+    public static final String PROCESSING = "PROCESSING";
+    public static final String COMPLETED = "COMPLETED";
+    public static final String FAILED = "FAILED";
+
+    public static ReservationSubmissionDto queued(String orderId) {
+        return new ReservationSubmissionDto(orderId, QUEUED, null, null);
+    }
+
+    public static ReservationSubmissionDto processing(String orderId) {
+        return new ReservationSubmissionDto(orderId, PROCESSING, null, null);
+    }
+
+    public static ReservationSubmissionDto completed(ReservationResponseDto reservation) {
+        return new ReservationSubmissionDto(reservation.orderId(), COMPLETED, reservation, null);
+    }
+
+    public static ReservationSubmissionDto failed(String orderId, String message) {
+        return new ReservationSubmissionDto(orderId, FAILED, null, message);
+    }
+}
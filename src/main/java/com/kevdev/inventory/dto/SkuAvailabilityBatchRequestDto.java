@@ -0,0 +1,14 @@
+package com.kevdev.inventory.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record SkuAvailabilityBatchRequestDto(
+        @NotEmpty @Size(max = SkuAvailabilityBatchRequestDto.MAX_SKUS) List<@NotBlank String> skus
+) {
+
+    public static final int MAX_SKUS = 1000;
+}
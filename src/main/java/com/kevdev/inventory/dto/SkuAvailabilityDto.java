@@ -0,0 +1,15 @@
+package com.kevdev.inventory.dto;
+
+import java.util.List;
+
+/**
+ * Totals of one SKU across all locations, with the per-location breakdown ordered by location id.
+ */
+public record SkuAvailabilityDto(
+        String sku,
+        long quantityOnHand,
+        long quantityReserved,
+        long quantityAvailable,
+        List<LocationAvailabilityDto> locations
+) {
+}
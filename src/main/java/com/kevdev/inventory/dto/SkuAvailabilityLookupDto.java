@@ -0,0 +1,12 @@
+package com.kevdev.inventory.dto;
+
+/**
+ * One entry of a batch availability lookup, in request order. {@code availability} is null when
+ * the SKU has no inventory at any location.
+ */
+public record SkuAvailabilityLookupDto(
+        String sku,
+        boolean found,
+        SkuAvailabilityDto availability
+) {
+}
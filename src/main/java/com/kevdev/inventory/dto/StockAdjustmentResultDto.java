@@ -0,0 +1,15 @@
+package com.kevdev.inventory.dto;
+
+/**
+ * Per-line result of a bulk stock adjustment. {@code line} is the 1-based line number in the
+ * submitted NDJSON stream.
+ */
+public record StockAdjustmentResultDto(
+        long line,
+        String sku,
+        String locationId,
+        Integer quantityDelta,
+        String status,
+        String message
+) {
+}
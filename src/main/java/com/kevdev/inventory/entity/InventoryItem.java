@@ -16,7 +16,8 @@ import java.time.Instant;
 public class InventoryItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inventory_items_id_seq")
+    @SequenceGenerator(name = "inventory_items_id_seq", sequenceName = "inventory_items_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 64)
@@ -34,6 +35,10 @@ public class InventoryItem {
     @Column(name = "updated_at", nullable = false)
     private Instant updatedAt;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     protected InventoryItem() {
         this.quantityOnHand = 0;
         this.quantityReserved = 0;
@@ -107,6 +112,10 @@ public class InventoryItem {
         this.updatedAt = updatedAt != null ? updatedAt : Instant.now();
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
     // Compatibility methods for ReservationServiceImpl
 
     public long getOnHandQuantity() {
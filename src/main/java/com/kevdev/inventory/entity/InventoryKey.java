@@ -0,0 +1,23 @@
+package com.kevdev.inventory.entity;
+
+public record InventoryKey(
+        String sku,
+        String locationId
+) {
+
+    public static final String DEFAULT_LOCATION_ID = "MAIN";
+
+    public static InventoryKey of(InventoryItem item) {
+        return new InventoryKey(item.getSku(), item.getLocationId());
+    }
+
+    /**
+     * Key for a requested line, where a missing location means the default location.
+     */
+    public static InventoryKey forLine(String sku, String locationId) {
+        if (locationId == null || locationId.isBlank()) {
+            return new InventoryKey(sku, DEFAULT_LOCATION_ID);
+        }
+        return new InventoryKey(sku, locationId);
+    }
+}
@@ -0,0 +1,39 @@
+package com.kevdev.inventory.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Quantities of one inventory item as of stock ledger entry {@code lastAdjustmentId}. Written
+ * with SQL by the snapshot sweeper; mapped so the schema is known to JPA.
+ */
+@Entity
+@Table(name = "inventory_snapshot")
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventorySnapshot {
+
+    @Id
+    @Column(name = "inventory_item_id")
+    private Long inventoryItemId;
+
+    @Column(name = "quantity_on_hand", nullable = false)
+    private long quantityOnHand;
+
+    @Column(name = "quantity_reserved", nullable = false)
+    private long quantityReserved;
+
+    @Column(name = "last_adjustment_id", nullable = false)
+    private long lastAdjustmentId;
+
+    @Column(name = "taken_at", nullable = false)
+    private Instant takenAt;
+}
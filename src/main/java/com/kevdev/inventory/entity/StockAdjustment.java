@@ -8,6 +8,7 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -27,7 +28,8 @@ import java.time.Instant;
 public class StockAdjustment {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_adjustment_id_seq")
+    @SequenceGenerator(name = "stock_adjustment_id_seq", sequenceName = "stock_adjustment_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
@@ -43,6 +45,9 @@ public class StockAdjustment {
     @Column(name = "quantity_delta", nullable = false)
     private long quantityDelta;
 
+    @Column(name = "reserved_delta", nullable = false)
+    private long reservedDelta;
+
     @Column(name = "reason")
     private String reason;
 
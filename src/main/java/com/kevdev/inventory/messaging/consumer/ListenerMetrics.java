@@ -0,0 +1,19 @@
+package com.kevdev.inventory.messaging.consumer;
+
+/**
+ * Metric names shared by the orders.created listeners. Tags are limited to {@code mode}
+ * (record or batch). Both listeners register under the same container id; only one of them
+ * is active at a time.
+ */
+final class ListenerMetrics {
+
+    static final String LATENCY_TIMER = "inventory.listener.latency";
+    static final String BATCH_SIZE = "inventory.listener.batch.size";
+    static final String PAUSED = "inventory.listener.paused";
+    static final String PAUSES = "inventory.listener.pauses";
+
+    static final String LISTENER_ID = "orders-created";
+
+    private ListenerMetrics() {
+    }
+}
@@ -0,0 +1,36 @@
+package com.kevdev.inventory.messaging.consumer;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports backpressure on the orders.created consumer under the {@code consumption} health
+ * group, {@code /actuator/health/consumption}. A paused consumer is still healthy, so the status
+ * stays UP and the pause shows in the details.
+ */
+@Component
+@ConditionalOnExpression("${inventory.kafka.enabled:false} and ${inventory.kafka.backpressure.enabled:true}")
+public class OrderConsumptionHealthIndicator implements HealthIndicator {
+
+    private final OrderConsumptionThrottle throttle;
+
+    public OrderConsumptionHealthIndicator(OrderConsumptionThrottle throttle) {
+        this.throttle = throttle;
+    }
+
+    @Override
+    public Health health() {
+        OrderConsumptionThrottle.State state = throttle.getState();
+        Health.Builder health = Health.up()
+                .withDetail("paused", state.paused())
+                .withDetail("poolUtilization", state.poolUtilization())
+                .withDetail("latencyMs", state.latency().toMillis());
+        if (state.paused()) {
+            health.withDetail("reason", state.reason().name().toLowerCase())
+                    .withDetail("pausedSince", state.since().toString());
+        }
+        return health.build();
+    }
+}
@@ -0,0 +1,168 @@
+package com.kevdev.inventory.messaging.consumer;
+
+import com.kevdev.inventory.config.ConsumerBackpressureProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pauses the orders.created listener containers while the database is saturated. Each check
+ * reads connection pool utilization from the Hikari meters and the mean listener latency since
+ * the previous check; crossing either pause threshold pauses the containers, and they resume
+ * only after {@code minPause} and once both signals are under their (lower) resume thresholds.
+ * <p>
+ * Pausing a container pauses all of its assigned partitions. The consumer keeps polling, so
+ * the group does not rebalance, and nothing past the last processed record is committed: on
+ * resume consumption continues from the same offsets in partition order.
+ */
+@Slf4j
+@Component
+@ConditionalOnExpression("${inventory.kafka.enabled:false} and ${inventory.kafka.backpressure.enabled:true}")
+public class OrderConsumptionThrottle {
+
+    private static final String POOL_ACTIVE = "hikaricp.connections.active";
+    private static final String POOL_PENDING = "hikaricp.connections.pending";
+    private static final String POOL_MAX = "hikaricp.connections.max";
+
+    public enum Reason { POOL, LATENCY }
+
+    /** What the last check saw and decided; {@code since} and {@code reason} are null when running. */
+    public record State(boolean paused, Reason reason, Instant since, double poolUtilization, Duration latency) {
+    }
+
+    private final ConsumerBackpressureProperties properties;
+    private final KafkaListenerEndpointRegistry listenerRegistry;
+    private final MeterRegistry meterRegistry;
+    private final Counter poolPauses;
+    private final Counter latencyPauses;
+
+    private volatile State state = new State(false, null, null, 0.0, Duration.ZERO);
+    private long pausedAtNanos;
+    private long lastCount;
+    private double lastTotalNanos;
+
+    public OrderConsumptionThrottle(ConsumerBackpressureProperties properties,
+                                    KafkaListenerEndpointRegistry listenerRegistry,
+                                    MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.listenerRegistry = listenerRegistry;
+        this.meterRegistry = meterRegistry;
+        this.poolPauses = pauseCounter(meterRegistry, Reason.POOL);
+        this.latencyPauses = pauseCounter(meterRegistry, Reason.LATENCY);
+        Gauge.builder(ListenerMetrics.PAUSED, this, throttle -> throttle.state.paused() ? 1.0 : 0.0)
+                .description("1 while orders.created consumption is paused for backpressure")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.kafka.backpressure.check-interval:PT1S}")
+    public void check() {
+        check(System.nanoTime());
+    }
+
+    synchronized void check(long nowNanos) {
+        double pool = poolUtilization();
+        Duration latency = latencySinceLastCheck();
+        State current = state;
+
+        if (!current.paused()) {
+            Reason reason = pauseReason(pool, latency);
+            if (reason != null) {
+                pausedAtNanos = nowNanos;
+                setPaused(true);
+                (reason == Reason.POOL ? poolPauses : latencyPauses).increment();
+                log.warn("Pausing orders.created consumption: reason={} poolUtilization={} latency={}",
+                        reason, String.format("%.2f", pool), latency);
+                state = new State(true, reason, Instant.now(), pool, latency);
+                return;
+            }
+        } else if (nowNanos - pausedAtNanos >= properties.minPause().toNanos() && canResume(pool, latency)) {
+            setPaused(false);
+            log.info("Resuming orders.created consumption after {}",
+                    Duration.ofNanos(nowNanos - pausedAtNanos));
+            state = new State(false, null, null, pool, latency);
+            return;
+        }
+        state = new State(current.paused(), current.reason(), current.since(), pool, latency);
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    private Reason pauseReason(double pool, Duration latency) {
+        if (pool >= properties.poolPauseThreshold()) {
+            return Reason.POOL;
+        }
+        if (latency.compareTo(properties.latencyPauseThreshold()) >= 0) {
+            return Reason.LATENCY;
+        }
+        return null;
+    }
+
+    private boolean canResume(double pool, Duration latency) {
+        // paused containers process nothing, so an empty window reads as zero latency
+        return pool <= properties.poolResumeThreshold()
+                && latency.compareTo(properties.latencyResumeThreshold()) <= 0;
+    }
+
+    private void setPaused(boolean paused) {
+        for (String listenerId : properties.listenerIds()) {
+            MessageListenerContainer container = listenerRegistry.getListenerContainer(listenerId);
+            if (container == null) {
+                continue;
+            }
+            if (paused) {
+                container.pause();
+            } else {
+                container.resume();
+            }
+        }
+    }
+
+    private double poolUtilization() {
+        double max = sumGauges(POOL_MAX);
+        if (max <= 0) {
+            return 0.0;
+        }
+        return (sumGauges(POOL_ACTIVE) + sumGauges(POOL_PENDING)) / max;
+    }
+
+    private double sumGauges(String name) {
+        return meterRegistry.find(name).gauges().stream().mapToDouble(Gauge::value).sum();
+    }
+
+    private Duration latencySinceLastCheck() {
+        long count = 0;
+        double totalNanos = 0;
+        for (Timer timer : meterRegistry.find(ListenerMetrics.LATENCY_TIMER).timers()) {
+            count += timer.count();
+            totalNanos += timer.totalTime(TimeUnit.NANOSECONDS);
+        }
+        long deltaCount = count - lastCount;
+        double deltaNanos = totalNanos - lastTotalNanos;
+        lastCount = count;
+        lastTotalNanos = totalNanos;
+        if (deltaCount <= 0) {
+            return Duration.ZERO;
+        }
+        return Duration.ofNanos((long) (deltaNanos / deltaCount));
+    }
+
+    private static Counter pauseCounter(MeterRegistry meterRegistry, Reason reason) {
+        return Counter.builder(ListenerMetrics.PAUSES)
+                .description("Times orders.created consumption was paused for backpressure")
+                .tag("reason", reason.name().toLowerCase())
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,68 @@
+package com.kevdev.inventory.messaging.consumer;
+
+import com.kevdev.inventory.messaging.event.OrderCreatedEvent;
+import com.kevdev.inventory.service.impl.ReservationBatchProcessor;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Slf4j
+@Component
+@ConditionalOnExpression("${inventory.kafka.enabled:false} and ${inventory.kafka.batch.enabled:false}")
+public class OrderCreatedBatchListener {
+
+    private final ReservationBatchProcessor batchProcessor;
+    private final Timer batchTimer;
+    private final DistributionSummary batchSize;
+
+    public OrderCreatedBatchListener(ReservationBatchProcessor batchProcessor, MeterRegistry meterRegistry) {
+        this.batchProcessor = batchProcessor;
+        this.batchTimer = Timer.builder(ListenerMetrics.LATENCY_TIMER)
+                .description("Time to process one orders.created record or batch")
+                .tag("mode", "batch")
+                .register(meterRegistry);
+        this.batchSize = DistributionSummary.builder(ListenerMetrics.BATCH_SIZE)
+                .description("Records per orders.created batch")
+                .register(meterRegistry);
+    }
+
+    @KafkaListener(
+            id = ListenerMetrics.LISTENER_ID,
+            topics = "orders.created",
+            groupId = "inventory-service",
+            containerFactory = "batchKafkaListenerContainerFactory"
+    )
+    public void handleOrderCreatedBatch(@Payload List<OrderCreatedEvent> events) {
+        log.debug("Received batch of {} OrderCreatedEvents", events.size());
+        batchSize.record(events.size());
+        ReservationBatchProcessor.BatchResult result = batchTimer.record(() -> batchProcessor.reserve(events));
+        failOnFirstUnreserved(events, result);
+    }
+
+    /**
+     * Hands the first order that could not be reserved to the container's error handler. Offsets
+     * before it are committed; it and everything after it are redelivered, and orders that were
+     * already reserved replay their stored result.
+     */
+    static void failOnFirstUnreserved(List<OrderCreatedEvent> events, ReservationBatchProcessor.BatchResult result) {
+        if (result.failures().isEmpty()) {
+            return;
+        }
+        for (int index = 0; index < events.size(); index++) {
+            OrderCreatedEvent event = events.get(index);
+            RuntimeException failure = event == null ? null : result.failures().get(event.orderId());
+            if (failure != null) {
+                throw new BatchListenerFailedException(
+                        "Reservation failed for orderId " + event.orderId(), failure, index);
+            }
+        }
+    }
+}
@@ -1,26 +1,35 @@
 package com.kevdev.inventory.messaging.consumer;
 
 import com.kevdev.inventory.messaging.event.OrderCreatedEvent;
-import com.kevdev.inventory.service.ReservationService;
-import lombok.RequiredArgsConstructor;
+import com.kevdev.inventory.service.impl.ReservationBatchProcessor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Component;
 
 @Slf4j
 @Component
-@RequiredArgsConstructor
-@ConditionalOnProperty(name = "inventory.kafka.enabled", havingValue = "true")
+@ConditionalOnExpression("${inventory.kafka.enabled:false} and !${inventory.kafka.batch.enabled:false}")
 public class OrderCreatedListener {
 
-    private final ReservationService reservationService;
+    private final ReservationBatchProcessor batchProcessor;
+    private final Timer recordTimer;
 
-    @KafkaListener(topics = "orders.created", groupId = "inventory-service")
+    public OrderCreatedListener(ReservationBatchProcessor batchProcessor, MeterRegistry meterRegistry) {
+        this.batchProcessor = batchProcessor;
+        this.recordTimer = Timer.builder(ListenerMetrics.LATENCY_TIMER)
+                .description("Time to process one orders.created record or batch")
+                .tag("mode", "record")
+                .register(meterRegistry);
+    }
+
+    @KafkaListener(id = ListenerMetrics.LISTENER_ID, topics = "orders.created", groupId = "inventory-service")
     public void handleOrderCreated(@Payload OrderCreatedEvent event) {
         log.info("Received OrderCreatedEvent for orderId={}", event.orderId());
-        reservationService.reserveForOrder(event);
+        recordTimer.record(() -> batchProcessor.processOne(event));
     }
 }
 
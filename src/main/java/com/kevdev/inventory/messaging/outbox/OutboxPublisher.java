@@ -0,0 +1,47 @@
+package com.kevdev.inventory.messaging.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kevdev.inventory.config.OutboxProperties;
+import com.kevdev.inventory.entity.OutboxEvent;
+import com.kevdev.inventory.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+/**
+ * Records outgoing events in the outbox table as part of the caller's transaction.
+ * {@link OutboxRelay} publishes them to Kafka after the transaction has committed.
+ */
+@Component
+@RequiredArgsConstructor
+public class OutboxPublisher {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+    private final OutboxProperties outboxProperties;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(String topic, String key, Object payload) {
+        if (!outboxProperties.enabled()) {
+            return;
+        }
+
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize outbox payload for key " + key, ex);
+        }
+
+        outboxEventRepository.save(OutboxEvent.builder()
+                .topic(topic)
+                .messageKey(key)
+                .payload(json)
+                .createdAt(Instant.now())
+                .build());
+    }
+}
@@ -0,0 +1,122 @@
+package com.kevdev.inventory.messaging.outbox;
+
+import com.kevdev.inventory.config.OutboxProperties;
+import com.kevdev.inventory.entity.OutboxEvent;
+import com.kevdev.inventory.repository.OutboxEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Drains the outbox in id order. A short transaction claims a batch by stamping a lease on
+ * its rows and commits; the batch is then sent asynchronously outside any transaction, and a
+ * second short transaction deletes the acknowledged rows and releases the rest for the next
+ * poll, so delivery is at least once. Once an event fails, later events with the same key are
+ * kept even if they were acknowledged, so the retry resends them in their original order. A
+ * relay that dies mid-send leaves its rows to be reclaimed once the lease runs out.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "inventory.outbox.enabled", havingValue = "true")
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final KafkaTemplate<String, String> outboxKafkaTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxProperties outboxProperties;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       KafkaTemplate<String, String> outboxKafkaTemplate,
+                       TransactionTemplate transactionTemplate,
+                       OutboxProperties outboxProperties) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxKafkaTemplate = outboxKafkaTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.outboxProperties = outboxProperties;
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.outbox.poll-interval:PT0.2S}")
+    public void relay() {
+        int published;
+        do {
+            published = relayBatch();
+        } while (published == outboxProperties.batchSize());
+    }
+
+    int relayBatch() {
+        List<OutboxEvent> batch = transactionTemplate.execute(status -> claimBatch());
+        if (batch == null || batch.isEmpty()) {
+            return 0;
+        }
+
+        List<CompletableFuture<SendResult<String, String>>> futures = new ArrayList<>(batch.size());
+        for (OutboxEvent event : batch) {
+            futures.add(outboxKafkaTemplate.send(event.getTopic(), event.getMessageKey(), event.getPayload()));
+        }
+        outboxKafkaTemplate.flush();
+
+        long deadline = System.nanoTime() + outboxProperties.sendTimeout().toNanos();
+        List<Long> acknowledged = new ArrayList<>(batch.size());
+        List<Long> retained = new ArrayList<>();
+        Set<String> failedKeys = new HashSet<>();
+        for (int i = 0; i < batch.size(); i++) {
+            OutboxEvent event = batch.get(i);
+            if (Thread.currentThread().isInterrupted()) {
+                retained.add(event.getId());
+                continue;
+            }
+            boolean sent = false;
+            try {
+                futures.get(i).get(Math.max(deadline - System.nanoTime(), 0L), TimeUnit.NANOSECONDS);
+                sent = true;
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException | TimeoutException ex) {
+                log.warn("Outbox event id={} key={} not acknowledged, will retry", event.getId(), event.getMessageKey(), ex);
+            }
+            if (sent && !failedKeys.contains(event.getMessageKey())) {
+                acknowledged.add(event.getId());
+            } else {
+                failedKeys.add(event.getMessageKey());
+                retained.add(event.getId());
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!acknowledged.isEmpty()) {
+                outboxEventRepository.deleteAllByIdInBatch(acknowledged);
+            }
+            if (!retained.isEmpty()) {
+                outboxEventRepository.releaseClaims(retained);
+            }
+        });
+        return acknowledged.size();
+    }
+
+    private List<OutboxEvent> claimBatch() {
+        Instant now = Instant.now();
+        List<OutboxEvent> batch = outboxEventRepository.findBatchForPublish(
+                now, PageRequest.of(0, outboxProperties.batchSize()));
+        if (!batch.isEmpty()) {
+            // long enough to cover the send timeout with room to spare
+            Instant until = now.plus(outboxProperties.sendTimeout().multipliedBy(2));
+            outboxEventRepository.claim(batch.stream().map(OutboxEvent::getId).toList(), until);
+        }
+        return batch;
+    }
+}
@@ -0,0 +1,7 @@
+package com.kevdev.inventory.repository;
+
+public enum AdjustmentStatus {
+    APPLIED,
+    NOT_FOUND,
+    INSUFFICIENT_STOCK
+}
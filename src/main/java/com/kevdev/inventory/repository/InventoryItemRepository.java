@@ -3,10 +3,13 @@ package com.kevdev.inventory.repository;
 import com.kevdev.inventory.entity.InventoryItem;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
-public interface InventoryItemRepository extends JpaRepository<InventoryItem, Long> {
+public interface InventoryItemRepository extends JpaRepository<InventoryItem, Long>, InventoryItemRepositoryCustom {
 
     Optional<InventoryItem> findBySkuAndLocationId(String sku, String locationId);
-}
 
+    List<InventoryItem> findBySkuIn(Collection<String> skus);
+}
@@ -0,0 +1,49 @@
+package com.kevdev.inventory.repository;
+
+import com.kevdev.inventory.entity.InventoryItem;
+import com.kevdev.inventory.entity.InventoryKey;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface InventoryItemRepositoryCustom {
+
+    /**
+     * Reserves every demand whose inventory row has enough available stock, using one
+     * lookup statement and one batched conditional update for the whole list.
+     * Outcomes are returned in the same order as the demands. If any demand refers to an
+     * unknown sku and location, nothing is reserved and the unknown demands are reported
+     * as not found.
+     */
+    List<ReservationOutcome> reserveAvailable(List<StockDemand> demands);
+
+    /**
+     * Loads every inventory row matching the given keys, ordered by id. Keys without a row
+     * are skipped. With forUpdate the rows are locked with SELECT ... FOR UPDATE in ascending
+     * id order, the same order used by {@link #reserveAvailable}, so multi-line paths cannot
+     * deadlock on each other.
+     */
+    List<InventoryItem> findAllByKeys(Collection<InventoryKey> keys, boolean forUpdate);
+
+    /**
+     * Applies on-hand deltas with batched statements. Non-negative deltas are atomic upserts
+     * that create missing rows; negative deltas only apply when the row exists and stays at or
+     * above zero. Statuses are returned in the same order as the deltas, and repeated keys are
+     * applied in input order.
+     */
+    List<AdjustmentStatus> applyAdjustments(List<StockDelta> deltas);
+
+    /**
+     * Releases reserved stock held by expired or released reservations with one batched decrement
+     * per item, applied in ascending item id order. Returns the entries that would have taken
+     * reserved below zero; those rows are left unchanged.
+     */
+    List<ReservedQuantity> releaseReserved(List<ReservedQuantity> released);
+
+    /**
+     * Ships committed stock with one batched decrement of on hand and reserved per item, applied
+     * in ascending item id order. Returns the entries that would have taken either quantity below
+     * zero; those rows are left unchanged.
+     */
+    List<ReservedQuantity> commitReserved(List<ReservedQuantity> committed);
+}
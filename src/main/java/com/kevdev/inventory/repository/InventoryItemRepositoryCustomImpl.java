@@ -0,0 +1,395 @@
+package com.kevdev.inventory.repository;
+
+import com.kevdev.inventory.entity.InventoryItem;
+import com.kevdev.inventory.entity.InventoryKey;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.TypedQuery;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class InventoryItemRepositoryCustomImpl implements InventoryItemRepositoryCustom {
+
+    private static final int LOOKUP_CHUNK_SIZE = 500;
+
+    // Every statement below bumps version so entity writers holding an older copy of the row fail
+    // their optimistic check instead of overwriting these changes.
+    private static final String RESERVE_SQL = """
+            UPDATE inventory_items
+               SET quantity_reserved = quantity_reserved + ?,
+                   updated_at = ?,
+                   version = version + 1
+             WHERE id = ?
+               AND quantity_on_hand - quantity_reserved >= ?
+            """;
+
+    private static final String UPSERT_ON_HAND_SQL = """
+            INSERT INTO inventory_items (sku, location_id, quantity_on_hand, quantity_reserved, updated_at, version)
+            VALUES (?, ?, ?, 0, ?, 0)
+            ON CONFLICT (sku, location_id) DO UPDATE
+               SET quantity_on_hand = inventory_items.quantity_on_hand + EXCLUDED.quantity_on_hand,
+                   updated_at = EXCLUDED.updated_at,
+                   version = inventory_items.version + 1
+            """;
+
+    private static final String DECREMENT_ON_HAND_SQL = """
+            UPDATE inventory_items
+               SET quantity_on_hand = quantity_on_hand + ?,
+                   updated_at = ?,
+                   version = version + 1
+             WHERE sku = ?
+               AND location_id = ?
+               AND quantity_on_hand + ? >= 0
+            """;
+
+    private static final String RELEASE_RESERVED_SQL = """
+            UPDATE inventory_items
+               SET quantity_reserved = quantity_reserved - ?,
+                   updated_at = ?,
+                   version = version + 1
+             WHERE id = ?
+               AND quantity_reserved >= ?
+            """;
+
+    private static final String COMMIT_RESERVED_SQL = """
+            UPDATE inventory_items
+               SET quantity_on_hand = quantity_on_hand - ?,
+                   quantity_reserved = quantity_reserved - ?,
+                   updated_at = ?,
+                   version = version + 1
+             WHERE id = ?
+               AND quantity_on_hand >= ?
+               AND quantity_reserved >= ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+
+    public InventoryItemRepositoryCustomImpl(JdbcTemplate jdbcTemplate, EntityManager entityManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<ReservationOutcome> reserveAvailable(List<StockDemand> demands) {
+        if (demands.isEmpty()) {
+            return List.of();
+        }
+
+        Map<InventoryKey, Long> idsByKey = findIdsByKeys(demands.stream()
+                .map(StockDemand::key)
+                .collect(Collectors.toCollection(LinkedHashSet::new)));
+
+        Long[] itemIds = new Long[demands.size()];
+        boolean allFound = true;
+        for (int i = 0; i < demands.size(); i++) {
+            itemIds[i] = idsByKey.get(demands.get(i).key());
+            allFound &= itemIds[i] != null;
+        }
+
+        boolean[] reserved = new boolean[demands.size()];
+        if (allFound) {
+            reserveInCanonicalOrder(demands, itemIds, reserved);
+        }
+
+        List<ReservationOutcome> outcomes = new ArrayList<>(demands.size());
+        for (int i = 0; i < demands.size(); i++) {
+            outcomes.add(new ReservationOutcome(itemIds[i], reserved[i]));
+        }
+        return outcomes;
+    }
+
+    @Override
+    public List<InventoryItem> findAllByKeys(Collection<InventoryKey> keys, boolean forUpdate) {
+        if (keys.isEmpty()) {
+            return List.of();
+        }
+        List<InventoryKey> distinctKeys = new ArrayList<>(new LinkedHashSet<>(keys));
+
+        if (forUpdate) {
+            // Resolve ids without loading entities first, so the locking query is the one that
+            // reads row state and the locks are taken in ascending id order across chunks.
+            List<Long> ids = new ArrayList<>(findIdsByKeys(distinctKeys).values());
+            ids.sort(Comparator.naturalOrder());
+            return lockAllByIds(ids);
+        }
+
+        List<InventoryItem> items = new ArrayList<>(distinctKeys.size());
+        for (int from = 0; from < distinctKeys.size(); from += LOOKUP_CHUNK_SIZE) {
+            List<InventoryKey> chunk = distinctKeys.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, distinctKeys.size()));
+
+            StringBuilder jpql = new StringBuilder("select i from InventoryItem i where ");
+            for (int i = 0; i < chunk.size(); i++) {
+                if (i > 0) {
+                    jpql.append(" or ");
+                }
+                jpql.append("(i.sku = :sku").append(i).append(" and i.locationId = :location").append(i).append(')');
+            }
+
+            TypedQuery<InventoryItem> query = entityManager.createQuery(jpql.toString(), InventoryItem.class);
+            for (int i = 0; i < chunk.size(); i++) {
+                query.setParameter("sku" + i, chunk.get(i).sku());
+                query.setParameter("location" + i, chunk.get(i).locationId());
+            }
+            items.addAll(query.getResultList());
+        }
+        items.sort(Comparator.comparing(InventoryItem::getId));
+        return items;
+    }
+
+    @Override
+    public List<ReservedQuantity> releaseReserved(List<ReservedQuantity> released) {
+        if (released.isEmpty()) {
+            return List.of();
+        }
+
+        List<ReservedQuantity> ordered = released.stream()
+                .sorted(Comparator.comparing(ReservedQuantity::inventoryItemId))
+                .toList();
+        Timestamp now = Timestamp.from(Instant.now());
+
+        int[] counts = jdbcTemplate.batchUpdate(RELEASE_RESERVED_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int position) throws SQLException {
+                ReservedQuantity release = ordered.get(position);
+                ps.setLong(1, release.quantity());
+                ps.setTimestamp(2, now);
+                ps.setLong(3, release.inventoryItemId());
+                ps.setLong(4, release.quantity());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return ordered.size();
+            }
+        });
+
+        return rejected(ordered, counts);
+    }
+
+    @Override
+    public List<ReservedQuantity> commitReserved(List<ReservedQuantity> committed) {
+        if (committed.isEmpty()) {
+            return List.of();
+        }
+
+        List<ReservedQuantity> ordered = committed.stream()
+                .sorted(Comparator.comparing(ReservedQuantity::inventoryItemId))
+                .toList();
+        Timestamp now = Timestamp.from(Instant.now());
+
+        int[] counts = jdbcTemplate.batchUpdate(COMMIT_RESERVED_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int position) throws SQLException {
+                ReservedQuantity commit = ordered.get(position);
+                ps.setLong(1, commit.quantity());
+                ps.setLong(2, commit.quantity());
+                ps.setTimestamp(3, now);
+                ps.setLong(4, commit.inventoryItemId());
+                ps.setLong(5, commit.quantity());
+                ps.setLong(6, commit.quantity());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return ordered.size();
+            }
+        });
+
+        return rejected(ordered, counts);
+    }
+
+    @Override
+    public List<AdjustmentStatus> applyAdjustments(List<StockDelta> deltas) {
+        if (deltas.isEmpty()) {
+            return List.of();
+        }
+
+        Map<InventoryKey, Long> idsByKey = findIdsByKeys(deltas.stream()
+                .map(StockDelta::key)
+                .collect(Collectors.toCollection(LinkedHashSet::new)));
+
+        // Existing rows in id order like the reservation path, new rows after them by key, and
+        // repeated keys in input order.
+        List<Integer> order = new ArrayList<>(deltas.size());
+        for (int i = 0; i < deltas.size(); i++) {
+            order.add(i);
+        }
+        order.sort(Comparator.<Integer, Long>comparing(i -> idsByKey.getOrDefault(deltas.get(i).key(), Long.MAX_VALUE))
+                .thenComparing(i -> deltas.get(i).sku())
+                .thenComparing(i -> deltas.get(i).locationId())
+                .thenComparing(i -> i));
+
+        Timestamp now = Timestamp.from(Instant.now());
+        Set<InventoryKey> existing = new HashSet<>(idsByKey.keySet());
+        AdjustmentStatus[] statuses = new AdjustmentStatus[deltas.size()];
+
+        // Consecutive deltas of the same direction share one batch; switching statement types
+        // only between runs keeps the per-key order intact.
+        int start = 0;
+        while (start < order.size()) {
+            boolean increment = deltas.get(order.get(start)).delta() >= 0;
+            int end = start + 1;
+            while (end < order.size() && (deltas.get(order.get(end)).delta() >= 0) == increment) {
+                end++;
+            }
+            List<Integer> run = order.subList(start, end);
+
+            if (increment) {
+                upsertOnHand(deltas, run, now);
+                for (int index : run) {
+                    statuses[index] = AdjustmentStatus.APPLIED;
+                    existing.add(deltas.get(index).key());
+                }
+            } else {
+                int[] counts = decrementOnHand(deltas, run, now);
+                for (int position = 0; position < run.size(); position++) {
+                    int index = run.get(position);
+                    if (counts[position] > 0) {
+                        statuses[index] = AdjustmentStatus.APPLIED;
+                    } else if (existing.contains(deltas.get(index).key())) {
+                        statuses[index] = AdjustmentStatus.INSUFFICIENT_STOCK;
+                    } else {
+                        statuses[index] = AdjustmentStatus.NOT_FOUND;
+                    }
+                }
+            }
+            start = end;
+        }
+        return List.of(statuses);
+    }
+
+    private static List<ReservedQuantity> rejected(List<ReservedQuantity> ordered, int[] counts) {
+        List<ReservedQuantity> rejected = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                rejected.add(ordered.get(i));
+            }
+        }
+        return rejected;
+    }
+
+    private void upsertOnHand(List<StockDelta> deltas, List<Integer> run, Timestamp now) {
+        jdbcTemplate.batchUpdate(UPSERT_ON_HAND_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int position) throws SQLException {
+                StockDelta delta = deltas.get(run.get(position));
+                ps.setString(1, delta.sku());
+                ps.setString(2, delta.locationId());
+                ps.setInt(3, delta.delta());
+                ps.setTimestamp(4, now);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return run.size();
+            }
+        });
+    }
+
+    private int[] decrementOnHand(List<StockDelta> deltas, List<Integer> run, Timestamp now) {
+        return jdbcTemplate.batchUpdate(DECREMENT_ON_HAND_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int position) throws SQLException {
+                StockDelta delta = deltas.get(run.get(position));
+                ps.setInt(1, delta.delta());
+                ps.setTimestamp(2, now);
+                ps.setString(3, delta.sku());
+                ps.setString(4, delta.locationId());
+                ps.setInt(5, delta.delta());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return run.size();
+            }
+        });
+    }
+
+    private List<InventoryItem> lockAllByIds(List<Long> sortedIds) {
+        List<InventoryItem> items = new ArrayList<>(sortedIds.size());
+        for (int from = 0; from < sortedIds.size(); from += LOOKUP_CHUNK_SIZE) {
+            List<Long> chunk = sortedIds.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, sortedIds.size()));
+            items.addAll(entityManager
+                    .createQuery("select i from InventoryItem i where i.id in :ids order by i.id", InventoryItem.class)
+                    .setParameter("ids", chunk)
+                    .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                    .getResultList());
+        }
+        return items;
+    }
+
+    private void reserveInCanonicalOrder(List<StockDemand> demands, Long[] itemIds, boolean[] reserved) {
+        // Rows are updated in item id order, and in line order for repeated items, so concurrent
+        // orders always take row locks in the same sequence and a repeated item sees the
+        // quantity reserved by its earlier lines.
+        List<Integer> order = new ArrayList<>(demands.size());
+        for (int i = 0; i < demands.size(); i++) {
+            order.add(i);
+        }
+        order.sort(Comparator.<Integer, Long>comparing(i -> itemIds[i]).thenComparing(i -> i));
+
+        Timestamp now = Timestamp.from(Instant.now());
+
+        int[] counts = jdbcTemplate.batchUpdate(RESERVE_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int position) throws SQLException {
+                int index = order.get(position);
+                long quantity = demands.get(index).quantity();
+                ps.setLong(1, quantity);
+                ps.setTimestamp(2, now);
+                ps.setLong(3, itemIds[index]);
+                ps.setLong(4, quantity);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return order.size();
+            }
+        });
+
+        for (int position = 0; position < counts.length; position++) {
+            reserved[order.get(position)] = counts[position] > 0;
+        }
+    }
+
+    private Map<InventoryKey, Long> findIdsByKeys(Collection<InventoryKey> keys) {
+        Map<InventoryKey, Long> idsByKey = new HashMap<>();
+        List<InventoryKey> pending = new ArrayList<>(keys);
+
+        for (int from = 0; from < pending.size(); from += LOOKUP_CHUNK_SIZE) {
+            List<InventoryKey> chunk = pending.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, pending.size()));
+
+            String sql = "SELECT id, sku, location_id FROM inventory_items WHERE "
+                    + chunk.stream()
+                    .map(key -> "(sku = ? AND location_id = ?)")
+                    .collect(Collectors.joining(" OR "));
+            Object[] args = chunk.stream()
+                    .flatMap(key -> Stream.of(key.sku(), key.locationId()))
+                    .toArray();
+
+            jdbcTemplate.query(sql, (RowCallbackHandler) rs -> idsByKey.put(
+                    new InventoryKey(rs.getString("sku"), rs.getString("location_id")),
+                    rs.getLong("id")
+            ), args);
+        }
+        return idsByKey;
+    }
+}
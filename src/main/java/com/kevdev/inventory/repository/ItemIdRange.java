@@ -0,0 +1,4 @@
+package com.kevdev.inventory.repository;
+
+public record ItemIdRange(long minId, long maxId) {
+}
@@ -0,0 +1,43 @@
+package com.kevdev.inventory.repository;
+
+import com.kevdev.inventory.entity.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Oldest unclaimed events, locked with SKIP LOCKED so several relays can claim from the
+     * outbox concurrently without picking the same rows. Only the oldest pending event of each
+     * key is returned: an earlier row with the same key may be locked by a relay whose claim has
+     * not committed yet, so any earlier row, claimed or not, holds the later ones back and a key
+     * is only ever in flight once.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select e from OutboxEvent e "
+            + "where (e.claimedUntil is null or e.claimedUntil < :now) "
+            + "and not exists (select p.id from OutboxEvent p where p.messageKey = e.messageKey "
+            + "and p.id < e.id) "
+            + "order by e.id")
+    List<OutboxEvent> findBatchForPublish(@Param("now") Instant now, Pageable pageable);
+
+    @Modifying
+    @Query("update OutboxEvent e set e.claimedUntil = :until where e.id in :ids")
+    int claim(@Param("ids") Collection<Long> ids, @Param("until") Instant until);
+
+    @Modifying
+    @Query("update OutboxEvent e set e.claimedUntil = null where e.id in :ids")
+    int releaseClaims(@Param("ids") Collection<Long> ids);
+}
@@ -1,12 +1,30 @@
 package com.kevdev.inventory.repository;
 
+import com.kevdev.inventory.entity.InventoryKey;
 import com.kevdev.inventory.entity.ReservationLine;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface ReservationLineRepository extends JpaRepository<ReservationLine, Long> {
 
     List<ReservationLine> findByReservationId(Long reservationId);
-}
 
+    @Query("select distinct new com.kevdev.inventory.entity.InventoryKey(l.sku, l.locationId) "
+            + "from ReservationLine l where l.reservation.id = :reservationId")
+    List<InventoryKey> findInventoryKeysByReservationId(@Param("reservationId") Long reservationId);
+
+    @Query("select distinct new com.kevdev.inventory.entity.InventoryKey(l.sku, l.locationId) "
+            + "from ReservationLine l where l.reservation.id in :reservationIds")
+    List<InventoryKey> findInventoryKeysByReservationIds(@Param("reservationIds") Collection<Long> reservationIds);
+
+    @Query("select new com.kevdev.inventory.repository.ReservedLine("
+            + "l.reservation.id, l.inventoryItem.id, l.sku, l.locationId, l.reservedQuantity) "
+            + "from ReservationLine l "
+            + "where l.reservation.id in :reservationIds and l.reservedQuantity > 0 "
+            + "order by l.reservation.id, l.inventoryItem.id")
+    List<ReservedLine> findReservedLines(@Param("reservationIds") Collection<Long> reservationIds);
+}
@@ -0,0 +1,22 @@
+package com.kevdev.inventory.repository;
+
+import com.kevdev.inventory.entity.ReservationLineStatus;
+import com.kevdev.inventory.entity.ReservationStatus;
+
+/**
+ * One reservation line joined with its reservation header, read without loading entities.
+ * The line columns are null for a reservation that has no lines.
+ */
+public record ReservationLineView(
+        Long reservationId,
+        String orderId,
+        ReservationStatus status,
+        String reason,
+        String sku,
+        String locationId,
+        Long requestedQuantity,
+        Long reservedQuantity,
+        ReservationLineStatus lineStatus,
+        String failureReason
+) {
+}
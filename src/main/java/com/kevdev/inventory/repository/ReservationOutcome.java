@@ -0,0 +1,15 @@
+package com.kevdev.inventory.repository;
+
+/**
+ * Result of a conditional reservation for a single {@link StockDemand}.
+ * A null inventoryItemId means no inventory row exists for the demanded sku and location.
+ */
+public record ReservationOutcome(
+        Long inventoryItemId,
+        boolean reserved
+) {
+
+    public boolean found() {
+        return inventoryItemId != null;
+    }
+}
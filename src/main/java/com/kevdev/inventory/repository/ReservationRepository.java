@@ -2,16 +2,104 @@ package com.kevdev.inventory.repository;
 
 import com.kevdev.inventory.entity.Reservation;
 import com.kevdev.inventory.entity.ReservationStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface ReservationRepository extends JpaRepository<Reservation, Long> {
 
+    @EntityGraph(attributePaths = "lines")
     Optional<Reservation> findByOrderId(String orderId);
 
+    /**
+     * Read path for order status lookups: a single join on the order_id unique index, selected
+     * straight into row records so nothing is hydrated or snapshotted for dirty checking.
+     */
+    @Query("select new com.kevdev.inventory.repository.ReservationLineView("
+            + "r.id, r.orderId, r.status, r.reason, "
+            + "l.sku, l.locationId, l.requestedQuantity, l.reservedQuantity, l.status, l.failureReason) "
+            + "from Reservation r left join r.lines l "
+            + "where r.orderId = :orderId "
+            + "order by l.id")
+    List<ReservationLineView> findLineViewsByOrderId(@Param("orderId") String orderId);
+
+    /**
+     * Same read for a batch of orders, used to find redelivered orders with one query. Rows come
+     * back grouped by reservation.
+     */
+    @Query("select new com.kevdev.inventory.repository.ReservationLineView("
+            + "r.id, r.orderId, r.status, r.reason, "
+            + "l.sku, l.locationId, l.requestedQuantity, l.reservedQuantity, l.status, l.failureReason) "
+            + "from Reservation r left join r.lines l "
+            + "where r.orderId in :orderIds "
+            + "order by r.id, l.id")
+    List<ReservationLineView> findLineViewsByOrderIdIn(@Param("orderIds") Collection<String> orderIds);
+
     List<Reservation> findByStatusAndExpiresAtBefore(ReservationStatus status, Instant cutoff);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from Reservation r where r.id = :id")
+    Optional<Reservation> findByIdForUpdate(@Param("id") Long id);
+
+    /**
+     * Fetch joins the lines of a reservation. Called after {@link #findByIdForUpdate} so the lock
+     * stays on the reservation row alone; the lines land on the already managed instance.
+     */
+    @Query("select distinct r from Reservation r left join fetch r.lines where r.id = :id")
+    Optional<Reservation> findWithLinesById(@Param("id") Long id);
+
+    /**
+     * Locks the next page of expired holds after {@code afterId}. Rows already locked by another
+     * sweeper, or by a commit or release in flight, are skipped rather than waited for.
+     */
+    @Query(value = """
+            SELECT id
+              FROM reservation
+             WHERE status IN ('CONFIRMED', 'PARTIAL')
+               AND expires_at < :cutoff
+               AND id > :afterId
+             ORDER BY id
+             LIMIT :limit
+               FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<Long> lockExpiredHoldIds(
+            @Param("cutoff") Instant cutoff,
+            @Param("afterId") long afterId,
+            @Param("limit") int limit
+    );
+
+    /**
+     * Locks the CONFIRMED/PARTIAL reservations among {@code ids} in id order, waiting for holds
+     * that a commit or release in flight has locked. Rows whose status changed while waiting are
+     * left out.
+     */
+    @Query(value = """
+            SELECT id
+              FROM reservation
+             WHERE id IN (:ids)
+               AND status IN ('CONFIRMED', 'PARTIAL')
+             ORDER BY id
+               FOR UPDATE
+            """, nativeQuery = true)
+    List<Long> lockHeldIds(@Param("ids") Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Reservation r set r.status = :status, r.reason = :reason, r.updatedAt = :now "
+            + "where r.id in :ids")
+    int updateStatus(
+            @Param("ids") List<Long> ids,
+            @Param("status") ReservationStatus status,
+            @Param("reason") String reason,
+            @Param("now") Instant now
+    );
 }
 
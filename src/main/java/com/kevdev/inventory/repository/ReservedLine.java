@@ -0,0 +1,19 @@
+package com.kevdev.inventory.repository;
+
+import com.kevdev.inventory.entity.InventoryKey;
+
+/**
+ * Quantity one reservation holds on one inventory item.
+ */
+public record ReservedLine(
+        Long reservationId,
+        Long inventoryItemId,
+        String sku,
+        String locationId,
+        Long quantity
+) {
+
+    public InventoryKey key() {
+        return new InventoryKey(sku, locationId);
+    }
+}
@@ -0,0 +1,18 @@
+package com.kevdev.inventory.repository;
+
+import com.kevdev.inventory.entity.InventoryKey;
+
+/**
+ * Total reserved quantity held on one inventory item by a set of reservations.
+ */
+public record ReservedQuantity(
+        Long inventoryItemId,
+        String sku,
+        String locationId,
+        Long quantity
+) {
+
+    public InventoryKey key() {
+        return new InventoryKey(sku, locationId);
+    }
+}
@@ -3,6 +3,5 @@ package com.kevdev.inventory.repository;
 import com.kevdev.inventory.entity.StockAdjustment;
 import org.springframework.data.jpa.repository.JpaRepository;
 
-public interface StockAdjustmentRepository extends JpaRepository<StockAdjustment, Long> {
+public interface StockAdjustmentRepository extends JpaRepository<StockAdjustment, Long>, StockAdjustmentRepositoryCustom {
 }
-
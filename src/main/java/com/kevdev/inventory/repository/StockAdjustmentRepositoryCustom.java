@@ -0,0 +1,36 @@
+package com.kevdev.inventory.repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+public interface StockAdjustmentRepositoryCustom {
+
+    /**
+     * Appends movements to the stock ledger with one batched insert.
+     */
+    void appendAll(List<StockMovement> movements);
+
+    /**
+     * Snapshots up to {@code limit} items with an id above {@code afterItemId} that have no
+     * snapshot yet or have ledger entries newer than their snapshot. The items are share-locked
+     * first, so each snapshot matches the ledger entry it records. Returns the snapshotted ids
+     * in ascending order.
+     */
+    List<Long> snapshotItems(long afterItemId, int limit);
+
+    /**
+     * Recomputes quantities of snapshotted items with ids in {@code [fromId, toId]} as snapshot
+     * plus ledger tail and returns how many differ from the stored row. With {@code repair}
+     * the differing rows are overwritten with the recomputed quantities.
+     */
+    long rebuildRange(long fromId, long toId, boolean repair);
+
+    Optional<ItemIdRange> findItemIdRange();
+
+    /**
+     * When the newest ledger entry was recorded, read through the primary key rather than a
+     * scan of {@code created_at}.
+     */
+    Optional<Instant> findLatestMovementAt();
+}
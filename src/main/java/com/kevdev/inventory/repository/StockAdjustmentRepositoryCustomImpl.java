@@ -0,0 +1,173 @@
+package com.kevdev.inventory.repository;
+
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+public class StockAdjustmentRepositoryCustomImpl implements StockAdjustmentRepositoryCustom {
+
+    private static final String APPEND_SQL = """
+            INSERT INTO stock_adjustment
+                   (id, inventory_item_id, sku, location_id, quantity_delta, reserved_delta, reason, created_at)
+            VALUES (nextval('stock_adjustment_id_seq'),
+                    COALESCE(?, (SELECT id FROM inventory_items WHERE sku = ? AND location_id = ?)),
+                    ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String SNAPSHOT_CANDIDATES_SQL = """
+            SELECT i.id
+              FROM inventory_items i
+              LEFT JOIN inventory_snapshot s ON s.inventory_item_id = i.id
+             WHERE i.id > ?
+               AND (s.inventory_item_id IS NULL
+                    OR EXISTS (SELECT 1
+                                 FROM stock_adjustment a
+                                WHERE a.inventory_item_id = i.id
+                                  AND a.id > s.last_adjustment_id))
+             ORDER BY i.id
+             LIMIT ?
+            """;
+
+    private static final String LOCK_ITEMS_SQL = """
+            SELECT id FROM inventory_items WHERE id IN (%s) ORDER BY id FOR SHARE
+            """;
+
+    // Runs while the items are share-locked: every writer of a locked item has either committed
+    // its row change together with its ledger entries or is still waiting for the lock.
+    private static final String UPSERT_SNAPSHOT_SQL = """
+            INSERT INTO inventory_snapshot
+                   (inventory_item_id, quantity_on_hand, quantity_reserved, last_adjustment_id, taken_at)
+            SELECT i.id,
+                   i.quantity_on_hand,
+                   i.quantity_reserved,
+                   COALESCE((SELECT MAX(a.id) FROM stock_adjustment a WHERE a.inventory_item_id = i.id), 0),
+                   ?
+              FROM inventory_items i
+             WHERE i.id IN (%s)
+            ON CONFLICT (inventory_item_id) DO UPDATE
+               SET quantity_on_hand = EXCLUDED.quantity_on_hand,
+                   quantity_reserved = EXCLUDED.quantity_reserved,
+                   last_adjustment_id = EXCLUDED.last_adjustment_id,
+                   taken_at = EXCLUDED.taken_at
+            """;
+
+    private static final String REBUILT_SQL = """
+            SELECT s.inventory_item_id AS id,
+                   s.quantity_on_hand + COALESCE(SUM(a.quantity_delta), 0) AS on_hand,
+                   s.quantity_reserved + COALESCE(SUM(a.reserved_delta), 0) AS reserved
+              FROM inventory_snapshot s
+              LEFT JOIN stock_adjustment a
+                ON a.inventory_item_id = s.inventory_item_id
+               AND a.id > s.last_adjustment_id
+             WHERE s.inventory_item_id BETWEEN ? AND ?
+             GROUP BY s.inventory_item_id, s.quantity_on_hand, s.quantity_reserved
+            """;
+
+    private static final String COUNT_DRIFT_SQL = """
+            SELECT COUNT(*)
+              FROM (%s) r
+              JOIN inventory_items i ON i.id = r.id
+             WHERE i.quantity_on_hand <> r.on_hand
+                OR i.quantity_reserved <> r.reserved
+            """.formatted(REBUILT_SQL);
+
+    private static final String REPAIR_DRIFT_SQL = """
+            UPDATE inventory_items i
+               SET quantity_on_hand = r.on_hand,
+                   quantity_reserved = r.reserved,
+                   updated_at = ?,
+                   version = i.version + 1
+              FROM (%s) r
+             WHERE i.id = r.id
+               AND (i.quantity_on_hand <> r.on_hand OR i.quantity_reserved <> r.reserved)
+            """.formatted(REBUILT_SQL);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public StockAdjustmentRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void appendAll(List<StockMovement> movements) {
+        if (movements.isEmpty()) {
+            return;
+        }
+
+        Timestamp now = Timestamp.from(Instant.now());
+        jdbcTemplate.batchUpdate(APPEND_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int position) throws SQLException {
+                StockMovement movement = movements.get(position);
+                ps.setObject(1, movement.inventoryItemId(), Types.BIGINT);
+                ps.setString(2, movement.sku());
+                ps.setString(3, movement.locationId());
+                ps.setString(4, movement.sku());
+                ps.setString(5, movement.locationId());
+                ps.setLong(6, movement.onHandDelta());
+                ps.setLong(7, movement.reservedDelta());
+                ps.setString(8, movement.reason());
+                ps.setTimestamp(9, now);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return movements.size();
+            }
+        });
+    }
+
+    @Override
+    public List<Long> snapshotItems(long afterItemId, int limit) {
+        List<Long> ids = jdbcTemplate.queryForList(SNAPSHOT_CANDIDATES_SQL, Long.class, afterItemId, limit);
+        if (ids.isEmpty()) {
+            return ids;
+        }
+
+        String placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        Object[] idArgs = ids.toArray();
+        jdbcTemplate.queryForList(LOCK_ITEMS_SQL.formatted(placeholders), Long.class, idArgs);
+
+        Object[] upsertArgs = new Object[ids.size() + 1];
+        upsertArgs[0] = Timestamp.from(Instant.now());
+        System.arraycopy(idArgs, 0, upsertArgs, 1, idArgs.length);
+        jdbcTemplate.update(UPSERT_SNAPSHOT_SQL.formatted(placeholders), upsertArgs);
+        return ids;
+    }
+
+    @Override
+    public long rebuildRange(long fromId, long toId, boolean repair) {
+        if (repair) {
+            return jdbcTemplate.update(REPAIR_DRIFT_SQL, Timestamp.from(Instant.now()), fromId, toId);
+        }
+        Long drifted = jdbcTemplate.queryForObject(COUNT_DRIFT_SQL, Long.class, fromId, toId);
+        return drifted != null ? drifted : 0L;
+    }
+
+    @Override
+    public Optional<ItemIdRange> findItemIdRange() {
+        return Optional.ofNullable(jdbcTemplate.query(
+                "SELECT MIN(inventory_item_id), MAX(inventory_item_id) FROM inventory_snapshot",
+                rs -> {
+                    rs.next();
+                    long min = rs.getLong(1);
+                    return rs.wasNull() ? null : new ItemIdRange(min, rs.getLong(2));
+                }
+        ));
+    }
+
+    @Override
+    public Optional<Instant> findLatestMovementAt() {
+        List<Timestamp> latest = jdbcTemplate.queryForList(
+                "SELECT created_at FROM stock_adjustment ORDER BY id DESC LIMIT 1", Timestamp.class);
+        return latest.stream().findFirst().map(Timestamp::toInstant);
+    }
+}
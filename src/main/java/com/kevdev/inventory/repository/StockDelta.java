@@ -0,0 +1,14 @@
+package com.kevdev.inventory.repository;
+
+import com.kevdev.inventory.entity.InventoryKey;
+
+public record StockDelta(
+        String sku,
+        String locationId,
+        int delta
+) {
+
+    public InventoryKey key() {
+        return new InventoryKey(sku, locationId);
+    }
+}
@@ -0,0 +1,14 @@
+package com.kevdev.inventory.repository;
+
+import com.kevdev.inventory.entity.InventoryKey;
+
+public record StockDemand(
+        String sku,
+        String locationId,
+        long quantity
+) {
+
+    public InventoryKey key() {
+        return new InventoryKey(sku, locationId);
+    }
+}
@@ -0,0 +1,15 @@
+package com.kevdev.inventory.repository;
+
+/**
+ * One ledger entry: a change of on-hand and/or reserved quantity of an item. When the item id
+ * is not known to the writer it is resolved from sku and location on insert.
+ */
+public record StockMovement(
+        Long inventoryItemId,
+        String sku,
+        String locationId,
+        long onHandDelta,
+        long reservedDelta,
+        String reason
+) {
+}
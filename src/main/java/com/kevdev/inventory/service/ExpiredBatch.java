@@ -0,0 +1,16 @@
+package com.kevdev.inventory.service;
+
+/**
+ * Result of expiring one page of holds. {@code skipped} counts holds left in place because the
+ * stock they reserve is no longer on the row; {@code lastId} is the keyset cursor for the next page.
+ */
+public record ExpiredBatch(
+        int expired,
+        int skipped,
+        long lastId
+) {
+
+    public int scanned() {
+        return expired + skipped;
+    }
+}
@@ -1,15 +1,46 @@
 package com.kevdev.inventory.service;
 
 import com.kevdev.inventory.dto.InventoryItemResponse;
+import com.kevdev.inventory.dto.InventoryLookupResultDto;
 import com.kevdev.inventory.dto.StockAdjustmentRequestDto;
 import com.kevdev.inventory.dto.ReserveStockRequest;
+import com.kevdev.inventory.dto.SkuAvailabilityDto;
+import com.kevdev.inventory.dto.SkuAvailabilityLookupDto;
+import com.kevdev.inventory.entity.InventoryKey;
+import com.kevdev.inventory.repository.AdjustmentStatus;
+import com.kevdev.inventory.repository.StockDelta;
+
+import java.util.List;
 
 public interface InventoryService {
 
     InventoryItemResponse getInventory(String sku, String locationId);
 
+    /**
+     * Looks up many (sku, location) pairs at once. Results come back in request order and
+     * unknown pairs are reported as not found instead of failing the call.
+     */
+    List<InventoryLookupResultDto> getInventoryBatch(List<InventoryKey> keys);
+
+    /**
+     * Available-to-promise totals of a SKU across every location, with a per-location breakdown.
+     */
+    SkuAvailabilityDto getAvailability(String sku);
+
+    /**
+     * Availability of many SKUs at once, in request order. SKUs without inventory are reported
+     * as not found instead of failing the call.
+     */
+    List<SkuAvailabilityLookupDto> getAvailabilityBatch(List<String> skus);
+
     InventoryItemResponse adjustStock(StockAdjustmentRequestDto request);
 
+    /**
+     * Applies a chunk of on-hand deltas in one transaction with batched upserts. Statuses are
+     * returned in the same order as the deltas.
+     */
+    List<AdjustmentStatus> adjustStockBatch(List<StockDelta> deltas);
+
     void reserveStock(ReserveStockRequest request);
 
     void releaseReserved(ReserveStockRequest request);
@@ -0,0 +1,16 @@
+package com.kevdev.inventory.service;
+
+import com.kevdev.inventory.dto.ReservationResponseDto;
+import com.kevdev.inventory.messaging.event.OrderCreatedEvent;
+
+import java.util.List;
+
+/**
+ * Result of reserving a batch of orders in one transaction. Rejected orders reference
+ * inventory items that do not exist and were left untouched.
+ */
+public record OrderBatchOutcome(
+        List<ReservationResponseDto> reservations,
+        List<OrderCreatedEvent> rejected
+) {
+}
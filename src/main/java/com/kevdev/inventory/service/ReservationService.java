@@ -1,9 +1,17 @@
 package com.kevdev.inventory.service;
 
+import com.kevdev.inventory.dto.ReservationActionItemDto;
+import com.kevdev.inventory.dto.ReservationBulkResultDto;
 import com.kevdev.inventory.dto.ReservationCreateRequestDto;
 import com.kevdev.inventory.dto.ReservationResponseDto;
+import com.kevdev.inventory.entity.InventoryKey;
 import com.kevdev.inventory.messaging.event.OrderCreatedEvent;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 public interface ReservationService {
 
     ReservationResponseDto createReservation(ReservationCreateRequestDto request);
@@ -14,9 +22,58 @@ public interface ReservationService {
 
     ReservationResponseDto getReservationByOrderId(String orderId);
 
+    Optional<ReservationResponseDto> findReservationByOrderId(String orderId);
+
     /**
-     * Kafka entry point, called when an OrderCreatedEvent arrives.
+     * Creates many reservations in one transaction. Orders that already have a reservation, or
+     * that reference unknown inventory items, are rejected without affecting the others.
+     */
+    List<ReservationBulkResultDto> createReservations(List<ReservationCreateRequestDto> requests);
+
+    /**
+     * Commits many held reservations in one transaction, decrementing inventory once per item for
+     * all of them. Unknown ids and reservations that are no longer held are rejected individually.
+     */
+    List<ReservationBulkResultDto> commitReservations(List<ReservationActionItemDto> items);
+
+    /**
+     * Releases many held reservations in one transaction, the same way as
+     * {@link #commitReservations}.
+     */
+    List<ReservationBulkResultDto> releaseReservations(List<ReservationActionItemDto> items);
+
+    /**
+     * Inventory rows a requested line may reserve from, used to route reservations to their
+     * shards. A line the allocation policy splits may be filled from any location of its SKU,
+     * so all of them are returned.
+     */
+    List<InventoryKey> findCandidateKeys(String sku, String locationId);
+
+    /**
+     * Inventory rows a reservation touches, used to route commit and release to their shards.
+     */
+    List<InventoryKey> findInventoryKeys(Long reservationId);
+
+    List<InventoryKey> findInventoryKeysByReservationIds(Collection<Long> reservationIds);
+
+    /**
+     * Kafka entry point, called when an OrderCreatedEvent arrives. A redelivered order does not
+     * touch inventory again; its existing result is republished.
      */
     ReservationResponseDto reserveForOrder(OrderCreatedEvent event);
-}
 
+    /**
+     * Batch Kafka entry point. Reserves all orders in one transaction and skips orders that
+     * reference unknown inventory items instead of failing the whole batch. Orders that already
+     * have a reservation are not reserved again; their existing result is republished.
+     */
+    OrderBatchOutcome reserveForOrders(List<OrderCreatedEvent> events);
+
+    /**
+     * Expires one keyset page of CONFIRMED/PARTIAL holds whose expiresAt is before the cutoff and
+     * returns their reserved stock. Holds locked elsewhere are skipped, so several instances can
+     * sweep at once without releasing the same hold twice. A hold whose reserved quantity is no
+     * longer on its item stays in place and is counted as skipped instead of clamping the row.
+     */
+    ExpiredBatch expireHolds(Instant cutoff, long afterId, int limit);
+}
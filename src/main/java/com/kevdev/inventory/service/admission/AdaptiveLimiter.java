@@ -0,0 +1,86 @@
+package com.kevdev.inventory.service.admission;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Admits requests up to the current {@link GradientLimit}. Reads may use the whole limit,
+ * while writes stop at {@code 1 - readReserve} of it. Under overload, writes are shed first
+ * and status reads keep flowing.
+ */
+public class AdaptiveLimiter {
+
+    public enum Priority {
+        READ,
+        WRITE
+    }
+
+    private final GradientLimit limit;
+    private final double readReserve;
+    private final AtomicInteger inflight = new AtomicInteger();
+    private final Map<Priority, Counter> shed = new EnumMap<>(Priority.class);
+
+    public AdaptiveLimiter(GradientLimit limit, double readReserve, MeterRegistry meterRegistry) {
+        this.limit = limit;
+        this.readReserve = readReserve;
+        Gauge.builder("inventory.admission.limit", limit, GradientLimit::getLimit)
+                .description("Current adaptive concurrency limit")
+                .register(meterRegistry);
+        Gauge.builder("inventory.admission.inflight", inflight, AtomicInteger::get)
+                .description("Requests currently admitted")
+                .register(meterRegistry);
+        for (Priority priority : Priority.values()) {
+            shed.put(priority, Counter.builder("inventory.admission.shed")
+                    .description("Requests rejected by the adaptive concurrency limit")
+                    .tag("priority", priority.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+    }
+
+    public Optional<Permit> tryAcquire(Priority priority) {
+        int current = limit.getLimit();
+        int cap = priority == Priority.READ ? current : Math.max(1, (int) (current * (1 - readReserve)));
+        while (true) {
+            int admitted = inflight.get();
+            if (admitted >= cap) {
+                shed.get(priority).increment();
+                return Optional.empty();
+            }
+            if (inflight.compareAndSet(admitted, admitted + 1)) {
+                return Optional.of(new Permit(System.nanoTime(), admitted + 1));
+            }
+        }
+    }
+
+    public int getLimit() {
+        return limit.getLimit();
+    }
+
+    public final class Permit {
+
+        private final long startNanos;
+        private final int inflightAtStart;
+
+        private Permit(long startNanos, int inflightAtStart) {
+            this.startNanos = startNanos;
+            this.inflightAtStart = inflightAtStart;
+        }
+
+        /**
+         * Returns the slot. With {@code sample} the request latency feeds the limit; failed
+         * requests should pass false, since how fast they fail says nothing about capacity.
+         */
+        public void release(boolean sample) {
+            inflight.decrementAndGet();
+            if (sample) {
+                limit.onSample(System.nanoTime() - startNanos, inflightAtStart);
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.kevdev.inventory.service.admission;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Gradient-style concurrency limit, in the spirit of TCP Vegas. A long-term moving average of
+ * request latency stands in for the unloaded latency. When a sample comes in slower than
+ * {@code tolerance} times that average, requests are queueing somewhere downstream and the
+ * limit shrinks in proportion, by at most half per sample. Otherwise it grows by a
+ * {@code sqrt(limit)} headroom. Changes are smoothed and clamped to {@code [min, max]}.
+ * <p>
+ * Every admitted request reads the limit and feeds a sample, so neither takes a monitor: a
+ * virtual thread blocked on one pins its carrier thread. Reads see the volatile limit without
+ * locking, and samples are applied under a {@link ReentrantLock}.
+ */
+public class GradientLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final double longRttFactor;
+
+    private final ReentrantLock sampleLock = new ReentrantLock();
+
+    // written under sampleLock, read without it
+    private volatile double limit;
+    private double longRtt;
+
+    public GradientLimit(int initialLimit, int minLimit, int maxLimit, double tolerance, double smoothing, int longWindow) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= minLimit <= maxLimit");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.longRttFactor = 2.0 / (longWindow + 1);
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * Feeds one completed request. {@code inflight} is the number of requests that were in
+     * flight when it was admitted.
+     */
+    public void onSample(long rttNanos, int inflight) {
+        if (rttNanos <= 0) {
+            return;
+        }
+
+        sampleLock.lock();
+        try {
+            double shortRtt = rttNanos;
+            longRtt = longRtt == 0 ? shortRtt : longRtt + (shortRtt - longRtt) * longRttFactor;
+            // after a long overload the average lags behind; pull it down so the limit can recover
+            if (longRtt > 2 * shortRtt) {
+                longRtt *= 0.95;
+            }
+
+            // an underused limit says nothing about capacity, so do not let it grow without bound
+            double current = limit;
+            if (inflight < current / 2) {
+                return;
+            }
+
+            double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRtt / shortRtt));
+            double target = current * gradient + Math.sqrt(current);
+            double next = current * (1 - smoothing) + target * smoothing;
+            limit = Math.max(minLimit, Math.min(maxLimit, next));
+        } finally {
+            sampleLock.unlock();
+        }
+    }
+}
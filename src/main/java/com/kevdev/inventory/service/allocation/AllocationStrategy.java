@@ -0,0 +1,20 @@
+package com.kevdev.inventory.service.allocation;
+
+import java.util.List;
+
+/**
+ * Splits one line's quantity across locations. Implementations are Spring beans selected by
+ * {@link #name()} through {@code inventory.allocation.strategy}.
+ */
+public interface AllocationStrategy {
+
+    String name();
+
+    /**
+     * Picks locations for {@code quantity} from {@code candidates}: locations with available
+     * stock, closest first. The result must add up to exactly {@code quantity} and take no more
+     * than a candidate's available stock from it. The caller guarantees the candidates can
+     * cover the quantity together.
+     */
+    List<LocationQuantity> allocate(long quantity, List<LocationQuantity> candidates);
+}
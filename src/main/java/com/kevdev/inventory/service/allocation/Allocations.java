@@ -0,0 +1,27 @@
+package com.kevdev.inventory.service.allocation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+final class Allocations {
+
+    private Allocations() {
+    }
+
+    /**
+     * Takes stock from the candidates in the given order until the quantity is covered.
+     */
+    static List<LocationQuantity> fill(long quantity, List<LocationQuantity> candidates) {
+        List<LocationQuantity> picked = new ArrayList<>();
+        long remaining = quantity;
+        for (LocationQuantity candidate : candidates) {
+            if (remaining == 0) {
+                break;
+            }
+            long taken = Math.min(remaining, candidate.quantity());
+            picked.add(new LocationQuantity(candidate.locationId(), taken));
+            remaining -= taken;
+        }
+        return picked;
+    }
+}
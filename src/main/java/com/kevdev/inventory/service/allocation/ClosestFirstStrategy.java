@@ -0,0 +1,22 @@
+package com.kevdev.inventory.service.allocation;
+
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Drains locations in distance order: everything the closest one has, then the next.
+ */
+@Component
+public class ClosestFirstStrategy implements AllocationStrategy {
+
+    @Override
+    public String name() {
+        return "closest";
+    }
+
+    @Override
+    public List<LocationQuantity> allocate(long quantity, List<LocationQuantity> candidates) {
+        return Allocations.fill(quantity, candidates);
+    }
+}
@@ -0,0 +1,31 @@
+package com.kevdev.inventory.service.allocation;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Ships from as few locations as possible: the closest location that can cover the whole
+ * quantity, otherwise the largest locations first, which needs the fewest of them.
+ */
+@Component
+public class FewestSplitsStrategy implements AllocationStrategy {
+
+    @Override
+    public String name() {
+        return "fewest-splits";
+    }
+
+    @Override
+    public List<LocationQuantity> allocate(long quantity, List<LocationQuantity> candidates) {
+        for (LocationQuantity candidate : candidates) {
+            if (candidate.quantity() >= quantity) {
+                return List.of(new LocationQuantity(candidate.locationId(), quantity));
+            }
+        }
+        return Allocations.fill(quantity, candidates.stream()
+                .sorted(Comparator.comparingLong(LocationQuantity::quantity).reversed())
+                .toList());
+    }
+}
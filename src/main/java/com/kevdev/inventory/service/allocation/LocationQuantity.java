@@ -0,0 +1,4 @@
+package com.kevdev.inventory.service.allocation;
+
+public record LocationQuantity(String locationId, long quantity) {
+}
@@ -0,0 +1,27 @@
+package com.kevdev.inventory.service.allocation;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Takes from the locations with the most available stock first, which keeps stock levels even
+ * across locations. Ties go to the closer location.
+ */
+@Component
+public class MostStockStrategy implements AllocationStrategy {
+
+    @Override
+    public String name() {
+        return "most-stock";
+    }
+
+    @Override
+    public List<LocationQuantity> allocate(long quantity, List<LocationQuantity> candidates) {
+        // List.sort is stable, so equal stock keeps the distance order
+        return Allocations.fill(quantity, candidates.stream()
+                .sorted(Comparator.comparingLong(LocationQuantity::quantity).reversed())
+                .toList());
+    }
+}
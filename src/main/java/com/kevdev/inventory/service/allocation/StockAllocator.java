@@ -0,0 +1,127 @@
+package com.kevdev.inventory.service.allocation;
+
+import com.kevdev.inventory.config.AllocationProperties;
+import com.kevdev.inventory.config.AllocationProperties.ApplyTo;
+import com.kevdev.inventory.entity.InventoryKey;
+import com.kevdev.inventory.repository.StockDemand;
+import com.kevdev.inventory.service.availability.AvailabilityIndex;
+import com.kevdev.inventory.service.shard.ReservationShards;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Decides which locations a reservation line reserves from. Lines the policy does not cover
+ * keep their location, or the default location when they have none. Covered lines are split
+ * by the configured {@link AllocationStrategy} using the {@link AvailabilityIndex}, so the
+ * decision costs no query for SKUs the index already holds.
+ * <p>
+ * The index can be slightly stale; a location that turns out to be short is rejected by the
+ * conditional reserve update like any other line. The index only moves once a reservation
+ * commits, so lines reserved together share a running tally of what earlier lines already took
+ * and do not all pick the same location. When the index shows too little stock in total, the
+ * line is not split and stays on its preferred location.
+ * <p>
+ * {@link #candidateKeys} names every row a line may be allocated to, so a reservation can hold
+ * the shards of all of them before the allocation is decided. The index entry can be reloaded
+ * between routing and allocation, for example when an adjustment adds a location, so
+ * allocation only picks rows whose shard the running work holds.
+ */
+@Component
+public class StockAllocator {
+
+    private final AllocationProperties properties;
+    private final AvailabilityIndex availabilityIndex;
+    private final ReservationShards reservationShards;
+    private final AllocationStrategy strategy;
+    private final Map<String, Integer> locationRank = new HashMap<>();
+
+    public StockAllocator(AllocationProperties properties,
+                          AvailabilityIndex availabilityIndex,
+                          ReservationShards reservationShards,
+                          List<AllocationStrategy> strategies) {
+        this.properties = properties;
+        this.availabilityIndex = availabilityIndex;
+        this.reservationShards = reservationShards;
+        this.strategy = strategies.stream()
+                .filter(candidate -> candidate.name().equals(properties.strategy()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Unknown allocation strategy " + properties.strategy()));
+        for (int i = 0; i < properties.locationOrder().size(); i++) {
+            locationRank.putIfAbsent(properties.locationOrder().get(i), i);
+        }
+    }
+
+    /**
+     * Rows {@link #allocate} may pick for the line: its preferred location, plus every known
+     * location of the SKU when the line is split by the policy.
+     */
+    public List<InventoryKey> candidateKeys(String sku, String locationId) {
+        InventoryKey preferred = InventoryKey.forLine(sku, locationId);
+        if (!splits(locationId)) {
+            return List.of(preferred);
+        }
+        Set<InventoryKey> keys = new LinkedHashSet<>();
+        keys.add(preferred);
+        for (String location : availabilityIndex.get(sku).locations().keySet()) {
+            keys.add(new InventoryKey(sku, location));
+        }
+        return List.copyOf(keys);
+    }
+
+    public List<StockDemand> allocate(String sku, String locationId, long quantity) {
+        return allocate(sku, locationId, quantity, new HashMap<>());
+    }
+
+    /**
+     * Allocates the line against the index minus {@code allocated}, the quantity earlier lines
+     * of the same transaction already took from each row, and adds this line's demands to it.
+     */
+    public List<StockDemand> allocate(String sku, String locationId, long quantity, Map<InventoryKey, Long> allocated) {
+        List<StockDemand> demands = decide(sku, locationId, quantity, allocated);
+        for (StockDemand demand : demands) {
+            allocated.merge(demand.key(), demand.quantity(), Long::sum);
+        }
+        return demands;
+    }
+
+    private List<StockDemand> decide(String sku, String locationId, long quantity, Map<InventoryKey, Long> allocated) {
+        boolean located = locationId != null && !locationId.isBlank();
+        String preferred = located ? locationId : InventoryKey.DEFAULT_LOCATION_ID;
+        if (!splits(locationId)) {
+            return List.of(new StockDemand(sku, preferred, quantity));
+        }
+
+        List<LocationQuantity> candidates = availabilityIndex.get(sku).locations().entrySet().stream()
+                .filter(location -> reservationShards.mayWrite(new InventoryKey(sku, location.getKey())))
+                .map(location -> new LocationQuantity(location.getKey(), location.getValue().available()
+                        - allocated.getOrDefault(new InventoryKey(sku, location.getKey()), 0L)))
+                .filter(candidate -> candidate.quantity() > 0)
+                .sorted(byDistance(located ? locationId : null))
+                .toList();
+        long available = candidates.stream().mapToLong(LocationQuantity::quantity).sum();
+        if (available < quantity) {
+            return List.of(new StockDemand(sku, preferred, quantity));
+        }
+
+        return strategy.allocate(quantity, candidates).stream()
+                .map(picked -> new StockDemand(sku, picked.locationId(), picked.quantity()))
+                .toList();
+    }
+
+    private boolean splits(String locationId) {
+        boolean located = locationId != null && !locationId.isBlank();
+        return properties.enabled() && !(located && properties.applyTo() == ApplyTo.UNLOCATED);
+    }
+
+    // requested location first, then the configured order, then the rest in location id order
+    private Comparator<LocationQuantity> byDistance(String requested) {
+        return Comparator.<LocationQuantity>comparingInt(candidate -> candidate.locationId().equals(requested) ? 0 : 1)
+                .thenComparingInt(candidate -> locationRank.getOrDefault(candidate.locationId(), Integer.MAX_VALUE));
+    }
+}
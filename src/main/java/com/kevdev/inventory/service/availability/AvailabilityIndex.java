@@ -0,0 +1,236 @@
+package com.kevdev.inventory.service.availability;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.kevdev.inventory.config.AvailabilityIndexProperties;
+import com.kevdev.inventory.entity.InventoryItem;
+import com.kevdev.inventory.repository.InventoryItemRepository;
+import com.kevdev.inventory.repository.StockMovement;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory available-to-promise aggregate per SKU, with a per-location breakdown.
+ * <p>
+ * An SKU is loaded with one query the first time it is asked for. After that it is kept up to
+ * date from the stock ledger: committed movements are applied to the cached aggregate, so hot
+ * SKUs are answered without touching the database. A delta is only applied to an entry whose
+ * load finished reading before the moving transaction started to commit; an entry whose load
+ * may already have seen that commit is evicted instead, so no movement is counted twice.
+ * Entries expire {@code ttl} after they were loaded, however often deltas are applied, which
+ * bounds drift from writes made by other instances. The index is advisory; reservations are
+ * still decided by the conditional updates on inventory_items.
+ */
+@Component
+public class AvailabilityIndex {
+
+    static final String CACHE_NAME = "inventory.availability";
+
+    private static final int LOAD_CHUNK_SIZE = 500;
+
+    private final boolean enabled;
+    private final Cache<String, Entry> cache;
+    // tick of the last movement committed while the SKU was not cached; see getAll
+    private final Cache<String, Long> uncachedMoves;
+    private final InventoryItemRepository inventoryItemRepository;
+    // orders loads against commits; see apply
+    private final AtomicLong clock = new AtomicLong();
+
+    public AvailabilityIndex(AvailabilityIndexProperties properties,
+                             InventoryItemRepository inventoryItemRepository,
+                             MeterRegistry meterRegistry) {
+        this.enabled = properties.enabled();
+        this.inventoryItemRepository = inventoryItemRepository;
+        long ttlNanos = properties.ttl().toNanos();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.maximumSkus())
+                .expireAfter(new Expiry<String, Entry>() {
+                    @Override
+                    public long expireAfterCreate(String sku, Entry entry, long currentTime) {
+                        return ttlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String sku, Entry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String sku, Entry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        this.uncachedMoves = Caffeine.newBuilder()
+                .maximumSize(properties.maximumSkus())
+                .expireAfterWrite(properties.ttl())
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Returns the aggregate of the SKU; an SKU without inventory rows has no locations.
+     */
+    public SkuAvailability get(String sku) {
+        if (!enabled || writtenInTransaction(sku)) {
+            return loadAll(List.of(sku)).get(sku).availability();
+        }
+        return cache.get(sku, key -> loadAll(List.of(key)).get(key)).availability();
+    }
+
+    /**
+     * Bulk variant of {@link #get}: all uncached SKUs are loaded together. Unlike a single load,
+     * the bulk load is not atomic with {@link #apply}, so a loaded SKU is only cached if nothing
+     * moved it while it was uncached after the load started.
+     */
+    public Map<String, SkuAvailability> getAll(Collection<String> skus) {
+        Map<String, Entry> entries = !enabled || skus.stream().anyMatch(this::writtenInTransaction)
+                ? loadAll(skus)
+                : getAllCached(skus);
+        Map<String, SkuAvailability> availability = new HashMap<>();
+        entries.forEach((sku, entry) -> availability.put(sku, entry.availability()));
+        return availability;
+    }
+
+    /**
+     * Notes that the current transaction has written these SKUs. Until it completes, they are
+     * read past the cache, so a load that sees the uncommitted rows is never cached and then
+     * moved again by the same movements once they commit.
+     */
+    public void written(List<StockMovement> movements) {
+        if (!enabled || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Set<String> written = (Set<String>) TransactionSynchronizationManager.getResource(this);
+        if (written == null) {
+            written = new HashSet<>();
+            TransactionSynchronizationManager.bindResource(this, written);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(AvailabilityIndex.this);
+                }
+            });
+        }
+        for (StockMovement movement : movements) {
+            written.add(movement.sku());
+        }
+    }
+
+    /**
+     * Marks a transaction that is about to commit movements. Call it before the commit and pass
+     * the mark to {@link #apply} once the commit has succeeded.
+     */
+    public long markCommit() {
+        return clock.incrementAndGet();
+    }
+
+    /**
+     * Applies committed movements to the SKUs that are cached. An entry loaded before
+     * {@code commitMark} cannot have seen them and takes the delta; one loaded after it may
+     * have, so it is evicted and loaded fresh when next asked for. SKUs that are not cached are
+     * left alone.
+     */
+    public void apply(List<StockMovement> movements, long commitMark) {
+        if (!enabled) {
+            return;
+        }
+        for (StockMovement movement : movements) {
+            cache.asMap().compute(movement.sku(), (sku, entry) -> {
+                if (entry == null) {
+                    uncachedMoves.put(sku, clock.incrementAndGet());
+                    return null;
+                }
+                return entry.loadedAt() < commitMark ? entry.apply(movement) : null;
+            });
+        }
+    }
+
+    /**
+     * Evicts the SKUs moved by movements that were committed without a mark, such as writes
+     * made outside a transaction; they are loaded fresh when next asked for.
+     */
+    public void invalidate(List<StockMovement> movements) {
+        if (!enabled) {
+            return;
+        }
+        Set<String> skus = new HashSet<>();
+        for (StockMovement movement : movements) {
+            skus.add(movement.sku());
+        }
+        cache.invalidateAll(skus);
+    }
+
+    private Map<String, Entry> getAllCached(Collection<String> skus) {
+        Map<String, Entry> entries = new HashMap<>(cache.getAllPresent(skus));
+        List<String> missing = skus.stream()
+                .filter(sku -> !entries.containsKey(sku))
+                .distinct()
+                .toList();
+        if (missing.isEmpty()) {
+            return entries;
+        }
+
+        long started = clock.incrementAndGet();
+        loadAll(missing).forEach((sku, loaded) -> {
+            Entry cached = cache.asMap().compute(sku,
+                    (key, current) -> current != null || movedSince(key, started) ? current : loaded);
+            entries.put(sku, cached != null ? cached : loaded);
+        });
+        return entries;
+    }
+
+    private boolean movedSince(String sku, long tick) {
+        Long moved = uncachedMoves.getIfPresent(sku);
+        return moved != null && moved > tick;
+    }
+
+    private boolean writtenInTransaction(String sku) {
+        Object written = TransactionSynchronizationManager.getResource(this);
+        return written instanceof Set<?> skus && skus.contains(sku);
+    }
+
+    private Map<String, Entry> loadAll(Collection<? extends String> skus) {
+        List<String> pending = new ArrayList<>(new LinkedHashSet<>(skus));
+        Map<String, Map<String, LocationStock>> locationsBySku = new HashMap<>();
+        for (int from = 0; from < pending.size(); from += LOAD_CHUNK_SIZE) {
+            List<String> chunk = pending.subList(from, Math.min(from + LOAD_CHUNK_SIZE, pending.size()));
+            for (InventoryItem item : inventoryItemRepository.findBySkuIn(chunk)) {
+                locationsBySku.computeIfAbsent(item.getSku(), sku -> new HashMap<>())
+                        .put(item.getLocationId(), new LocationStock(item.getOnHandQuantity(), item.getReservedQuantity()));
+            }
+        }
+        // taken once every row has been read, so a commit marked earlier is already in them
+        long loadedAt = clock.incrementAndGet();
+
+        Map<String, Entry> loaded = new HashMap<>();
+        for (String sku : pending) {
+            loaded.put(sku, new Entry(SkuAvailability.of(sku, locationsBySku.getOrDefault(sku, Map.of())), loadedAt));
+        }
+        return loaded;
+    }
+
+    private record Entry(SkuAvailability availability, long loadedAt) {
+
+        Entry apply(StockMovement movement) {
+            return new Entry(availability.apply(movement.locationId(), movement.onHandDelta(), movement.reservedDelta()),
+                    loadedAt);
+        }
+    }
+}
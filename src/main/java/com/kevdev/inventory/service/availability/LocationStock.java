@@ -0,0 +1,8 @@
+package com.kevdev.inventory.service.availability;
+
+public record LocationStock(long onHand, long reserved) {
+
+    public long available() {
+        return onHand - reserved;
+    }
+}
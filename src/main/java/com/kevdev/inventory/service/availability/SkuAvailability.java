@@ -0,0 +1,44 @@
+package com.kevdev.inventory.service.availability;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Stock of one SKU across all of its locations, ordered by location id, with the totals
+ * precomputed. Immutable; {@link #apply} returns an updated copy.
+ */
+public record SkuAvailability(
+        String sku,
+        Map<String, LocationStock> locations,
+        long onHand,
+        long reserved
+) {
+
+    public static SkuAvailability of(String sku, Map<String, LocationStock> locations) {
+        Map<String, LocationStock> sorted = new TreeMap<>(locations);
+        long onHand = 0;
+        long reserved = 0;
+        for (LocationStock stock : sorted.values()) {
+            onHand += stock.onHand();
+            reserved += stock.reserved();
+        }
+        return new SkuAvailability(sku, Collections.unmodifiableMap(sorted), onHand, reserved);
+    }
+
+    public long available() {
+        return onHand - reserved;
+    }
+
+    public boolean isEmpty() {
+        return locations.isEmpty();
+    }
+
+    SkuAvailability apply(String locationId, long onHandDelta, long reservedDelta) {
+        Map<String, LocationStock> updated = new TreeMap<>(locations);
+        updated.merge(locationId, new LocationStock(onHandDelta, reservedDelta),
+                (current, delta) -> new LocationStock(current.onHand() + delta.onHand(), current.reserved() + delta.reserved()));
+        return new SkuAvailability(sku, Collections.unmodifiableMap(updated),
+                onHand + onHandDelta, reserved + reservedDelta);
+    }
+}
@@ -0,0 +1,102 @@
+package com.kevdev.inventory.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.kevdev.inventory.config.InventoryCacheProperties;
+import com.kevdev.inventory.dto.InventoryItemResponse;
+import com.kevdev.inventory.entity.InventoryKey;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Size- and TTL-bounded cache of inventory item reads keyed by (sku, location).
+ * <p>
+ * Concurrent misses on the same key share one load. Writers invalidate the keys they touched
+ * after their transaction commits, so a reader never caches a value that could still be
+ * rolled back. Statistics are published as {@code cache.*} meters with {@code cache=inventory.items}.
+ */
+@Component
+public class InventoryItemCache {
+
+    static final String CACHE_NAME = "inventory.items";
+
+    private final boolean enabled;
+    private final Cache<InventoryKey, InventoryItemResponse> cache;
+
+    public InventoryItemCache(InventoryCacheProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.enabled();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.maximumSize())
+                .expireAfterWrite(properties.ttl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Returns the cached response or loads it. A loader returning {@code null} means the item
+     * does not exist; that result is not cached.
+     */
+    public InventoryItemResponse get(InventoryKey key, Function<InventoryKey, InventoryItemResponse> loader) {
+        if (!enabled) {
+            return loader.apply(key);
+        }
+        return cache.get(key, loader);
+    }
+
+    /**
+     * Bulk variant of {@link #get}: cached entries are returned as is and all misses are passed
+     * to the loader in one call. Keys the loader does not return are absent from the result.
+     * <p>
+     * Loaded misses are returned but not cached. A bulk load holds no per-key lock, so a writer's
+     * invalidation could land between the read and the insert and leave the old value cached for
+     * the full TTL; single-key {@link #get} fills those entries instead.
+     */
+    public Map<InventoryKey, InventoryItemResponse> getAll(
+            Set<InventoryKey> keys,
+            Function<Set<? extends InventoryKey>, Map<InventoryKey, InventoryItemResponse>> loader
+    ) {
+        if (!enabled) {
+            return loader.apply(keys);
+        }
+        Map<InventoryKey, InventoryItemResponse> found = new HashMap<>(cache.getAllPresent(keys));
+        if (found.size() < keys.size()) {
+            Set<InventoryKey> misses = new HashSet<>(keys);
+            misses.removeAll(found.keySet());
+            found.putAll(loader.apply(misses));
+        }
+        return found;
+    }
+
+    public void invalidate(InventoryKey key) {
+        invalidateAll(List.of(key));
+    }
+
+    public void invalidateAll(Collection<InventoryKey> keys) {
+        if (!enabled || keys.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            List<InventoryKey> touched = List.copyOf(keys);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidateAll(touched);
+                }
+            });
+        } else {
+            cache.invalidateAll(keys);
+        }
+    }
+}
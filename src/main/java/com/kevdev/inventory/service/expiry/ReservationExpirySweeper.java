@@ -0,0 +1,53 @@
+package com.kevdev.inventory.service.expiry;
+
+import com.kevdev.inventory.config.ReservationExpiryProperties;
+import com.kevdev.inventory.service.ExpiredBatch;
+import com.kevdev.inventory.service.ReservationService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+/**
+ * Periodically expires holds past their expiresAt. Each page is its own transaction and
+ * pages are walked by id, so one sweep always terminates even while new holds expire.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "inventory.reservations.expiry.enabled", havingValue = "true", matchIfMissing = true)
+public class ReservationExpirySweeper {
+
+    private final ReservationService reservationService;
+    private final ReservationExpiryProperties expiryProperties;
+
+    public ReservationExpirySweeper(ReservationService reservationService,
+                                    ReservationExpiryProperties expiryProperties) {
+        this.reservationService = reservationService;
+        this.expiryProperties = expiryProperties;
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.reservations.expiry.sweep-interval:PT5S}")
+    public void sweep() {
+        Instant cutoff = Instant.now();
+        long afterId = 0L;
+        int total = 0;
+        int skipped = 0;
+
+        ExpiredBatch batch;
+        do {
+            batch = reservationService.expireHolds(cutoff, afterId, expiryProperties.batchSize());
+            total += batch.expired();
+            skipped += batch.skipped();
+            afterId = batch.lastId();
+        } while (batch.scanned() == expiryProperties.batchSize());
+
+        if (total > 0) {
+            log.info("Expired {} reservation holds older than {}", total, cutoff);
+        }
+        if (skipped > 0) {
+            log.warn("Left {} expired holds in place because their reserved stock is no longer on the item", skipped);
+        }
+    }
+}
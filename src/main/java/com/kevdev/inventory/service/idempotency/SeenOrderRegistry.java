@@ -0,0 +1,72 @@
+package com.kevdev.inventory.service.idempotency;
+
+import com.kevdev.inventory.config.IdempotencyProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Remembers which orders were reserved recently so a redelivered order is recognised as a
+ * duplicate without a lookup.
+ * <p>
+ * Only the order id is kept, never its result: a reservation's status moves on through commit,
+ * release and expiry, so anything replayed to a caller is read from the reservation table.
+ * Only a hit is trusted. The cache knows nothing about orders reserved before a restart or by
+ * another instance (after a rebalance, for example), so a miss always falls back to the
+ * reservation table rather than being taken as "new".
+ */
+@Component
+public class SeenOrderRegistry {
+
+    private final Map<String, Boolean> recentOrders;
+    // not synchronized: a virtual thread blocked on a monitor pins its carrier thread
+    private final ReentrantLock recentOrdersLock = new ReentrantLock();
+
+    public SeenOrderRegistry(IdempotencyProperties properties) {
+        int capacity = properties.recentCacheSize();
+        this.recentOrders = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    public boolean hasSeen(String orderId) {
+        recentOrdersLock.lock();
+        try {
+            return recentOrders.get(orderId) != null;
+        } finally {
+            recentOrdersLock.unlock();
+        }
+    }
+
+    /**
+     * Records a newly reserved order once the surrounding transaction has committed.
+     */
+    public void record(String orderId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remember(orderId);
+                }
+            });
+        } else {
+            remember(orderId);
+        }
+    }
+
+    private void remember(String orderId) {
+        recentOrdersLock.lock();
+        try {
+            recentOrders.put(orderId, Boolean.TRUE);
+        } finally {
+            recentOrdersLock.unlock();
+        }
+    }
+}
@@ -1,40 +1,121 @@
 package com.kevdev.inventory.service.impl;
 
 import com.kevdev.inventory.dto.InventoryItemResponse;
+import com.kevdev.inventory.dto.InventoryLookupResultDto;
+import com.kevdev.inventory.dto.LocationAvailabilityDto;
 import com.kevdev.inventory.dto.StockAdjustmentRequestDto;
 import com.kevdev.inventory.dto.ReserveStockRequest;
+import com.kevdev.inventory.dto.SkuAvailabilityDto;
+import com.kevdev.inventory.dto.SkuAvailabilityLookupDto;
 import com.kevdev.inventory.entity.InventoryItem;
+import com.kevdev.inventory.entity.InventoryKey;
+import com.kevdev.inventory.repository.AdjustmentStatus;
 import com.kevdev.inventory.repository.InventoryItemRepository;
+import com.kevdev.inventory.repository.StockDelta;
+import com.kevdev.inventory.repository.StockMovement;
 import com.kevdev.inventory.service.InventoryService;
+import com.kevdev.inventory.service.availability.AvailabilityIndex;
+import com.kevdev.inventory.service.availability.SkuAvailability;
+import com.kevdev.inventory.service.cache.InventoryItemCache;
+import com.kevdev.inventory.service.ledger.StockLedger;
+import com.kevdev.inventory.service.retry.ContentionTracker;
+import com.kevdev.inventory.service.retry.RetryOnConflict;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.constraints.NotBlank;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
 @Service
 public class InventoryServiceImpl implements InventoryService {
 
     private final InventoryItemRepository inventoryItemRepository;
-
-    public InventoryServiceImpl(InventoryItemRepository inventoryItemRepository) {
+    private final InventoryItemCache inventoryItemCache;
+    private final ContentionTracker contentionTracker;
+    private final StockLedger stockLedger;
+    private final AvailabilityIndex availabilityIndex;
+
+    public InventoryServiceImpl(InventoryItemRepository inventoryItemRepository,
+                                InventoryItemCache inventoryItemCache,
+                                ContentionTracker contentionTracker,
+                                StockLedger stockLedger,
+                                AvailabilityIndex availabilityIndex) {
         this.inventoryItemRepository = inventoryItemRepository;
+        this.inventoryItemCache = inventoryItemCache;
+        this.contentionTracker = contentionTracker;
+        this.stockLedger = stockLedger;
+        this.availabilityIndex = availabilityIndex;
     }
 
     @Override
     @Transactional(readOnly = true)
     public InventoryItemResponse getInventory(@NotBlank String sku, @NotBlank String locationId) {
-        InventoryItem item = inventoryItemRepository.findBySkuAndLocationId(sku, locationId)
-                .orElseThrow(() -> new EntityNotFoundException(
-                        "Inventory not found for sku " + sku + " and location " + locationId));
+        InventoryItemResponse response = inventoryItemCache.get(
+                new InventoryKey(sku, locationId),
+                key -> inventoryItemRepository.findBySkuAndLocationId(key.sku(), key.locationId())
+                        .map(this::toResponse)
+                        .orElse(null)
+        );
+        if (response == null) {
+            throw new EntityNotFoundException("Inventory not found for sku " + sku + " and location " + locationId);
+        }
+
+        return response;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<InventoryLookupResultDto> getInventoryBatch(List<InventoryKey> keys) {
+        Map<InventoryKey, InventoryItemResponse> found = inventoryItemCache.getAll(
+                new LinkedHashSet<>(keys),
+                missing -> inventoryItemRepository.findAllByKeys(List.copyOf(missing), false).stream()
+                        .collect(Collectors.toMap(InventoryKey::of, this::toResponse))
+        );
+
+        return keys.stream()
+                .map(key -> {
+                    InventoryItemResponse item = found.get(key);
+                    return new InventoryLookupResultDto(key.sku(), key.locationId(), item != null, item);
+                })
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public SkuAvailabilityDto getAvailability(@NotBlank String sku) {
+        SkuAvailability availability = availabilityIndex.get(sku);
+        if (availability.isEmpty()) {
+            throw new EntityNotFoundException("Inventory not found for sku " + sku);
+        }
+        return toAvailabilityDto(availability);
+    }
 
-        return toResponse(item);
+    @Override
+    @Transactional(readOnly = true)
+    public List<SkuAvailabilityLookupDto> getAvailabilityBatch(List<String> skus) {
+        Map<String, SkuAvailability> found = availabilityIndex.getAll(skus);
+
+        return skus.stream()
+                .map(sku -> {
+                    SkuAvailability availability = found.get(sku);
+                    return availability == null || availability.isEmpty()
+                            ? new SkuAvailabilityLookupDto(sku, false, null)
+                            : new SkuAvailabilityLookupDto(sku, true, toAvailabilityDto(availability));
+                })
+                .toList();
     }
 
     @Override
     @Transactional
+    @RetryOnConflict("adjust_stock")
     public InventoryItemResponse adjustStock(StockAdjustmentRequestDto request) {
-        InventoryItem item = inventoryItemRepository.findBySkuAndLocationId(
-                        request.getSku(), request.getLocationId())
+        InventoryItem item = findForWrite(request.getSku(), request.getLocationId())
                 .orElseGet(() -> new InventoryItem(
                         request.getSku(),
                         request.getLocationId(),
@@ -49,15 +130,38 @@ public class InventoryServiceImpl implements InventoryService {
 
         item.setQuantityOnHand(newOnHand);
         InventoryItem saved = inventoryItemRepository.save(item);
+        stockLedger.record(movement(saved, request.getQuantityDelta(), 0, StockLedger.REASON_ADJUSTMENT));
+        inventoryItemCache.invalidate(InventoryKey.of(saved));
 
         return toResponse(saved);
     }
 
     @Override
     @Transactional
+    public List<AdjustmentStatus> adjustStockBatch(List<StockDelta> deltas) {
+        List<AdjustmentStatus> statuses = inventoryItemRepository.applyAdjustments(deltas);
+
+        List<InventoryKey> touched = new ArrayList<>();
+        List<StockMovement> movements = new ArrayList<>();
+        for (int i = 0; i < deltas.size(); i++) {
+            if (statuses.get(i) == AdjustmentStatus.APPLIED) {
+                StockDelta delta = deltas.get(i);
+                touched.add(delta.key());
+                movements.add(new StockMovement(
+                        null, delta.sku(), delta.locationId(), delta.delta(), 0, StockLedger.REASON_BULK_ADJUSTMENT));
+            }
+        }
+        stockLedger.recordAll(movements);
+        inventoryItemCache.invalidateAll(touched);
+
+        return statuses;
+    }
+
+    @Override
+    @Transactional
+    @RetryOnConflict("reserve_stock")
     public void reserveStock(ReserveStockRequest request) {
-        InventoryItem item = inventoryItemRepository.findBySkuAndLocationId(
-                        request.getSku(), request.getLocationId())
+        InventoryItem item = findForWrite(request.getSku(), request.getLocationId())
                 .orElseThrow(() -> new EntityNotFoundException(
                         "Inventory not found for sku " + request.getSku() +
                                 " and location " + request.getLocationId()));
@@ -70,13 +174,15 @@ public class InventoryServiceImpl implements InventoryService {
 
         item.setQuantityReserved(item.getQuantityReserved() + request.getQuantity());
         inventoryItemRepository.save(item);
+        stockLedger.record(movement(item, 0, request.getQuantity(), StockLedger.REASON_RESERVE));
+        inventoryItemCache.invalidate(InventoryKey.of(item));
     }
 
     @Override
     @Transactional
+    @RetryOnConflict("release_reserved")
     public void releaseReserved(ReserveStockRequest request) {
-        InventoryItem item = inventoryItemRepository.findBySkuAndLocationId(
-                        request.getSku(), request.getLocationId())
+        InventoryItem item = findForWrite(request.getSku(), request.getLocationId())
                 .orElseThrow(() -> new EntityNotFoundException(
                         "Inventory not found for sku " + request.getSku() +
                                 " and location " + request.getLocationId()));
@@ -88,6 +194,42 @@ public class InventoryServiceImpl implements InventoryService {
 
         item.setQuantityReserved(newReserved);
         inventoryItemRepository.save(item);
+        stockLedger.record(movement(item, 0, -request.getQuantity(), StockLedger.REASON_RELEASE));
+        inventoryItemCache.invalidate(InventoryKey.of(item));
+    }
+
+    /**
+     * Loads an item this transaction is going to modify. Normally the version check at flush
+     * catches concurrent writers; keys that keep conflicting, and escalated retries, lock the
+     * row instead.
+     */
+    private Optional<InventoryItem> findForWrite(String sku, String locationId) {
+        InventoryKey key = new InventoryKey(sku, locationId);
+        if (contentionTracker.shouldLock(key)) {
+            return inventoryItemRepository.findAllByKeys(List.of(key), true).stream().findFirst();
+        }
+        return inventoryItemRepository.findBySkuAndLocationId(sku, locationId);
+    }
+
+    private static StockMovement movement(InventoryItem item, long onHandDelta, long reservedDelta, String reason) {
+        return new StockMovement(item.getId(), item.getSku(), item.getLocationId(), onHandDelta, reservedDelta, reason);
+    }
+
+    private static SkuAvailabilityDto toAvailabilityDto(SkuAvailability availability) {
+        return new SkuAvailabilityDto(
+                availability.sku(),
+                availability.onHand(),
+                availability.reserved(),
+                availability.available(),
+                availability.locations().entrySet().stream()
+                        .map(location -> new LocationAvailabilityDto(
+                                location.getKey(),
+                                location.getValue().onHand(),
+                                location.getValue().reserved(),
+                                location.getValue().available()
+                        ))
+                        .toList()
+        );
     }
 
     private InventoryItemResponse toResponse(InventoryItem item) {
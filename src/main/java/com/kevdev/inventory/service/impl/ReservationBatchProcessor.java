@@ -0,0 +1,218 @@
+package com.kevdev.inventory.service.impl;
+
+import com.kevdev.inventory.dto.ReservationBulkResultDto;
+import com.kevdev.inventory.dto.ReservationCreateRequestDto;
+import com.kevdev.inventory.dto.ReservationResponseDto;
+import com.kevdev.inventory.entity.InventoryKey;
+import com.kevdev.inventory.messaging.event.OrderCreatedEvent;
+import com.kevdev.inventory.service.OrderBatchOutcome;
+import com.kevdev.inventory.service.ReservationService;
+import com.kevdev.inventory.service.shard.ReservationShards;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Reserves a batch of orders on the reservation shards. Orders are grouped by the set of
+ * shards they touch; each group is reserved in a single transaction, single-shard groups in
+ * parallel on their shard threads. If a group transaction fails, its orders are retried one
+ * by one so a single bad order cannot fail its neighbours. Orders that still fail are reported
+ * back to the caller rather than dropped, so the Kafka listener can hand them to the
+ * container's error handler before their offsets are committed.
+ * <p>
+ * Bulk reservation requests are split the same way, so a large request holds each shard only
+ * for the orders routed to it.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReservationBatchProcessor {
+
+    private final ReservationService reservationService;
+    private final ReservationShards reservationShards;
+
+    public List<ReservationResponseDto> process(List<OrderCreatedEvent> events) {
+        return reserve(events).reservations();
+    }
+
+    /**
+     * Reserves the batch and returns the reservations together with the orders that could not be
+     * reserved, keyed by order id.
+     */
+    public BatchResult reserve(List<OrderCreatedEvent> events) {
+        List<OrderCreatedEvent> orders = events.stream()
+                .filter(Objects::nonNull)
+                .toList();
+        if (orders.isEmpty()) {
+            return new BatchResult(List.of(), Map.of());
+        }
+
+        long started = System.nanoTime();
+        Map<BitSet, List<OrderCreatedEvent>> groups = new LinkedHashMap<>();
+        for (OrderCreatedEvent order : orders) {
+            groups.computeIfAbsent(reservationShards.shardsFor(keysOf(order)), shards -> new ArrayList<>())
+                    .add(order);
+        }
+
+        Collection<GroupResult> results = runGroups(groups, this::processGroup).values();
+
+        List<ReservationResponseDto> reservations = new ArrayList<>(orders.size());
+        Map<String, RuntimeException> failures = new LinkedHashMap<>();
+        int isolated = 0;
+        for (GroupResult result : results) {
+            reservations.addAll(result.reservations());
+            failures.putAll(result.failures());
+            isolated += result.isolated();
+        }
+
+        long elapsedNanos = Math.max(System.nanoTime() - started, 1L);
+        log.info("Reserved batch of {} orders in {} shard groups ({} isolated, {} failed) in {} ms, {} orders/s",
+                orders.size(),
+                groups.size(),
+                isolated,
+                failures.size(),
+                elapsedNanos / 1_000_000,
+                orders.size() * 1_000_000_000L / elapsedNanos);
+
+        return new BatchResult(reservations, failures);
+    }
+
+    /**
+     * Creates the reservations of a bulk request, one transaction per group of requests that
+     * touch the same shards. Every request for an order id goes to the group of its first
+     * occurrence, so repeats are still reported as duplicates. Results are in request order; if
+     * a group fails as a whole, each of its requests is rejected with the cause.
+     */
+    public List<ReservationBulkResultDto> createReservations(List<ReservationCreateRequestDto> requests) {
+        Map<String, BitSet> shardsByOrder = new HashMap<>();
+        Map<BitSet, List<Integer>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            ReservationCreateRequestDto request = requests.get(i);
+            BitSet shards = shardsByOrder.computeIfAbsent(request.orderId(), orderId -> reservationShards.shardsFor(
+                    request.items().stream()
+                            .flatMap(item -> reservationService.findCandidateKeys(item.sku(), item.locationId()).stream())
+                            .toList()));
+            groups.computeIfAbsent(shards, ignored -> new ArrayList<>()).add(i);
+        }
+
+        Map<BitSet, List<ReservationBulkResultDto>> results = runGroups(groups, positions -> {
+            List<ReservationCreateRequestDto> group = positions.stream().map(requests::get).toList();
+            try {
+                return reservationService.createReservations(group);
+            } catch (RuntimeException ex) {
+                log.warn("Bulk reservation group of {} orders failed", group.size(), ex);
+                return group.stream()
+                        .map(request -> ReservationBulkResultDto.rejected(null, request.orderId(), ex.getMessage()))
+                        .toList();
+            }
+        });
+
+        ReservationBulkResultDto[] ordered = new ReservationBulkResultDto[requests.size()];
+        groups.forEach((shards, positions) -> {
+            List<ReservationBulkResultDto> groupResults = results.get(shards);
+            for (int i = 0; i < positions.size(); i++) {
+                ordered[positions.get(i)] = groupResults.get(i);
+            }
+        });
+        return List.of(ordered);
+    }
+
+    /**
+     * Reserves a single order on its shards. If another consumer created the reservation
+     * concurrently, the unique order id constraint rejects this attempt and the order is
+     * replayed as a duplicate.
+     */
+    public ReservationResponseDto processOne(OrderCreatedEvent event) {
+        return reservationShards.execute(keysOf(event), () -> reserveOne(event));
+    }
+
+    /**
+     * Runs each group on the shards it touches: single-shard groups in parallel on their shard
+     * threads, the rest on the calling thread while holding their shards.
+     */
+    private <G, R> Map<BitSet, R> runGroups(Map<BitSet, G> groups, Function<G, R> work) {
+        Map<BitSet, CompletableFuture<R>> pending = new LinkedHashMap<>();
+        for (Map.Entry<BitSet, G> group : groups.entrySet()) {
+            if (group.getKey().cardinality() == 1) {
+                pending.put(group.getKey(), reservationShards.submit(
+                        group.getKey().nextSetBit(0),
+                        () -> work.apply(group.getValue())
+                ));
+            }
+        }
+
+        Map<BitSet, R> results = new LinkedHashMap<>();
+        // Multi-shard groups hold all of their shards while they run, so queue them after the
+        // single-shard groups instead of in front of them.
+        for (Map.Entry<BitSet, G> group : groups.entrySet()) {
+            if (group.getKey().cardinality() != 1) {
+                results.put(group.getKey(), reservationShards.execute(group.getKey(), () -> work.apply(group.getValue())));
+            }
+        }
+        pending.forEach((shards, future) -> results.put(shards, future.join()));
+        return results;
+    }
+
+    private GroupResult processGroup(List<OrderCreatedEvent> orders) {
+        List<ReservationResponseDto> reservations = new ArrayList<>(orders.size());
+        Map<String, RuntimeException> failures = new LinkedHashMap<>();
+        List<OrderCreatedEvent> isolated;
+
+        try {
+            OrderBatchOutcome outcome = reservationService.reserveForOrders(orders);
+            reservations.addAll(outcome.reservations());
+            isolated = outcome.rejected();
+        } catch (RuntimeException ex) {
+            log.warn("Batch of {} orders failed, falling back to one transaction per order", orders.size(), ex);
+            isolated = orders;
+        }
+
+        for (OrderCreatedEvent order : isolated) {
+            try {
+                reservations.add(reserveOne(order));
+            } catch (RuntimeException ex) {
+                log.error("Reservation failed for orderId={}", order.orderId(), ex);
+                failures.putIfAbsent(order.orderId(), ex);
+            }
+        }
+
+        return new GroupResult(reservations, failures, isolated.size());
+    }
+
+    private ReservationResponseDto reserveOne(OrderCreatedEvent event) {
+        try {
+            return reservationService.reserveForOrder(event);
+        } catch (DataIntegrityViolationException ex) {
+            log.info("Reservation for orderId={} already exists, republishing existing result", event.orderId());
+            return reservationService.reserveForOrder(event);
+        }
+    }
+
+    private List<InventoryKey> keysOf(OrderCreatedEvent event) {
+        return event.items().stream()
+                .flatMap(item -> reservationService.findCandidateKeys(item.sku(), item.locationId()).stream())
+                .toList();
+    }
+
+    public record BatchResult(List<ReservationResponseDto> reservations, Map<String, RuntimeException> failures) {
+    }
+
+    private record GroupResult(
+            List<ReservationResponseDto> reservations,
+            Map<String, RuntimeException> failures,
+            int isolated
+    ) {
+    }
+}
@@ -0,0 +1,97 @@
+package com.kevdev.inventory.service.impl;
+
+import com.kevdev.inventory.dto.ReservationCreateRequestDto;
+import com.kevdev.inventory.dto.ReservationItemRequestDto;
+import com.kevdev.inventory.dto.ReservationItemResponseDto;
+import com.kevdev.inventory.dto.ReservationResponseDto;
+import com.kevdev.inventory.entity.Reservation;
+import com.kevdev.inventory.messaging.event.InventoryReservationResultEvent;
+import com.kevdev.inventory.messaging.event.OrderCreatedEvent;
+import com.kevdev.inventory.repository.ReservationLineView;
+
+import java.util.List;
+
+/**
+ * Conversions between reservation entities, API DTOs and Kafka events.
+ */
+final class ReservationMapper {
+
+    private ReservationMapper() {
+    }
+
+    static ReservationResponseDto toResponse(Reservation reservation) {
+        List<ReservationItemResponseDto> itemDtos = reservation.getLines().stream()
+                .map(line -> new ReservationItemResponseDto(
+                        line.getSku(),
+                        line.getLocationId(),
+                        line.getRequestedQuantity(),
+                        line.getReservedQuantity(),
+                        line.getStatus().name(),
+                        line.getFailureReason()
+                ))
+                .toList();
+
+        return new ReservationResponseDto(
+                reservation.getId(),
+                reservation.getOrderId(),
+                reservation.getStatus().name(),
+                reservation.getReason(),
+                itemDtos
+        );
+    }
+
+    /**
+     * Builds the response from the joined rows of one reservation, which must not be empty.
+     */
+    static ReservationResponseDto toResponseFromViews(List<ReservationLineView> rows) {
+        ReservationLineView header = rows.get(0);
+        List<ReservationItemResponseDto> itemDtos = rows.stream()
+                .filter(row -> row.sku() != null)
+                .map(row -> new ReservationItemResponseDto(
+                        row.sku(),
+                        row.locationId(),
+                        row.requestedQuantity(),
+                        row.reservedQuantity(),
+                        row.lineStatus().name(),
+                        row.failureReason()
+                ))
+                .toList();
+
+        return new ReservationResponseDto(
+                header.reservationId(),
+                header.orderId(),
+                header.status().name(),
+                header.reason(),
+                itemDtos
+        );
+    }
+
+    static ReservationCreateRequestDto toCreateRequest(OrderCreatedEvent event) {
+        List<ReservationItemRequestDto> items = event.items().stream()
+                .map(item -> new ReservationItemRequestDto(
+                        item.sku(),
+                        item.locationId(),
+                        item.quantity()
+                ))
+                .toList();
+
+        return new ReservationCreateRequestDto(event.orderId(), items);
+    }
+
+    static InventoryReservationResultEvent toResultEvent(String orderId, ReservationResponseDto response) {
+        return new InventoryReservationResultEvent(
+                orderId,
+                response.status(),
+                response.items().stream()
+                        .map(item -> new InventoryReservationResultEvent.LineResult(
+                                item.sku(),
+                                item.locationId(),
+                                item.requestedQuantity(),
+                                item.reservedQuantity(),
+                                item.status(),
+                                item.failureReason()
+                        ))
+                        .toList()
+        );
+    }
+}
@@ -1,88 +1,720 @@
 package com.kevdev.inventory.service.impl;
 
+import com.kevdev.inventory.config.ReservationExpiryProperties;
+import com.kevdev.inventory.dto.ReservationActionItemDto;
+import com.kevdev.inventory.dto.ReservationBulkResultDto;
 import com.kevdev.inventory.dto.ReservationCreateRequestDto;
 import com.kevdev.inventory.dto.ReservationItemRequestDto;
-import com.kevdev.inventory.dto.ReservationItemResponseDto;
 import com.kevdev.inventory.dto.ReservationResponseDto;
 import com.kevdev.inventory.entity.InventoryItem;
+import com.kevdev.inventory.entity.InventoryKey;
 import com.kevdev.inventory.entity.Reservation;
 import com.kevdev.inventory.entity.ReservationLine;
 import com.kevdev.inventory.entity.ReservationLineStatus;
 import com.kevdev.inventory.entity.ReservationStatus;
+import com.kevdev.inventory.messaging.KafkaTopics;
 import com.kevdev.inventory.messaging.event.InventoryReservationResultEvent;
 import com.kevdev.inventory.messaging.event.OrderCreatedEvent;
+import com.kevdev.inventory.messaging.outbox.OutboxPublisher;
 import com.kevdev.inventory.repository.InventoryItemRepository;
+import com.kevdev.inventory.repository.ReservationLineRepository;
+import com.kevdev.inventory.repository.ReservationLineView;
+import com.kevdev.inventory.repository.ReservationOutcome;
 import com.kevdev.inventory.repository.ReservationRepository;
+import com.kevdev.inventory.repository.ReservedLine;
+import com.kevdev.inventory.repository.ReservedQuantity;
+import com.kevdev.inventory.repository.StockDemand;
+import com.kevdev.inventory.repository.StockMovement;
+import com.kevdev.inventory.service.ExpiredBatch;
+import com.kevdev.inventory.service.OrderBatchOutcome;
+import com.kevdev.inventory.service.allocation.StockAllocator;
 import com.kevdev.inventory.service.ReservationService;
+import com.kevdev.inventory.service.cache.InventoryItemCache;
+import com.kevdev.inventory.service.idempotency.SeenOrderRegistry;
+import com.kevdev.inventory.service.ledger.StockLedger;
+import com.kevdev.inventory.service.metrics.ReservationMetrics;
+import com.kevdev.inventory.service.metrics.ReservationMetrics.Operation;
+import com.kevdev.inventory.service.metrics.ReservationMetrics.Stage;
+import com.kevdev.inventory.service.retry.ContentionTracker;
+import com.kevdev.inventory.service.retry.RetryOnConflict;
 import lombok.RequiredArgsConstructor;
-import org.springframework.beans.factory.ObjectProvider;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class ReservationServiceImpl implements ReservationService {
 
-    private static final String DEFAULT_LOCATION_ID = "MAIN";
-
     private final ReservationRepository reservationRepository;
     private final InventoryItemRepository inventoryItemRepository;
-    private final ObjectProvider<KafkaTemplate<String, InventoryReservationResultEvent>> inventoryResultKafkaTemplateProvider;
+    private final ReservationLineRepository reservationLineRepository;
+    private final OutboxPublisher outboxPublisher;
+    private final SeenOrderRegistry seenOrderRegistry;
+    private final InventoryItemCache inventoryItemCache;
+    private final ReservationExpiryProperties expiryProperties;
+    private final ReservationMetrics reservationMetrics;
+    private final StockLedger stockLedger;
+    private final StockAllocator stockAllocator;
+    private final ContentionTracker contentionTracker;
 
     @Override
     @Transactional
     public ReservationResponseDto reserveForOrder(OrderCreatedEvent event) {
-        ReservationCreateRequestDto request = mapFromOrderEvent(event);
-        ReservationResponseDto response = createReservation(request);
+        Optional<ReservationResponseDto> existing = findReservationByOrderId(event.orderId());
+        if (existing.isPresent()) {
+            publishInventoryReservationResult(event, existing.get());
+            return existing.get();
+        }
+
+        ReservationResponseDto response = reserve(ReservationMapper.toCreateRequest(event));
         publishInventoryReservationResult(event, response);
         return response;
     }
 
     @Override
     @Transactional
+    public OrderBatchOutcome reserveForOrders(List<OrderCreatedEvent> batch) {
+        Map<String, OrderCreatedEvent> uniqueOrders = new LinkedHashMap<>();
+        for (OrderCreatedEvent event : batch) {
+            uniqueOrders.putIfAbsent(event.orderId(), event);
+        }
+
+        Map<String, ReservationResponseDto> existingResults = findExistingResults(uniqueOrders.keySet());
+        List<ReservationResponseDto> replayed = new ArrayList<>();
+        List<OrderCreatedEvent> events = new ArrayList<>(uniqueOrders.size());
+        for (OrderCreatedEvent event : uniqueOrders.values()) {
+            ReservationResponseDto existing = existingResults.get(event.orderId());
+            if (existing != null) {
+                publishInventoryReservationResult(event, existing);
+                replayed.add(existing);
+            } else {
+                events.add(event);
+            }
+        }
+        if (events.isEmpty()) {
+            return new OrderBatchOutcome(replayed, List.of());
+        }
+
+        List<ReservationCreateRequestDto> requests = events.stream()
+                .map(ReservationMapper::toCreateRequest)
+                .toList();
+        BatchResult result = reserveAll(requests);
+
+        for (ReservationResponseDto response : result.reserved()) {
+            publishInventoryReservationResult(uniqueOrders.get(response.orderId()), response);
+        }
+        List<OrderCreatedEvent> rejected = result.rejected().stream()
+                .map(request -> uniqueOrders.get(request.orderId()))
+                .toList();
+
+        List<ReservationResponseDto> reserved = new ArrayList<>(replayed.size() + result.reserved().size());
+        reserved.addAll(replayed);
+        reserved.addAll(result.reserved());
+        return new OrderBatchOutcome(reserved, rejected);
+    }
+
+    @Override
+    @Transactional
+    @RetryOnConflict("create_reservation")
     public ReservationResponseDto createReservation(ReservationCreateRequestDto request) {
+        if (orderExists(request.orderId())) {
+            throw new IllegalStateException("Reservation already exists for orderId " + request.orderId());
+        }
+        return reserve(request);
+    }
+
+    @Override
+    @Transactional
+    @RetryOnConflict("commit_reservation")
+    public ReservationResponseDto commitReservation(Long reservationId, String reason) {
         Instant now = Instant.now();
 
+        HeldReservation held = reservationMetrics.time(Operation.COMMIT, Stage.LOOKUP,
+                () -> lockHeldReservation(reservationId, "commit"));
+        Reservation reservation = held.reservation();
+        Map<InventoryKey, InventoryItem> items = held.items();
+        List<StockMovement> movements = new ArrayList<>();
+
+        reservationMetrics.time(Operation.COMMIT, Stage.DECIDE, () -> {
+            for (ReservationLine line : reservation.getLines()) {
+                long reservedQuantity = line.getReservedQuantity();
+                if (reservedQuantity <= 0) {
+                    continue;
+                }
+
+                InventoryItem inventoryItem = heldItem(items, line);
+
+                long newOnHand = inventoryItem.getOnHandQuantity() - reservedQuantity;
+                if (newOnHand < 0) {
+                    throw new IllegalStateException("Commit would reduce on hand below zero for sku "
+                            + inventoryItem.getSku());
+                }
+
+                long newReserved = inventoryItem.getReservedQuantity() - reservedQuantity;
+                if (newReserved < 0) {
+                    throw new IllegalStateException("Commit would reduce reserved below zero for sku "
+                            + inventoryItem.getSku());
+                }
+
+                inventoryItem.setOnHandQuantity(newOnHand);
+                inventoryItem.setReservedQuantity(newReserved);
+                inventoryItem.setUpdatedAt(now);
+                movements.add(movement(inventoryItem, -reservedQuantity, -reservedQuantity, StockLedger.REASON_COMMIT));
+            }
+
+            reservation.setStatus(ReservationStatus.COMMITTED);
+            reservation.setReason(reason);
+            reservation.setUpdatedAt(now);
+        });
+
+        Reservation saved = reservationMetrics.time(Operation.COMMIT, Stage.FLUSH, () -> flushed(reservation));
+        reservationMetrics.recordStatus(saved.getStatus(), 1);
+        stockLedger.recordAll(movements);
+        inventoryItemCache.invalidateAll(items.keySet());
+        return ReservationMapper.toResponse(saved);
+    }
+
+    @Override
+    @Transactional
+    @RetryOnConflict("release_reservation")
+    public ReservationResponseDto releaseReservation(Long reservationId, String reason) {
+        Instant now = Instant.now();
+
+        HeldReservation held = reservationMetrics.time(Operation.RELEASE, Stage.LOOKUP,
+                () -> lockHeldReservation(reservationId, "release"));
+        Reservation reservation = held.reservation();
+        Map<InventoryKey, InventoryItem> items = held.items();
+        List<StockMovement> movements = new ArrayList<>();
+
+        reservationMetrics.time(Operation.RELEASE, Stage.DECIDE, () -> {
+            for (ReservationLine line : reservation.getLines()) {
+                long reservedQuantity = line.getReservedQuantity();
+                if (reservedQuantity <= 0) {
+                    continue;
+                }
+
+                InventoryItem inventoryItem = heldItem(items, line);
+
+                long newReserved = inventoryItem.getReservedQuantity() - reservedQuantity;
+                if (newReserved < 0) {
+                    throw new IllegalStateException("Release would reduce reserved below zero for sku "
+                            + inventoryItem.getSku());
+                }
+
+                inventoryItem.setReservedQuantity(newReserved);
+                inventoryItem.setUpdatedAt(now);
+                movements.add(movement(inventoryItem, 0, -reservedQuantity, StockLedger.REASON_RELEASE));
+            }
+
+            reservation.setStatus(ReservationStatus.RELEASED);
+            reservation.setReason(reason);
+            reservation.setUpdatedAt(now);
+        });
+
+        Reservation saved = reservationMetrics.time(Operation.RELEASE, Stage.FLUSH, () -> flushed(reservation));
+        reservationMetrics.recordStatus(saved.getStatus(), 1);
+        stockLedger.recordAll(movements);
+        inventoryItemCache.invalidateAll(items.keySet());
+        return ReservationMapper.toResponse(saved);
+    }
+
+    @Override
+    @Transactional
+    public ExpiredBatch expireHolds(Instant cutoff, long afterId, int limit) {
+        List<Long> reservationIds = reservationRepository.lockExpiredHoldIds(cutoff, afterId, limit);
+        if (reservationIds.isEmpty()) {
+            return new ExpiredBatch(0, 0, afterId);
+        }
+
+        long lastId = reservationIds.get(reservationIds.size() - 1);
+        List<ReservedLine> lines = reservationLineRepository.findReservedLines(reservationIds);
+        Set<Long> shortfalls = findShortfalls(reservationIds, lines, false).keySet();
+        List<Long> expired = reservationIds.stream()
+                .filter(id -> !shortfalls.contains(id))
+                .toList();
+        if (expired.isEmpty()) {
+            return new ExpiredBatch(0, shortfalls.size(), lastId);
+        }
+
+        List<ReservedQuantity> released = sumByItem(lines, shortfalls);
+        List<ReservedQuantity> rejected = inventoryItemRepository.releaseReserved(released);
+        if (!rejected.isEmpty()) {
+            // the rows were checked under lock, so this only happens if that lock was bypassed
+            throw new IllegalStateException("Release would reduce reserved below zero for sku "
+                    + rejected.get(0).sku() + " at location " + rejected.get(0).locationId());
+        }
+        stockLedger.recordAll(released.stream()
+                .map(release -> new StockMovement(release.inventoryItemId(), release.sku(), release.locationId(),
+                        0, -release.quantity(), StockLedger.REASON_EXPIRE))
+                .toList());
+        reservationRepository.updateStatus(expired, ReservationStatus.EXPIRED, "Hold expired", Instant.now());
+        reservationMetrics.recordStatus(ReservationStatus.EXPIRED, expired.size());
+
+        inventoryItemCache.invalidateAll(released.stream().map(ReservedQuantity::key).toList());
+        return new ExpiredBatch(expired.size(), shortfalls.size(), lastId);
+    }
+
+    @Override
+    public ReservationResponseDto getReservationByOrderId(String orderId) {
+        return findReservationByOrderId(orderId)
+                .orElseThrow(() -> new IllegalArgumentException("Reservation not found for orderId " + orderId));
+    }
+
+    @Override
+    public Optional<ReservationResponseDto> findReservationByOrderId(String orderId) {
+        List<ReservationLineView> rows = reservationRepository.findLineViewsByOrderId(orderId);
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(ReservationMapper.toResponseFromViews(rows));
+    }
+
+    @Override
+    @Transactional
+    public List<ReservationBulkResultDto> createReservations(List<ReservationCreateRequestDto> requests) {
+        Map<String, ReservationResponseDto> existingResults = findExistingResults(
+                requests.stream().map(ReservationCreateRequestDto::orderId).collect(Collectors.toSet()));
+        Map<String, ReservationCreateRequestDto> fresh = new LinkedHashMap<>();
+        Map<String, ReservationBulkResultDto> skipped = new HashMap<>();
+        for (ReservationCreateRequestDto request : requests) {
+            if (fresh.containsKey(request.orderId()) || skipped.containsKey(request.orderId())) {
+                continue;
+            }
+            if (existingResults.containsKey(request.orderId())) {
+                skipped.put(request.orderId(), ReservationBulkResultDto.rejected(null, request.orderId(),
+                        "Reservation already exists for orderId " + request.orderId()));
+            } else {
+                fresh.put(request.orderId(), request);
+            }
+        }
+
+        Map<String, ReservationBulkResultDto> results = new HashMap<>(skipped);
+        if (!fresh.isEmpty()) {
+            BatchResult result = reserveAll(List.copyOf(fresh.values()));
+            for (ReservationResponseDto response : result.reserved()) {
+                results.put(response.orderId(), new ReservationBulkResultDto(
+                        response.reservationId(), response.orderId(), response.status(), response.reason()));
+            }
+            for (ReservationCreateRequestDto request : result.rejected()) {
+                results.put(request.orderId(), ReservationBulkResultDto.rejected(null, request.orderId(),
+                        "Inventory item not found for one or more lines"));
+            }
+        }
+
+        Set<String> answered = new HashSet<>();
+        return requests.stream()
+                .map(request -> answered.add(request.orderId())
+                        ? results.get(request.orderId())
+                        : ReservationBulkResultDto.rejected(null, request.orderId(), "Duplicate orderId in request"))
+                .toList();
+    }
+
+    @Override
+    @Transactional
+    public List<ReservationBulkResultDto> commitReservations(List<ReservationActionItemDto> items) {
+        return settleAll(items, ReservationStatus.COMMITTED);
+    }
+
+    @Override
+    @Transactional
+    public List<ReservationBulkResultDto> releaseReservations(List<ReservationActionItemDto> items) {
+        return settleAll(items, ReservationStatus.RELEASED);
+    }
+
+    @Override
+    public List<InventoryKey> findCandidateKeys(String sku, String locationId) {
+        return stockAllocator.candidateKeys(sku, locationId);
+    }
+
+    @Override
+    public List<InventoryKey> findInventoryKeys(Long reservationId) {
+        return reservationLineRepository.findInventoryKeysByReservationId(reservationId);
+    }
+
+    @Override
+    public List<InventoryKey> findInventoryKeysByReservationIds(Collection<Long> reservationIds) {
+        return reservationLineRepository.findInventoryKeysByReservationIds(reservationIds);
+    }
+
+    private ReservationResponseDto reserve(ReservationCreateRequestDto request) {
+        List<StockDemand> demands = allocate(List.of(request)).get(0);
+        List<ReservationOutcome> outcomes = reserveAvailable(demands);
+
+        for (int i = 0; i < demands.size(); i++) {
+            if (!outcomes.get(i).found()) {
+                StockDemand demand = demands.get(i);
+                throw new IllegalArgumentException(
+                        "Inventory item not found for sku " + demand.sku() + " at location " + demand.locationId()
+                );
+            }
+        }
+
+        Reservation reservation = reservationMetrics.time(Operation.CREATE, Stage.DECIDE,
+                () -> buildReservation(request.orderId(), demands, outcomes, Instant.now()));
+        recordReserved(demands, outcomes);
+
+        Reservation savedReservation = reservationMetrics.time(Operation.CREATE, Stage.FLUSH, () -> flushed(reservation));
+
+        ReservationResponseDto response = ReservationMapper.toResponse(savedReservation);
+        reservationMetrics.recordOutcome(response);
+        seenOrderRegistry.record(response.orderId());
+        return response;
+    }
+
+    private List<ReservationOutcome> reserveAvailable(List<StockDemand> demands) {
+        return reservationMetrics.time(Operation.CREATE, Stage.WRITE, () -> inventoryItemRepository.reserveAvailable(demands));
+    }
+
+    /**
+     * Reserves many requests in one pass. Requests that reference unknown inventory items are
+     * dropped before anything is reserved and returned as rejected.
+     */
+    private BatchResult reserveAll(List<ReservationCreateRequestDto> requests) {
+        List<List<StockDemand>> allocations = allocate(requests);
+        List<StockDemand> demands = flatten(allocations);
+        List<ReservationOutcome> outcomes = reserveAvailable(demands);
+
+        List<ReservationCreateRequestDto> rejected = new ArrayList<>();
+        if (outcomes.stream().anyMatch(outcome -> !outcome.found())) {
+            // Nothing was reserved, so drop the requests that reference unknown items and run the rest again.
+            List<ReservationCreateRequestDto> accepted = new ArrayList<>();
+            List<List<StockDemand>> acceptedAllocations = new ArrayList<>();
+            int offset = 0;
+            for (int i = 0; i < requests.size(); i++) {
+                int lineCount = allocations.get(i).size();
+                boolean allFound = outcomes.subList(offset, offset + lineCount).stream()
+                        .allMatch(ReservationOutcome::found);
+                if (allFound) {
+                    accepted.add(requests.get(i));
+                    acceptedAllocations.add(allocations.get(i));
+                } else {
+                    rejected.add(requests.get(i));
+                }
+                offset += lineCount;
+            }
+
+            if (accepted.isEmpty()) {
+                return new BatchResult(List.of(), rejected);
+            }
+
+            requests = accepted;
+            allocations = acceptedAllocations;
+            demands = flatten(allocations);
+            outcomes = reserveAvailable(demands);
+        }
+
+        List<Reservation> reservations = buildReservations(requests, allocations, outcomes);
+        recordReserved(demands, outcomes);
+
+        List<ReservationResponseDto> responses = reservationMetrics.time(Operation.CREATE, Stage.FLUSH, () -> {
+            List<Reservation> saved = reservationRepository.saveAll(reservations);
+            reservationRepository.flush();
+            return saved;
+        }).stream()
+                .map(ReservationMapper::toResponse)
+                .toList();
+
+        for (ReservationResponseDto response : responses) {
+            reservationMetrics.recordOutcome(response);
+            seenOrderRegistry.record(response.orderId());
+        }
+        return new BatchResult(responses, rejected);
+    }
+
+    /**
+     * Commits or releases every held reservation among the items with set-based statements:
+     * reserved quantities are summed per inventory item and applied as one batched decrement,
+     * and statuses are updated once per distinct reason. A commit or release that stock can no
+     * longer cover is rejected on its own and the reservation stays held; the others still settle.
+     */
+    private List<ReservationBulkResultDto> settleAll(List<ReservationActionItemDto> items, ReservationStatus target) {
+        boolean commit = target == ReservationStatus.COMMITTED;
+        Operation operation = commit ? Operation.COMMIT : Operation.RELEASE;
+
+        Map<Long, String> reasons = new LinkedHashMap<>();
+        for (ReservationActionItemDto item : items) {
+            reasons.putIfAbsent(item.reservationId(), item.reason());
+        }
+
+        List<Long> held = reservationMetrics.time(operation, Stage.LOOKUP,
+                () -> reservationRepository.lockHeldIds(reasons.keySet()));
+        Set<Long> heldIds = new HashSet<>(held);
+        Map<Long, ReservationStatus> otherStatuses = reservationRepository.findAllById(reasons.keySet().stream()
+                        .filter(id -> !heldIds.contains(id))
+                        .toList())
+                .stream()
+                .collect(Collectors.toMap(Reservation::getId, Reservation::getStatus));
+
+        Map<Long, String> shortfalls = new HashMap<>();
+        List<ReservedQuantity> quantities = List.of();
+        if (!held.isEmpty()) {
+            List<ReservedLine> lines = reservationMetrics.time(operation, Stage.LOOKUP,
+                    () -> reservationLineRepository.findReservedLines(held));
+            shortfalls.putAll(findShortfalls(reasons.keySet(), lines, commit));
+            quantities = sumByItem(lines, shortfalls.keySet());
+        }
+        List<Long> settled = held.stream()
+                .filter(id -> !shortfalls.containsKey(id))
+                .toList();
+
+        if (!settled.isEmpty()) {
+            List<ReservedQuantity> applied = quantities;
+            reservationMetrics.time(operation, Stage.WRITE, () -> {
+                List<ReservedQuantity> shortfall = commit
+                        ? inventoryItemRepository.commitReserved(applied)
+                        : inventoryItemRepository.releaseReserved(applied);
+                if (!shortfall.isEmpty()) {
+                    // the rows were checked under lock, so this only happens if that lock was bypassed
+                    throw new IllegalStateException((commit
+                            ? "Commit would reduce stock below zero for sku "
+                            : "Release would reduce reserved below zero for sku ")
+                            + shortfall.get(0).sku() + " at location " + shortfall.get(0).locationId());
+                }
+            });
+            reservationMetrics.time(operation, Stage.FLUSH, () -> {
+                Instant now = Instant.now();
+                Map<String, List<Long>> idsByReason = new LinkedHashMap<>();
+                for (Long id : settled) {
+                    idsByReason.computeIfAbsent(reasons.get(id), reason -> new ArrayList<>()).add(id);
+                }
+                idsByReason.forEach((reason, ids) -> reservationRepository.updateStatus(ids, target, reason, now));
+            });
+
+            stockLedger.recordAll(applied.stream()
+                    .map(quantity -> new StockMovement(quantity.inventoryItemId(), quantity.sku(), quantity.locationId(),
+                            commit ? -quantity.quantity() : 0, -quantity.quantity(),
+                            commit ? StockLedger.REASON_COMMIT : StockLedger.REASON_RELEASE))
+                    .toList());
+            reservationMetrics.recordStatus(target, settled.size());
+            inventoryItemCache.invalidateAll(applied.stream().map(ReservedQuantity::key).toList());
+        }
+
+        String action = commit ? "commit" : "release";
+        Set<Long> answered = new HashSet<>();
+        return items.stream()
+                .map(item -> {
+                    Long id = item.reservationId();
+                    if (!answered.add(id)) {
+                        return ReservationBulkResultDto.rejected(id, null, "Duplicate reservationId in request");
+                    }
+                    if (shortfalls.containsKey(id)) {
+                        return ReservationBulkResultDto.rejected(id, null, shortfalls.get(id));
+                    }
+                    if (heldIds.contains(id)) {
+                        return new ReservationBulkResultDto(id, null, target.name(), item.reason());
+                    }
+                    ReservationStatus status = otherStatuses.get(id);
+                    return ReservationBulkResultDto.rejected(id, null, status == null
+                            ? "Reservation not found with id " + id
+                            : "Cannot " + action + " reservation in status " + status);
+                })
+                .toList();
+    }
+
+    /**
+     * Walks the held reservations in request order against the current stock of the items they
+     * hold, locked for the rest of the transaction, and returns why each one that would take an
+     * item below zero cannot commit or release. Earlier reservations in the request are served
+     * first. A release only checks reserved; a commit checks on hand as well.
+     */
+    private Map<Long, String> findShortfalls(Collection<Long> requestOrder, List<ReservedLine> lines, boolean commit) {
+        Map<Long, Map<Long, ReservedLine>> linesByReservation = new HashMap<>();
+        for (ReservedLine line : lines) {
+            linesByReservation.computeIfAbsent(line.reservationId(), id -> new LinkedHashMap<>())
+                    .merge(line.inventoryItemId(), line, (current, more) -> new ReservedLine(current.reservationId(),
+                            current.inventoryItemId(), current.sku(), current.locationId(),
+                            current.quantity() + more.quantity()));
+        }
+
+        Map<Long, long[]> remaining = new HashMap<>();
+        List<InventoryKey> keys = lines.stream().map(ReservedLine::key).distinct().toList();
+        for (InventoryItem item : inventoryItemRepository.findAllByKeys(keys, true)) {
+            remaining.put(item.getId(), new long[] {item.getOnHandQuantity(), item.getReservedQuantity()});
+        }
+
+        Map<Long, String> shortfalls = new HashMap<>();
+        for (Long id : requestOrder) {
+            Collection<ReservedLine> reserved = linesByReservation.getOrDefault(id, Map.of()).values();
+            ReservedLine shortLine = reserved.stream()
+                    .filter(line -> {
+                        long[] stock = remaining.get(line.inventoryItemId());
+                        return stock == null
+                                || (commit && stock[0] < line.quantity())
+                                || stock[1] < line.quantity();
+                    })
+                    .findFirst()
+                    .orElse(null);
+            if (shortLine != null) {
+                shortfalls.put(id, (commit
+                        ? "Commit would reduce stock below zero for sku "
+                        : "Release would reduce reserved below zero for sku ")
+                        + shortLine.sku() + " at location " + shortLine.locationId());
+                continue;
+            }
+            for (ReservedLine line : reserved) {
+                long[] stock = remaining.get(line.inventoryItemId());
+                if (commit) {
+                    stock[0] -= line.quantity();
+                }
+                stock[1] -= line.quantity();
+            }
+        }
+        return shortfalls;
+    }
+
+    private static List<ReservedQuantity> sumByItem(List<ReservedLine> lines, Set<Long> excluded) {
+        Map<Long, ReservedQuantity> sums = new TreeMap<>();
+        for (ReservedLine line : lines) {
+            if (excluded.contains(line.reservationId())) {
+                continue;
+            }
+            sums.merge(line.inventoryItemId(),
+                    new ReservedQuantity(line.inventoryItemId(), line.sku(), line.locationId(), line.quantity()),
+                    (current, more) -> new ReservedQuantity(current.inventoryItemId(), current.sku(),
+                            current.locationId(), current.quantity() + more.quantity()));
+        }
+        return List.copyOf(sums.values());
+    }
+
+    private List<Reservation> buildReservations(
+            List<ReservationCreateRequestDto> requests,
+            List<List<StockDemand>> allocations,
+            List<ReservationOutcome> outcomes
+    ) {
+        return reservationMetrics.time(Operation.CREATE, Stage.DECIDE, () -> {
+            Instant now = Instant.now();
+            List<Reservation> reservations = new ArrayList<>(requests.size());
+            int offset = 0;
+            for (int i = 0; i < requests.size(); i++) {
+                List<StockDemand> demands = allocations.get(i);
+                reservations.add(buildReservation(
+                        requests.get(i).orderId(),
+                        demands,
+                        outcomes.subList(offset, offset + demands.size()),
+                        now
+                ));
+                offset += demands.size();
+            }
+            return reservations;
+        });
+    }
+
+    private Reservation flushed(Reservation reservation) {
+        Reservation saved = reservationRepository.save(reservation);
+        reservationRepository.flush();
+        return saved;
+    }
+
+    private void recordReserved(List<StockDemand> demands, List<ReservationOutcome> outcomes) {
+        List<InventoryKey> touched = new ArrayList<>();
+        List<StockMovement> movements = new ArrayList<>();
+        for (int i = 0; i < demands.size(); i++) {
+            if (outcomes.get(i).reserved()) {
+                StockDemand demand = demands.get(i);
+                touched.add(demand.key());
+                movements.add(new StockMovement(outcomes.get(i).inventoryItemId(), demand.sku(), demand.locationId(),
+                        0, demand.quantity(), StockLedger.REASON_RESERVE));
+            }
+        }
+        stockLedger.recordAll(movements);
+        inventoryItemCache.invalidateAll(touched);
+    }
+
+    private static StockMovement movement(InventoryItem item, long onHandDelta, long reservedDelta, String reason) {
+        return new StockMovement(item.getId(), item.getSku(), item.getLocationId(), onHandDelta, reservedDelta, reason);
+    }
+
+    private boolean orderExists(String orderId) {
+        return seenOrderRegistry.hasSeen(orderId) || !reservationRepository.findLineViewsByOrderId(orderId).isEmpty();
+    }
+
+    /**
+     * Current results of the orders among {@code orderIds} that already have a reservation, read
+     * in a single query. Always read from the table, because the status may have moved on since
+     * the order was reserved.
+     */
+    private Map<String, ReservationResponseDto> findExistingResults(Collection<String> orderIds) {
+        Map<String, ReservationResponseDto> existing = new HashMap<>();
+        reservationRepository.findLineViewsByOrderIdIn(new ArrayList<>(orderIds)).stream()
+                .collect(Collectors.groupingBy(ReservationLineView::orderId, LinkedHashMap::new, Collectors.toList()))
+                .forEach((orderId, rows) -> existing.put(orderId, ReservationMapper.toResponseFromViews(rows)));
+        return existing;
+    }
+
+    /**
+     * Turns each request into its stock demands. A line can become several demands when the
+     * allocator splits it across locations, so the result is grouped per request. Every line is
+     * allocated against what the lines before it in the batch already took.
+     */
+    private List<List<StockDemand>> allocate(List<ReservationCreateRequestDto> requests) {
+        List<List<StockDemand>> allocations = new ArrayList<>(requests.size());
+        Map<InventoryKey, Long> allocated = new HashMap<>();
+        for (ReservationCreateRequestDto request : requests) {
+            List<StockDemand> demands = new ArrayList<>(request.items().size());
+            for (ReservationItemRequestDto itemRequest : request.items()) {
+                demands.addAll(stockAllocator.allocate(
+                        itemRequest.sku(),
+                        itemRequest.locationId(),
+                        itemRequest.quantity(),
+                        allocated
+                ));
+            }
+            allocations.add(demands);
+        }
+        return allocations;
+    }
+
+    private static List<StockDemand> flatten(List<List<StockDemand>> allocations) {
+        return allocations.stream()
+                .flatMap(List::stream)
+                .toList();
+    }
+
+    private Reservation buildReservation(
+            String orderId,
+            List<StockDemand> demands,
+            List<ReservationOutcome> outcomes,
+            Instant now
+    ) {
         Reservation reservation = Reservation.builder()
-                .orderId(request.orderId())
+                .orderId(orderId)
                 .status(ReservationStatus.PENDING)
                 .reason(null)
                 .createdAt(now)
                 .updatedAt(now)
-                .expiresAt(null)
+                .expiresAt(now.plus(expiryProperties.holdTtl()))
                 .build();
 
-        for (ReservationItemRequestDto itemRequest : request.items()) {
-            String locationId = resolveLocationId(itemRequest.locationId());
-
-            InventoryItem inventoryItem = inventoryItemRepository
-                    .findBySkuAndLocationId(itemRequest.sku(), locationId)
-                    .orElseThrow(() -> new IllegalArgumentException(
-                            "Inventory item not found for sku " + itemRequest.sku() + " at location " + locationId
-                    ));
+        for (int i = 0; i < demands.size(); i++) {
+            StockDemand demand = demands.get(i);
+            ReservationOutcome outcome = outcomes.get(i);
 
-            long requestedQuantity = itemRequest.quantity();
-            long available = inventoryItem.getOnHandQuantity() - inventoryItem.getReservedQuantity();
+            InventoryItem inventoryItem = inventoryItemRepository.getReferenceById(outcome.inventoryItemId());
 
             ReservationLine line;
 
-            if (available >= requestedQuantity) {
-                long newReserved = inventoryItem.getReservedQuantity() + requestedQuantity;
-                inventoryItem.setReservedQuantity(newReserved);
-                inventoryItem.setUpdatedAt(now);
-
+            if (outcome.reserved()) {
                 line = ReservationLine.builder()
                         .reservation(reservation)
                         .inventoryItem(inventoryItem)
-                        .sku(inventoryItem.getSku())
-                        .locationId(inventoryItem.getLocationId())
-                        .requestedQuantity(requestedQuantity)
-                        .reservedQuantity(requestedQuantity)
+                        .sku(demand.sku())
+                        .locationId(demand.locationId())
+                        .requestedQuantity(demand.quantity())
+                        .reservedQuantity(demand.quantity())
                         .status(ReservationLineStatus.RESERVED)
                         .failureReason(null)
                         .build();
@@ -90,9 +722,9 @@ public class ReservationServiceImpl implements ReservationService {
                 line = ReservationLine.builder()
                         .reservation(reservation)
                         .inventoryItem(inventoryItem)
-                        .sku(inventoryItem.getSku())
-                        .locationId(inventoryItem.getLocationId())
-                        .requestedQuantity(requestedQuantity)
+                        .sku(demand.sku())
+                        .locationId(demand.locationId())
+                        .requestedQuantity(demand.quantity())
                         .reservedQuantity(0L)
                         .status(ReservationLineStatus.FAILED)
                         .failureReason("Insufficient available stock")
@@ -116,171 +748,74 @@ public class ReservationServiceImpl implements ReservationService {
             reservation.setReason("All items failed reservation");
         }
 
-        Reservation savedReservation = reservationRepository.save(reservation);
-
-        return mapToReservationResponse(savedReservation);
+        return reservation;
     }
 
-    @Override
-    @Transactional
-    public ReservationResponseDto commitReservation(Long reservationId, String reason) {
-        Instant now = Instant.now();
-
-        Reservation reservation = reservationRepository.findById(reservationId)
+    private HeldReservation lockHeldReservation(Long reservationId, String action) {
+        Reservation reservation = reservationRepository.findByIdForUpdate(reservationId)
                 .orElseThrow(() -> new IllegalArgumentException("Reservation not found with id " + reservationId));
 
         if (!(reservation.getStatus() == ReservationStatus.CONFIRMED
                 || reservation.getStatus() == ReservationStatus.PARTIAL)) {
-            throw new IllegalStateException("Cannot commit reservation in status " + reservation.getStatus());
+            throw new IllegalStateException("Cannot " + action + " reservation in status " + reservation.getStatus());
         }
 
-        for (ReservationLine line : reservation.getLines()) {
-            long reservedQuantity = line.getReservedQuantity();
-            if (reservedQuantity <= 0) {
-                continue;
-            }
-
-            InventoryItem inventoryItem = line.getInventoryItem();
-
-            long newOnHand = inventoryItem.getOnHandQuantity() - reservedQuantity;
-            if (newOnHand < 0) {
-                throw new IllegalStateException("Commit would reduce on hand below zero for sku "
-                        + inventoryItem.getSku());
-            }
-
-            long newReserved = inventoryItem.getReservedQuantity() - reservedQuantity;
-            if (newReserved < 0) {
-                throw new IllegalStateException("Commit would reduce reserved below zero for sku "
-                        + inventoryItem.getSku());
-            }
-
-            inventoryItem.setOnHandQuantity(newOnHand);
-            inventoryItem.setReservedQuantity(newReserved);
-            inventoryItem.setUpdatedAt(now);
-            inventoryItemRepository.save(inventoryItem);
-        }
-
-        reservation.setStatus(ReservationStatus.COMMITTED);
-        reservation.setReason(reason);
-        reservation.setUpdatedAt(now);
-
-        Reservation saved = reservationRepository.save(reservation);
-        return mapToReservationResponse(saved);
+        // loads every line in one query instead of initializing the collection on first access
+        reservationRepository.findWithLinesById(reservationId);
+        return new HeldReservation(reservation, loadReservedItems(reservation));
     }
 
-    @Override
-    @Transactional
-    public ReservationResponseDto releaseReservation(Long reservationId, String reason) {
-        Instant now = Instant.now();
-
-        Reservation reservation = reservationRepository.findById(reservationId)
-                .orElseThrow(() -> new IllegalArgumentException("Reservation not found with id " + reservationId));
-
-        if (!(reservation.getStatus() == ReservationStatus.CONFIRMED
-                || reservation.getStatus() == ReservationStatus.PARTIAL)) {
-            throw new IllegalStateException("Cannot release reservation in status " + reservation.getStatus());
-        }
-
+    /**
+     * Loads the inventory rows the reservation's lines will modify. Rows are read without a lock
+     * and checked by version at flush, so a concurrent writer fails the attempt and the retry
+     * reads again; keys that keep conflicting, and every key of an escalated retry, are locked
+     * up front instead.
+     */
+    private Map<InventoryKey, InventoryItem> loadReservedItems(Reservation reservation) {
+        List<InventoryKey> lock = new ArrayList<>();
+        List<InventoryKey> read = new ArrayList<>();
         for (ReservationLine line : reservation.getLines()) {
-            long reservedQuantity = line.getReservedQuantity();
-            if (reservedQuantity <= 0) {
+            if (line.getReservedQuantity() <= 0) {
                 continue;
             }
-
-            InventoryItem inventoryItem = line.getInventoryItem();
-
-            long newReserved = inventoryItem.getReservedQuantity() - reservedQuantity;
-            if (newReserved < 0) {
-                throw new IllegalStateException("Release would reduce reserved below zero for sku "
-                        + inventoryItem.getSku());
-            }
-
-            inventoryItem.setReservedQuantity(newReserved);
-            inventoryItem.setUpdatedAt(now);
-            inventoryItemRepository.save(inventoryItem);
+            InventoryKey key = new InventoryKey(line.getSku(), line.getLocationId());
+            (contentionTracker.shouldLock(key) ? lock : read).add(key);
         }
 
-        reservation.setStatus(ReservationStatus.RELEASED);
-        reservation.setReason(reason);
-        reservation.setUpdatedAt(now);
-
-        Reservation saved = reservationRepository.save(reservation);
-        return mapToReservationResponse(saved);
-    }
-
-    @Override
-    public ReservationResponseDto getReservationByOrderId(String orderId) {
-        Reservation reservation = reservationRepository.findByOrderId(orderId)
-                .orElseThrow(() -> new IllegalArgumentException("Reservation not found for orderId " + orderId));
-        return mapToReservationResponse(reservation);
+        Map<InventoryKey, InventoryItem> items = new HashMap<>();
+        if (!lock.isEmpty()) {
+            inventoryItemRepository.findAllByKeys(lock, true).forEach(item -> items.put(InventoryKey.of(item), item));
+        }
+        if (!read.isEmpty()) {
+            inventoryItemRepository.findAllByKeys(read, false).forEach(item -> items.put(InventoryKey.of(item), item));
+        }
+        return items;
     }
 
-    private String resolveLocationId(String locationId) {
-        if (locationId == null || locationId.isBlank()) {
-            return DEFAULT_LOCATION_ID;
+    private InventoryItem heldItem(Map<InventoryKey, InventoryItem> items, ReservationLine line) {
+        InventoryItem inventoryItem = items.get(new InventoryKey(line.getSku(), line.getLocationId()));
+        if (inventoryItem == null) {
+            throw new IllegalStateException("Inventory item no longer exists for sku " + line.getSku()
+                    + " at location " + line.getLocationId());
         }
-        return locationId;
-    }
-
-    private ReservationResponseDto mapToReservationResponse(Reservation reservation) {
-        List<ReservationItemResponseDto> itemDtos = reservation.getLines().stream()
-                .map(line -> new ReservationItemResponseDto(
-                        line.getSku(),
-                        line.getLocationId(),
-                        line.getRequestedQuantity(),
-                        line.getReservedQuantity(),
-                        line.getStatus().name(),
-                        line.getFailureReason()
-                ))
-                .toList();
-
-        return new ReservationResponseDto(
-                reservation.getId(),
-                reservation.getOrderId(),
-                reservation.getStatus().name(),
-                reservation.getReason(),
-                itemDtos
-        );
-    }
-
-    private ReservationCreateRequestDto mapFromOrderEvent(OrderCreatedEvent event) {
-        List<ReservationItemRequestDto> items = event.items().stream()
-                .map(item -> new ReservationItemRequestDto(
-                        item.sku(),
-                        item.locationId(),
-                        item.quantity()
-                ))
-                .toList();
-
-        return new ReservationCreateRequestDto(event.orderId(), items);
+        return inventoryItem;
     }
 
     private void publishInventoryReservationResult(
             OrderCreatedEvent orderEvent,
             ReservationResponseDto reservationResponse
     ) {
-        KafkaTemplate<String, InventoryReservationResultEvent> template =
-                inventoryResultKafkaTemplateProvider.getIfAvailable();
-        if (template == null) {
-            return;
-        }
+        InventoryReservationResultEvent resultEvent =
+                ReservationMapper.toResultEvent(orderEvent.orderId(), reservationResponse);
+
+        reservationMetrics.time(Operation.CREATE, Stage.PUBLISH, () ->
+                outboxPublisher.publish(KafkaTopics.INVENTORY_RESERVATION_RESULTS, orderEvent.orderId(), resultEvent));
+    }
+
+    private record BatchResult(List<ReservationResponseDto> reserved, List<ReservationCreateRequestDto> rejected) {
+    }
 
-        InventoryReservationResultEvent resultEvent = new InventoryReservationResultEvent(
-                orderEvent.orderId(),
-                reservationResponse.status(),
-                reservationResponse.items().stream()
-                        .map(item -> new InventoryReservationResultEvent.LineResult(
-                                item.sku(),
-                                item.locationId(),
-                                item.requestedQuantity(),
-                                item.reservedQuantity(),
-                                item.status(),
-                                item.failureReason()
-                        ))
-                        .toList()
-        );
-
-        template.send("inventory.reservation.results", orderEvent.orderId(), resultEvent);
+    private record HeldReservation(Reservation reservation, Map<InventoryKey, InventoryItem> items) {
     }
 }
 
@@ -0,0 +1,148 @@
+package com.kevdev.inventory.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.kevdev.inventory.dto.StockAdjustmentRequestDto;
+import com.kevdev.inventory.dto.StockAdjustmentResultDto;
+import com.kevdev.inventory.repository.AdjustmentStatus;
+import com.kevdev.inventory.repository.StockDelta;
+import com.kevdev.inventory.service.InventoryService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Applies an NDJSON stream of stock adjustments chunk by chunk and writes one NDJSON result
+ * line per input line. Only one chunk is held in memory; each chunk is its own transaction,
+ * so results already written stay applied if a later chunk fails.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StockAdjustmentStreamProcessor {
+
+    static final int CHUNK_SIZE = 1000;
+
+    private static final byte[] NEWLINE = {'\n'};
+
+    private final InventoryService inventoryService;
+    private final ObjectMapper objectMapper;
+
+    public void process(InputStream input, OutputStream output) throws IOException {
+        ObjectReader reader = objectMapper.readerFor(StockAdjustmentRequestDto.class);
+        ObjectWriter writer = objectMapper.writerFor(StockAdjustmentResultDto.class);
+        BufferedReader lines = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+
+        List<Row> chunk = new ArrayList<>(CHUNK_SIZE);
+        long lineNumber = 0;
+        String line;
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+
+            chunk.add(parse(reader, lineNumber, line));
+            if (chunk.size() == CHUNK_SIZE) {
+                applyChunk(chunk, writer, output);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            applyChunk(chunk, writer, output);
+        }
+    }
+
+    private void applyChunk(List<Row> chunk, ObjectWriter writer, OutputStream output) throws IOException {
+        List<StockDelta> deltas = chunk.stream()
+                .filter(row -> row.error() == null)
+                .map(row -> new StockDelta(
+                        row.request().getSku(),
+                        row.request().getLocationId(),
+                        row.request().getQuantityDelta()
+                ))
+                .toList();
+
+        List<AdjustmentStatus> statuses = List.of();
+        boolean failed = false;
+        if (!deltas.isEmpty()) {
+            try {
+                statuses = inventoryService.adjustStockBatch(deltas);
+            } catch (RuntimeException ex) {
+                log.error("Bulk stock adjustment chunk of {} rows starting at line {} failed",
+                        deltas.size(), chunk.get(0).line(), ex);
+                failed = true;
+            }
+        }
+
+        int next = 0;
+        for (Row row : chunk) {
+            StockAdjustmentResultDto result;
+            if (row.error() != null) {
+                result = result(row, "INVALID", row.error());
+            } else if (failed) {
+                result = result(row, "FAILED", "Chunk could not be applied");
+            } else {
+                AdjustmentStatus status = statuses.get(next++);
+                result = result(row, status.name(), messageFor(status));
+            }
+            output.write(writer.writeValueAsBytes(result));
+            output.write(NEWLINE);
+        }
+        output.flush();
+    }
+
+    private static Row parse(ObjectReader reader, long lineNumber, String line) {
+        StockAdjustmentRequestDto request;
+        try {
+            request = reader.readValue(line);
+        } catch (JsonProcessingException ex) {
+            return new Row(lineNumber, null, "Malformed JSON");
+        }
+
+        if (request.getSku() == null || request.getSku().isBlank()) {
+            return new Row(lineNumber, request, "sku must not be blank");
+        }
+        if (request.getLocationId() == null || request.getLocationId().isBlank()) {
+            return new Row(lineNumber, request, "locationId must not be blank");
+        }
+        if (request.getQuantityDelta() == null) {
+            return new Row(lineNumber, request, "quantityDelta must not be null");
+        }
+        return new Row(lineNumber, request, null);
+    }
+
+    private static StockAdjustmentResultDto result(Row row, String status, String message) {
+        StockAdjustmentRequestDto request = row.request();
+        return new StockAdjustmentResultDto(
+                row.line(),
+                request != null ? request.getSku() : null,
+                request != null ? request.getLocationId() : null,
+                request != null ? request.getQuantityDelta() : null,
+                status,
+                message
+        );
+    }
+
+    private static String messageFor(AdjustmentStatus status) {
+        return switch (status) {
+            case APPLIED -> null;
+            case NOT_FOUND -> "Inventory item not found";
+            case INSUFFICIENT_STOCK -> "Resulting quantity on hand would be negative";
+        };
+    }
+
+    private record Row(long line, StockAdjustmentRequestDto request, String error) {
+    }
+}
@@ -0,0 +1,68 @@
+package com.kevdev.inventory.service.ledger;
+
+import com.kevdev.inventory.config.StockLedgerProperties;
+import com.kevdev.inventory.repository.StockAdjustmentRepository;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.jmx.annotation.JmxEndpoint;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * JMX-only {@code ledger} endpoint: {@code verify} compares stored quantities with snapshot plus
+ * ledger, {@code rebuild(true)} overwrites the rows that differ. It is never exposed over HTTP,
+ * because a repair rewrites live quantities.
+ * <p>
+ * A repair is refused until no movement has been recorded for {@code repairQuietPeriod}, so it
+ * cannot overwrite a row that a running writer is changing at the same time.
+ */
+@Component
+@JmxEndpoint(id = "ledger")
+public class LedgerEndpoint {
+
+    private final StockLedgerRebuilder rebuilder;
+    private final StockAdjustmentRepository stockAdjustmentRepository;
+    private final Duration repairQuietPeriod;
+    private final Clock clock;
+
+    public LedgerEndpoint(StockLedgerRebuilder rebuilder,
+                          StockAdjustmentRepository stockAdjustmentRepository,
+                          StockLedgerProperties properties) {
+        this(rebuilder, stockAdjustmentRepository, properties, Clock.systemUTC());
+    }
+
+    LedgerEndpoint(StockLedgerRebuilder rebuilder,
+                   StockAdjustmentRepository stockAdjustmentRepository,
+                   StockLedgerProperties properties,
+                   Clock clock) {
+        this.rebuilder = rebuilder;
+        this.stockAdjustmentRepository = stockAdjustmentRepository;
+        this.repairQuietPeriod = properties.repairQuietPeriod();
+        this.clock = clock;
+    }
+
+    @ReadOperation
+    public LedgerRebuildReport verify() {
+        return rebuilder.rebuild(false);
+    }
+
+    @WriteOperation
+    public LedgerRebuildReport rebuild(boolean repair) {
+        if (repair) {
+            requireQuiesced();
+        }
+        return rebuilder.rebuild(repair);
+    }
+
+    private void requireQuiesced() {
+        Optional<Instant> latest = stockAdjustmentRepository.findLatestMovementAt();
+        if (latest.isPresent() && latest.get().isAfter(clock.instant().minus(repairQuietPeriod))) {
+            throw new IllegalStateException("Refusing to repair the ledger: a movement was recorded at "
+                    + latest.get() + ", stop writers for " + repairQuietPeriod + " first");
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.kevdev.inventory.service.ledger;
+
+public record LedgerRebuildReport(
+        int partitions,
+        long drifted,
+        boolean repaired,
+        long elapsedMillis
+) {
+}
@@ -0,0 +1,97 @@
+package com.kevdev.inventory.service.ledger;
+
+import com.kevdev.inventory.repository.StockAdjustmentRepository;
+import com.kevdev.inventory.repository.StockMovement;
+import com.kevdev.inventory.service.availability.AvailabilityIndex;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only record of every stock movement, kept in {@code stock_adjustment}.
+ * <p>
+ * Movements recorded inside a transaction are buffered and written as one batched insert just
+ * before it commits, so a transaction touching many items costs one extra statement and a
+ * rolled back change leaves no entry. Pending entity changes are flushed first, which makes rows
+ * created in the same transaction visible to the ledger's item lookup. Once the transaction has
+ * committed, the movements are applied to the {@link AvailabilityIndex}.
+ */
+@Component
+public class StockLedger {
+
+    public static final String REASON_ADJUSTMENT = "adjustment";
+    public static final String REASON_BULK_ADJUSTMENT = "bulk_adjustment";
+    public static final String REASON_RESERVE = "reserve";
+    public static final String REASON_RELEASE = "release";
+    public static final String REASON_COMMIT = "commit";
+    public static final String REASON_EXPIRE = "expire";
+
+    private final StockAdjustmentRepository stockAdjustmentRepository;
+    private final AvailabilityIndex availabilityIndex;
+
+    public StockLedger(StockAdjustmentRepository stockAdjustmentRepository, AvailabilityIndex availabilityIndex) {
+        this.stockAdjustmentRepository = stockAdjustmentRepository;
+        this.availabilityIndex = availabilityIndex;
+    }
+
+    public void record(StockMovement movement) {
+        recordAll(List.of(movement));
+    }
+
+    public void recordAll(List<StockMovement> movements) {
+        if (movements.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            stockAdjustmentRepository.appendAll(movements);
+            availabilityIndex.invalidate(movements);
+            return;
+        }
+
+        PendingMovements pending = (PendingMovements) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingMovements();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.movements.addAll(movements);
+        availabilityIndex.written(movements);
+    }
+
+    /**
+     * Snapshots one page of items whose ledger moved since their last snapshot; see
+     * {@link StockAdjustmentRepository#snapshotItems}.
+     */
+    @Transactional
+    public List<Long> snapshot(long afterItemId, int limit) {
+        return stockAdjustmentRepository.snapshotItems(afterItemId, limit);
+    }
+
+    private final class PendingMovements implements TransactionSynchronization {
+
+        private final List<StockMovement> movements = new ArrayList<>();
+        private long commitMark;
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            // through the repository so a failed version check surfaces as a translated exception
+            stockAdjustmentRepository.flush();
+            stockAdjustmentRepository.appendAll(movements);
+            commitMark = availabilityIndex.markCommit();
+        }
+
+        @Override
+        public void afterCommit() {
+            availabilityIndex.apply(movements, commitMark);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(StockLedger.this);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.kevdev.inventory.service.ledger;
+
+import com.kevdev.inventory.config.StockLedgerProperties;
+import com.kevdev.inventory.repository.ItemIdRange;
+import com.kevdev.inventory.repository.StockAdjustmentRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Recomputes on-hand and reserved quantities from the latest snapshot of each item plus the
+ * ledger entries after it. The snapshotted id range is split into partitions that run as one
+ * set-based statement each, in parallel on their own connections, so the cost is one pass over
+ * the snapshots and the short ledger tails rather than a replay of the whole ledger. The
+ * partitions share one executor with at most half the connection pool's threads, leaving the
+ * rest of the pool to request traffic; extra partitions queue behind them.
+ * <p>
+ * Items without a snapshot are skipped; the snapshot sweeper gives every item a baseline.
+ * Verifying is safe at any time but may count rows that are mid-update. Repairing overwrites
+ * stored quantities and is meant to run while writers are stopped. Only one rebuild runs at a
+ * time; a second caller is refused rather than starting another pass over every partition.
+ */
+@Slf4j
+@Component
+public class StockLedgerRebuilder {
+
+    private static final int DEFAULT_POOL_SIZE = 10;
+
+    private final StockAdjustmentRepository stockAdjustmentRepository;
+    private final StockLedgerProperties properties;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final ExecutorService executor;
+
+    public StockLedgerRebuilder(StockAdjustmentRepository stockAdjustmentRepository,
+                                StockLedgerProperties properties,
+                                DataSource dataSource) {
+        this.stockAdjustmentRepository = stockAdjustmentRepository;
+        this.properties = properties;
+        int threads = Math.max(1, Math.min(properties.rebuildPartitions(), maximumPoolSize(dataSource) / 2));
+        this.executor = Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "ledger-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public LedgerRebuildReport rebuild(boolean repair) {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("A stock ledger rebuild is already running");
+        }
+        try {
+            return rebuildPartitions(repair);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private LedgerRebuildReport rebuildPartitions(boolean repair) {
+        long started = System.nanoTime();
+        Optional<ItemIdRange> range = stockAdjustmentRepository.findItemIdRange();
+        if (range.isEmpty()) {
+            return new LedgerRebuildReport(0, 0, repair, 0);
+        }
+
+        List<ItemIdRange> partitions = partition(range.get(), properties.rebuildPartitions());
+        List<CompletableFuture<Long>> pending = new ArrayList<>(partitions.size());
+        for (ItemIdRange partition : partitions) {
+            pending.add(CompletableFuture.supplyAsync(
+                    () -> stockAdjustmentRepository.rebuildRange(partition.minId(), partition.maxId(), repair),
+                    executor
+            ));
+        }
+        long drifted = pending.stream().mapToLong(CompletableFuture::join).sum();
+
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+        log.info("Rebuilt stock ledger over items {}..{} in {} partitions in {} ms: {} items {}",
+                range.get().minId(), range.get().maxId(), partitions.size(), elapsedMillis,
+                drifted, repair ? "repaired" : "drifted");
+        return new LedgerRebuildReport(partitions.size(), drifted, repair, elapsedMillis);
+    }
+
+    static List<ItemIdRange> partition(ItemIdRange range, int partitions) {
+        long span = range.maxId() - range.minId() + 1;
+        int count = (int) Math.max(1, Math.min(partitions, span));
+        long size = (span + count - 1) / count;
+
+        List<ItemIdRange> ranges = new ArrayList<>(count);
+        for (long from = range.minId(); from <= range.maxId(); from += size) {
+            ranges.add(new ItemIdRange(from, Math.min(from + size - 1, range.maxId())));
+        }
+        return ranges;
+    }
+
+    private static int maximumPoolSize(DataSource dataSource) {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                return dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+            }
+        } catch (SQLException ex) {
+            log.debug("Could not read the connection pool size, assuming the Hikari default", ex);
+        }
+        return DEFAULT_POOL_SIZE;
+    }
+}
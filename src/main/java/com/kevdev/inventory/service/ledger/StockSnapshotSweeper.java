@@ -0,0 +1,46 @@
+package com.kevdev.inventory.service.ledger;
+
+import com.kevdev.inventory.config.StockLedgerProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Periodically snapshots items whose ledger moved since their last snapshot, keeping the tail
+ * a rebuild has to fold short. Each page is its own transaction and pages are walked by id.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "inventory.ledger.snapshot-enabled", havingValue = "true", matchIfMissing = true)
+public class StockSnapshotSweeper {
+
+    private final StockLedger stockLedger;
+    private final StockLedgerProperties properties;
+
+    public StockSnapshotSweeper(StockLedger stockLedger, StockLedgerProperties properties) {
+        this.stockLedger = stockLedger;
+        this.properties = properties;
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.ledger.snapshot-interval:PT5M}")
+    public void sweep() {
+        long afterId = 0L;
+        int total = 0;
+
+        List<Long> page;
+        do {
+            page = stockLedger.snapshot(afterId, properties.snapshotBatchSize());
+            if (!page.isEmpty()) {
+                total += page.size();
+                afterId = page.get(page.size() - 1);
+            }
+        } while (page.size() == properties.snapshotBatchSize());
+
+        if (total > 0) {
+            log.info("Snapshotted {} inventory items", total);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.kevdev.inventory.service.metrics;
+
+import com.kevdev.inventory.dto.ReservationItemResponseDto;
+import com.kevdev.inventory.dto.ReservationResponseDto;
+import com.kevdev.inventory.entity.ReservationLineStatus;
+import com.kevdev.inventory.entity.ReservationStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Reservation stage timers and outcome counters. Every tag value comes from a fixed enum, so
+ * the number of series is bounded; nothing is tagged per SKU, location or order.
+ * <p>
+ * Outcome counters are incremented once the surrounding transaction has committed, so a
+ * rolled-back or retried attempt is not counted.
+ */
+@Component
+public class ReservationMetrics {
+
+    public static final String STAGE_TIMER = "inventory.reservation.stage";
+    public static final String LINES_COUNTER = "inventory.reservation.lines";
+    public static final String STATUS_COUNTER = "inventory.reservation.status";
+
+    public enum Operation { CREATE, COMMIT, RELEASE }
+
+    /**
+     * LOOKUP reads and locks rows, WRITE runs the conditional stock UPDATEs, DECIDE is in-memory
+     * work, FLUSH writes the reservation itself and PUBLISH records the result event.
+     */
+    public enum Stage { LOOKUP, WRITE, DECIDE, FLUSH, PUBLISH }
+
+    private final Map<Operation, Map<Stage, Timer>> stageTimers = new EnumMap<>(Operation.class);
+    private final Map<ReservationLineStatus, Counter> lineCounters = new EnumMap<>(ReservationLineStatus.class);
+    private final Map<ReservationStatus, Counter> statusCounters = new EnumMap<>(ReservationStatus.class);
+
+    public ReservationMetrics(MeterRegistry meterRegistry) {
+        for (Operation operation : Operation.values()) {
+            Map<Stage, Timer> timers = new EnumMap<>(Stage.class);
+            for (Stage stage : Stage.values()) {
+                timers.put(stage, Timer.builder(STAGE_TIMER)
+                        .description("Time spent in one stage of a reservation operation")
+                        .tag("operation", tagValue(operation))
+                        .tag("stage", tagValue(stage))
+                        .register(meterRegistry));
+            }
+            stageTimers.put(operation, timers);
+        }
+        for (ReservationLineStatus status : ReservationLineStatus.values()) {
+            lineCounters.put(status, Counter.builder(LINES_COUNTER)
+                    .description("Reservation lines by outcome")
+                    .tag("status", status.name())
+                    .register(meterRegistry));
+        }
+        for (ReservationStatus status : ReservationStatus.values()) {
+            statusCounters.put(status, Counter.builder(STATUS_COUNTER)
+                    .description("Reservations by resulting status")
+                    .tag("status", status.name())
+                    .register(meterRegistry));
+        }
+    }
+
+    public <T> T time(Operation operation, Stage stage, Supplier<T> work) {
+        return stageTimers.get(operation).get(stage).record(work);
+    }
+
+    public void time(Operation operation, Stage stage, Runnable work) {
+        stageTimers.get(operation).get(stage).record(work);
+    }
+
+    /**
+     * Counts a reservation result: its status and the outcome of each of its lines.
+     */
+    public void recordOutcome(ReservationResponseDto response) {
+        afterCommit(() -> {
+            increment(statusCounters, ReservationStatus.class, response.status());
+            for (ReservationItemResponseDto item : response.items()) {
+                increment(lineCounters, ReservationLineStatus.class, item.status());
+            }
+        });
+    }
+
+    public void recordStatus(ReservationStatus status, int reservations) {
+        afterCommit(() -> statusCounters.get(status).increment(reservations));
+    }
+
+    private static void afterCommit(Runnable count) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    count.run();
+                }
+            });
+        } else {
+            count.run();
+        }
+    }
+
+    private static <E extends Enum<E>> void increment(Map<E, Counter> counters, Class<E> type, String value) {
+        try {
+            counters.get(Enum.valueOf(type, value)).increment();
+        } catch (IllegalArgumentException | NullPointerException ex) {
+            // unknown values are dropped rather than turned into new tag values
+        }
+    }
+
+    private static String tagValue(Enum<?> value) {
+        return value.name().toLowerCase();
+    }
+}
@@ -0,0 +1,148 @@
+package com.kevdev.inventory.service.retry;
+
+import com.kevdev.inventory.config.ConflictRetryProperties;
+import com.kevdev.inventory.service.shard.ReservationShards;
+import com.kevdev.inventory.service.shard.RetryOffShardException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs {@link RetryOnConflict} methods again after an optimistic lock failure.
+ * <p>
+ * Ordered ahead of the transaction interceptor so each attempt gets its own transaction and a
+ * clean persistence context. Attempts are separated by full-jitter exponential backoff, and each
+ * retry spends a token from a shared {@link RetryBudget}. Attempts after {@code escalateAfter}
+ * run escalated: writers lock the rows they touch, which ends the conflict instead of racing again.
+ * <p>
+ * On a reservation shard the backoff is not slept: that would stall every key on the shard. The
+ * aspect throws {@link RetryOffShardException} instead, the shard is released, and the work is
+ * resubmitted after the pause, resuming at the next attempt.
+ */
+@Slf4j
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ConflictRetryAspect {
+
+    public static final String CONFLICTS_COUNTER = "inventory.retry.conflicts";
+    public static final String RETRIES_COUNTER = "inventory.retry.retries";
+    public static final String EXHAUSTED_COUNTER = "inventory.retry.exhausted";
+    public static final String BUDGET_GAUGE = "inventory.retry.budget";
+
+    private final ConflictRetryProperties properties;
+    private final ContentionTracker contentionTracker;
+    private final MeterRegistry meterRegistry;
+    private final RetryBudget budget;
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    public ConflictRetryAspect(ConflictRetryProperties properties,
+                               ContentionTracker contentionTracker,
+                               MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.contentionTracker = contentionTracker;
+        this.meterRegistry = meterRegistry;
+        this.budget = new RetryBudget(properties.budgetRatio(), properties.budgetCapacity());
+        Gauge.builder(BUDGET_GAUGE, budget, RetryBudget::available)
+                .description("Conflict retries currently available in the shared retry budget")
+                .register(meterRegistry);
+    }
+
+    @Around("@annotation(retryOnConflict)")
+    public Object retry(ProceedingJoinPoint joinPoint, RetryOnConflict retryOnConflict) throws Throwable {
+        if (!properties.enabled()
+                || contentionTracker.inAttempt()
+                || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+
+        String operation = retryOnConflict.value();
+        int firstAttempt;
+        if (ReservationShards.takeRetryState() instanceof Resume resume) {
+            firstAttempt = resume.attempt();
+        } else {
+            budget.deposit();
+            firstAttempt = 1;
+        }
+        for (int attempt = firstAttempt; ; attempt++) {
+            ContentionTracker.Attempt current = contentionTracker.begin(attempt > properties.escalateAfter());
+            try {
+                return joinPoint.proceed();
+            } catch (OptimisticLockingFailureException ex) {
+                contentionTracker.recordConflicts(current.touched());
+                counter(CONFLICTS_COUNTER, operation, null).increment();
+
+                if (attempt >= properties.maxAttempts()) {
+                    counter(EXHAUSTED_COUNTER, operation, "attempts").increment();
+                    throw ex;
+                }
+                if (!budget.tryWithdraw()) {
+                    counter(EXHAUSTED_COUNTER, operation, "budget").increment();
+                    throw ex;
+                }
+
+                counter(RETRIES_COUNTER, operation, null).increment();
+                log.debug("Optimistic lock conflict in {} on {}, retrying (attempt {})",
+                        operation, current.touched(), attempt + 1);
+                long pause = backOffNanos(attempt);
+                if (pause > 0 && ReservationShards.onShard()) {
+                    throw new RetryOffShardException(Duration.ofNanos(pause), new Resume(attempt + 1), ex);
+                }
+                sleep(pause, ex);
+            } finally {
+                contentionTracker.end();
+            }
+        }
+    }
+
+    private long backOffNanos(int attempt) {
+        long ceiling = Math.min(
+                properties.maxBackoff().toNanos(),
+                properties.initialBackoff().toNanos() << Math.min(attempt - 1, 30)
+        );
+        return ceiling > 0 ? ThreadLocalRandom.current().nextLong(ceiling + 1) : 0;
+    }
+
+    private static void sleep(long pause, OptimisticLockingFailureException cause) {
+        if (pause == 0) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(pause);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw cause;
+        }
+    }
+
+    private Counter counter(String name, String operation, String reason) {
+        return counters.computeIfAbsent(name + '|' + operation + '|' + reason, ignored -> {
+            Counter.Builder builder = Counter.builder(name).tag("operation", operation);
+            if (reason != null) {
+                builder.tag("reason", reason);
+            }
+            return builder.register(meterRegistry);
+        });
+    }
+
+    /**
+     * Carried across a retry off the shard: the attempt to resume at.
+     */
+    private record Resume(int attempt) {
+    }
+}
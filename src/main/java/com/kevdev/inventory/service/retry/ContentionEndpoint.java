@@ -0,0 +1,29 @@
+package com.kevdev.inventory.service.retry;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * {@code /actuator/contention}: the inventory keys that currently conflict often enough to be
+ * locked pessimistically.
+ */
+@Component
+@Endpoint(id = "contention")
+public class ContentionEndpoint {
+
+    private static final int LIMIT = 50;
+
+    private final ContentionTracker contentionTracker;
+
+    public ContentionEndpoint(ContentionTracker contentionTracker) {
+        this.contentionTracker = contentionTracker;
+    }
+
+    @ReadOperation
+    public List<HotKey> hotKeys() {
+        return contentionTracker.hotKeys(LIMIT);
+    }
+}
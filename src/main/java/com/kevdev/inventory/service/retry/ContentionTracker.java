@@ -0,0 +1,136 @@
+package com.kevdev.inventory.service.retry;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.kevdev.inventory.config.ConflictRetryProperties;
+import com.kevdev.inventory.entity.InventoryKey;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Counts optimistic lock conflicts per (sku, location) and decides when a writer should lock
+ * the row up front instead.
+ * <p>
+ * Writers call {@link #shouldLock} for each key they are about to modify. The retry aspect
+ * remembers those keys for the running attempt, so when the attempt fails its version check
+ * the conflict is charged to exactly the keys it touched. A key is hot once it collects
+ * {@code hotKeyThreshold} conflicts without a quiet gap of {@code hotKeyWindow}; hot keys and
+ * escalated retries take a pessimistic lock. Only the number of hot keys is a meter; the keys
+ * themselves are listed by the {@code contention} actuator endpoint to keep series bounded.
+ */
+@Component
+public class ContentionTracker {
+
+    public static final String HOT_KEYS_GAUGE = "inventory.contention.hot.keys";
+    public static final String ESCALATIONS_COUNTER = "inventory.contention.escalations";
+
+    private static final ThreadLocal<Attempt> CURRENT = new ThreadLocal<>();
+
+    private final int hotKeyThreshold;
+    private final Cache<InventoryKey, Integer> conflicts;
+    private final Counter hotKeyEscalations;
+    private final Counter retryEscalations;
+
+    public ContentionTracker(ConflictRetryProperties properties, MeterRegistry meterRegistry) {
+        this.hotKeyThreshold = properties.hotKeyThreshold();
+        this.conflicts = Caffeine.newBuilder()
+                .maximumSize(properties.maxTrackedKeys())
+                .expireAfterWrite(properties.hotKeyWindow())
+                .build();
+        this.hotKeyEscalations = escalations(meterRegistry, "hot_key");
+        this.retryEscalations = escalations(meterRegistry, "retry");
+        Gauge.builder(HOT_KEYS_GAUGE, this, ContentionTracker::hotKeyCount)
+                .description("Inventory keys currently locked pessimistically because they keep conflicting")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registers a key the caller is about to modify and tells it whether to lock the row
+     * pessimistically rather than rely on the version check.
+     */
+    public boolean shouldLock(InventoryKey key) {
+        Attempt attempt = CURRENT.get();
+        if (attempt != null) {
+            attempt.touched.add(key);
+            if (attempt.escalated) {
+                retryEscalations.increment();
+                return true;
+            }
+        }
+        if (isHot(key)) {
+            hotKeyEscalations.increment();
+            return true;
+        }
+        return false;
+    }
+
+    public boolean isHot(InventoryKey key) {
+        Integer count = conflicts.getIfPresent(key);
+        return count != null && count >= hotKeyThreshold;
+    }
+
+    /**
+     * Keys with the most recent conflicts, most contended first.
+     */
+    public List<HotKey> hotKeys(int limit) {
+        return conflicts.asMap().entrySet().stream()
+                .filter(entry -> entry.getValue() >= hotKeyThreshold)
+                .sorted(Comparator.comparing(entry -> -entry.getValue()))
+                .limit(limit)
+                .map(entry -> new HotKey(entry.getKey().sku(), entry.getKey().locationId(), entry.getValue()))
+                .toList();
+    }
+
+    void recordConflicts(Set<InventoryKey> keys) {
+        // merge is a write, so each new conflict restarts the key's window
+        keys.forEach(key -> conflicts.asMap().merge(key, 1, Integer::sum));
+    }
+
+    Attempt begin(boolean escalated) {
+        Attempt attempt = new Attempt(escalated);
+        CURRENT.set(attempt);
+        return attempt;
+    }
+
+    void end() {
+        CURRENT.remove();
+    }
+
+    boolean inAttempt() {
+        return CURRENT.get() != null;
+    }
+
+    private long hotKeyCount() {
+        return conflicts.asMap().values().stream()
+                .filter(count -> count >= hotKeyThreshold)
+                .count();
+    }
+
+    private static Counter escalations(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder(ESCALATIONS_COUNTER)
+                .description("Writes that locked a row pessimistically instead of relying on its version")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    static final class Attempt {
+
+        private final boolean escalated;
+        private final Set<InventoryKey> touched = new LinkedHashSet<>();
+
+        private Attempt(boolean escalated) {
+            this.escalated = escalated;
+        }
+
+        Set<InventoryKey> touched() {
+            return touched;
+        }
+    }
+}
@@ -0,0 +1,4 @@
+package com.kevdev.inventory.service.retry;
+
+public record HotKey(String sku, String locationId, int conflicts) {
+}
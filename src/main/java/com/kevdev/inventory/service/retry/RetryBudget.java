@@ -0,0 +1,42 @@
+package com.kevdev.inventory.service.retry;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket shared by all retried calls: every call deposits {@code ratio} of a token and
+ * every retry spends a whole one. Once the bucket is empty, conflicts fail fast until regular
+ * traffic refills it. Tokens are kept in thousandths so the bucket is a single lock-free counter.
+ */
+class RetryBudget {
+
+    private static final long SCALE = 1_000;
+
+    private final long deposit;
+    private final long capacity;
+    private final AtomicLong balance;
+
+    RetryBudget(double ratio, int capacity) {
+        this.deposit = Math.round(ratio * SCALE);
+        this.capacity = capacity * SCALE;
+        this.balance = new AtomicLong(this.capacity);
+    }
+
+    void deposit() {
+        balance.accumulateAndGet(deposit, (current, amount) -> Math.min(current + amount, capacity));
+    }
+
+    boolean tryWithdraw() {
+        long current;
+        do {
+            current = balance.get();
+            if (current < SCALE) {
+                return false;
+            }
+        } while (!balance.compareAndSet(current, current - SCALE));
+        return true;
+    }
+
+    double available() {
+        return (double) balance.get() / SCALE;
+    }
+}
@@ -0,0 +1,23 @@
+package com.kevdev.inventory.service.retry;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Retries the annotated transactional method when it fails an optimistic version check.
+ * The retry wraps the transaction, so every attempt starts from fresh reads. Calls made from
+ * inside an existing transaction are not retried; the outermost caller owns the retry.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RetryOnConflict {
+
+    /**
+     * Operation name used to tag the retry meters; keep it to a fixed set of values.
+     */
+    String value();
+}
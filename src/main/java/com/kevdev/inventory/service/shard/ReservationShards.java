@@ -0,0 +1,246 @@
+package com.kevdev.inventory.service.shard;
+
+import com.kevdev.inventory.config.ShardProperties;
+import com.kevdev.inventory.entity.InventoryKey;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Routes inventory mutations to single-threaded shards by (sku, location), so writes to the
+ * same row are applied one after another in process instead of queueing on its row lock.
+ * <p>
+ * Work touching several shards takes each of them in ascending shard order by parking a
+ * barrier task on it, then runs on the calling thread while it owns all of them. The shards
+ * only remove contention; the conditional updates in the database still guarantee that
+ * stock never goes negative, so work that runs outside its shard is slower, not incorrect.
+ * <p>
+ * Work must never wait on a shard thread. Work that needs a pause before running again throws
+ * {@link RetryOffShardException}; the shard is released, and the work is resubmitted once the
+ * delay has passed.
+ */
+@Component
+public class ReservationShards {
+
+    private static final ThreadLocal<BitSet> HELD_SHARDS = new ThreadLocal<>();
+    private static final ThreadLocal<Object> RETRY_STATE = new ThreadLocal<>();
+
+    private final boolean enabled;
+    private final ExecutorService[] executors;
+
+    public ReservationShards(ShardProperties properties) {
+        this.enabled = properties.enabled();
+        int count = properties.count() > 0 ? properties.count() : Runtime.getRuntime().availableProcessors();
+        this.executors = new ExecutorService[enabled ? count : 1];
+        if (enabled) {
+            for (int i = 0; i < count; i++) {
+                executors[i] = newShardExecutor(i);
+            }
+        }
+    }
+
+    public int shardCount() {
+        return executors.length;
+    }
+
+    public int shardOf(InventoryKey key) {
+        int hash = key.hashCode();
+        return Math.floorMod(hash ^ (hash >>> 16), executors.length);
+    }
+
+    public BitSet shardsFor(Collection<InventoryKey> keys) {
+        BitSet shards = new BitSet(executors.length);
+        for (InventoryKey key : keys) {
+            shards.set(shardOf(key));
+        }
+        return shards;
+    }
+
+    public <T> T execute(Collection<InventoryKey> keys, Supplier<T> work) {
+        return execute(shardsFor(keys), work);
+    }
+
+    public void run(Collection<InventoryKey> keys, Runnable work) {
+        execute(shardsFor(keys), () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    public <T> T execute(BitSet shards, Supplier<T> work) {
+        if (!enabled || shards.isEmpty() || holdsShard()) {
+            // Re-entrant calls run in place; acquiring more shards here could deadlock.
+            return work.get();
+        }
+        if (shards.cardinality() == 1) {
+            return await(submit(shards.nextSetBit(0), work));
+        }
+
+        Object state = null;
+        while (true) {
+            try {
+                return executeHolding(shards, withRetryState(state, work));
+            } catch (RetryOffShardException retry) {
+                // the shards were released on the way out; wait on the calling thread
+                state = retry.getState();
+                pause(retry);
+            }
+        }
+    }
+
+    public <T> CompletableFuture<T> submit(int shard, Supplier<T> work) {
+        if (!enabled) {
+            return CompletableFuture.supplyAsync(work, Runnable::run);
+        }
+        return submit(shard, work, null, executors[shard]);
+    }
+
+    /**
+     * True when work on the current thread may write the row: shards are disabled, the thread
+     * holds no shard, or the key's shard is one of those it holds.
+     */
+    public boolean mayWrite(InventoryKey key) {
+        return !enabled || !holdsShard() || HELD_SHARDS.get().get(shardOf(key));
+    }
+
+    /**
+     * True on a shard thread, and on a caller while it holds several shards.
+     */
+    public static boolean onShard() {
+        return holdsShard();
+    }
+
+    /**
+     * State passed by the {@link RetryOffShardException} that caused the current run, if any.
+     * Cleared once taken, so only the first caller in the run sees it.
+     */
+    public static Object takeRetryState() {
+        Object state = RETRY_STATE.get();
+        RETRY_STATE.remove();
+        return state;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (ExecutorService executor : executors) {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    private <T> T executeHolding(BitSet shards, Supplier<T> work) {
+        List<CountDownLatch> releases = new ArrayList<>(shards.cardinality());
+        try {
+            for (int shard = shards.nextSetBit(0); shard >= 0; shard = shards.nextSetBit(shard + 1)) {
+                releases.add(acquire(shard));
+            }
+            HELD_SHARDS.set(shards);
+            return work.get();
+        } finally {
+            HELD_SHARDS.remove();
+            releases.forEach(CountDownLatch::countDown);
+        }
+    }
+
+    private <T> CompletableFuture<T> submit(int shard, Supplier<T> work, Object state, Executor executor) {
+        return CompletableFuture.supplyAsync(withRetryState(state, work), executor)
+                .exceptionallyCompose(failure -> {
+                    Throwable cause = failure instanceof CompletionException ? failure.getCause() : failure;
+                    if (cause instanceof RetryOffShardException retry) {
+                        Executor later = CompletableFuture.delayedExecutor(
+                                retry.getDelay().toNanos(), TimeUnit.NANOSECONDS, executors[shard]);
+                        return submit(shard, work, retry.getState(), later);
+                    }
+                    return CompletableFuture.failedFuture(cause);
+                });
+    }
+
+    private CountDownLatch acquire(int shard) {
+        CountDownLatch held = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        executors[shard].execute(() -> {
+            held.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        try {
+            held.await();
+        } catch (InterruptedException ex) {
+            release.countDown();
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while acquiring reservation shard " + shard, ex);
+        }
+        return release;
+    }
+
+    private static boolean holdsShard() {
+        BitSet held = HELD_SHARDS.get();
+        return held != null && !held.isEmpty();
+    }
+
+    private static <T> Supplier<T> withRetryState(Object state, Supplier<T> work) {
+        if (state == null) {
+            return work;
+        }
+        return () -> {
+            RETRY_STATE.set(state);
+            try {
+                return work.get();
+            } finally {
+                RETRY_STATE.remove();
+            }
+        };
+    }
+
+    private static void pause(RetryOffShardException retry) {
+        try {
+            TimeUnit.NANOSECONDS.sleep(retry.getDelay().toNanos());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw retry.getCause();
+        }
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (ex.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw ex;
+        }
+    }
+
+    private static ExecutorService newShardExecutor(int shard) {
+        BitSet owned = new BitSet();
+        owned.set(shard);
+        return Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(() -> {
+                HELD_SHARDS.set(owned);
+                task.run();
+            }, "reservation-shard-" + shard);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
@@ -0,0 +1,33 @@
+package com.kevdev.inventory.service.shard;
+
+import java.time.Duration;
+
+/**
+ * Thrown by work running on a shard that wants to run again after a pause. The shards release
+ * the shard, wait {@code delay} off it and resubmit the same work; {@code state} is handed to
+ * the next run through {@link ReservationShards#takeRetryState()}.
+ */
+public class RetryOffShardException extends RuntimeException {
+
+    private final Duration delay;
+    private final transient Object state;
+
+    public RetryOffShardException(Duration delay, Object state, RuntimeException cause) {
+        super("Retrying off shard after " + delay, cause);
+        this.delay = delay;
+        this.state = state;
+    }
+
+    public Duration getDelay() {
+        return delay;
+    }
+
+    public Object getState() {
+        return state;
+    }
+
+    @Override
+    public synchronized RuntimeException getCause() {
+        return (RuntimeException) super.getCause();
+    }
+}
@@ -0,0 +1,21 @@
+package com.kevdev.inventory.service.submission;
+
+import java.time.Duration;
+
+/**
+ * Thrown when the asynchronous submission queue has no room left. Mapped to 503 with a
+ * Retry-After header.
+ */
+public class ReservationQueueFullException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public ReservationQueueFullException(Duration retryAfter) {
+        super("Reservation queue is full, retry later");
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
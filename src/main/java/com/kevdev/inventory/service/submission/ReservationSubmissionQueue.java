@@ -0,0 +1,204 @@
+package com.kevdev.inventory.service.submission;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.kevdev.inventory.config.AsyncReservationProperties;
+import com.kevdev.inventory.dto.ReservationCreateRequestDto;
+import com.kevdev.inventory.dto.ReservationSubmissionDto;
+import com.kevdev.inventory.messaging.event.OrderCreatedEvent;
+import com.kevdev.inventory.messaging.event.OrderItemEvent;
+import com.kevdev.inventory.service.impl.ReservationBatchProcessor;
+import com.kevdev.inventory.service.impl.ReservationBatchProcessor.BatchResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded in-process queue behind {@code POST /api/inventory/reservations/submissions}. The
+ * request thread only enqueues; a single drainer hands batches to the same
+ * {@link ReservationBatchProcessor} the Kafka batch listener uses, so HTTP and event-driven
+ * orders share the shard threads and the batched reservation path. Results are kept for
+ * polling and are also published to the reservation results topic like any other order.
+ * <p>
+ * Queued submissions live only in memory and are lost on restart; polling an unknown order id
+ * falls back to the stored reservation.
+ */
+@Slf4j
+@Component
+public class ReservationSubmissionQueue {
+
+    private static final Duration IDLE_POLL = Duration.ofMillis(100);
+
+    private final AsyncReservationProperties properties;
+    private final ReservationBatchProcessor batchProcessor;
+    private final BlockingQueue<OrderCreatedEvent> queue;
+    private final Cache<String, ReservationSubmissionDto> submissions;
+    private final Counter rejected;
+
+    private volatile boolean running;
+    private Thread drainer;
+
+    public ReservationSubmissionQueue(AsyncReservationProperties properties,
+                                      ReservationBatchProcessor batchProcessor,
+                                      MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.batchProcessor = batchProcessor;
+        this.queue = new ArrayBlockingQueue<>(properties.queueCapacity());
+        this.submissions = Caffeine.newBuilder()
+                .maximumSize(properties.maxResults())
+                .expireAfterWrite(properties.resultTtl())
+                .build();
+        this.rejected = Counter.builder("inventory.reservations.async.rejected")
+                .description("Submissions refused because the queue was full")
+                .register(meterRegistry);
+        Gauge.builder("inventory.reservations.async.queue.size", queue, BlockingQueue::size)
+                .description("Submissions waiting to be reserved")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        if (!properties.enabled()) {
+            return;
+        }
+        running = true;
+        drainer = new Thread(this::drainLoop, "reservation-submissions");
+        drainer.setDaemon(true);
+        drainer.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        if (drainer != null) {
+            drainer.interrupt();
+            drainer.join(TimeUnit.SECONDS.toMillis(5));
+        }
+        if (!queue.isEmpty()) {
+            log.warn("Dropping {} queued reservation submissions on shutdown", queue.size());
+        }
+    }
+
+    /**
+     * Enqueues a reservation and returns its submission state. Submitting an order id that is
+     * already known returns its current submission, pending or finished, instead of queueing it
+     * again, so a retried submission never reruns the order or republishes its result.
+     */
+    public ReservationSubmissionDto submit(ReservationCreateRequestDto request) {
+        if (!properties.enabled()) {
+            throw new IllegalStateException("Asynchronous reservations are disabled");
+        }
+
+        String orderId = request.orderId();
+        ReservationSubmissionDto queued = ReservationSubmissionDto.queued(orderId);
+        // claim the order id atomically, so concurrent duplicates see one submission
+        ReservationSubmissionDto current = submissions.asMap().putIfAbsent(orderId, queued);
+        if (current != null) {
+            return current;
+        }
+
+        if (!queue.offer(toEvent(request))) {
+            submissions.asMap().remove(orderId, queued);
+            rejected.increment();
+            throw new ReservationQueueFullException(properties.retryAfter());
+        }
+        return queued;
+    }
+
+    public Optional<ReservationSubmissionDto> find(String orderId) {
+        return Optional.ofNullable(submissions.getIfPresent(orderId));
+    }
+
+    private void drainLoop() {
+        while (running) {
+            try {
+                drainOnce(IDLE_POLL);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException ex) {
+                log.error("Reservation submission drainer failed, continuing", ex);
+            }
+        }
+    }
+
+    /**
+     * Waits up to {@code idleWait} for a submission, then lingers briefly so the batch can fill
+     * and reserves it. Returns the number of submissions processed.
+     */
+    int drainOnce(Duration idleWait) throws InterruptedException {
+        OrderCreatedEvent first = queue.poll(idleWait.toNanos(), TimeUnit.NANOSECONDS);
+        if (first == null) {
+            return 0;
+        }
+
+        List<OrderCreatedEvent> batch = new ArrayList<>(properties.batchSize());
+        batch.add(first);
+        long deadline = System.nanoTime() + properties.linger().toNanos();
+        while (batch.size() < properties.batchSize()) {
+            queue.drainTo(batch, properties.batchSize() - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= properties.batchSize() || remaining <= 0) {
+                break;
+            }
+            OrderCreatedEvent next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+
+        batch.forEach(event -> submissions.put(event.orderId(), ReservationSubmissionDto.processing(event.orderId())));
+
+        BatchResult result;
+        try {
+            result = batchProcessor.reserve(batch);
+        } catch (RuntimeException ex) {
+            log.error("Reserving {} submitted orders failed", batch.size(), ex);
+            result = new BatchResult(List.of(), Map.of());
+        }
+
+        result.reservations().forEach(response ->
+                submissions.put(response.orderId(), ReservationSubmissionDto.completed(response)));
+        for (OrderCreatedEvent event : batch) {
+            String message = failureMessage(result.failures().get(event.orderId()));
+            submissions.asMap().computeIfPresent(event.orderId(), (orderId, submission) -> isPending(submission)
+                    ? ReservationSubmissionDto.failed(orderId, message)
+                    : submission);
+        }
+        return batch.size();
+    }
+
+    private static String failureMessage(RuntimeException failure) {
+        return failure != null && failure.getMessage() != null
+                ? failure.getMessage()
+                : "Reservation could not be processed";
+    }
+
+    private static boolean isPending(ReservationSubmissionDto submission) {
+        return ReservationSubmissionDto.QUEUED.equals(submission.status())
+                || ReservationSubmissionDto.PROCESSING.equals(submission.status());
+    }
+
+    private static OrderCreatedEvent toEvent(ReservationCreateRequestDto request) {
+        return new OrderCreatedEvent(
+                request.orderId(),
+                request.items().stream()
+                        .map(item -> new OrderItemEvent(null, item.sku(), item.locationId(), item.quantity()))
+                        .toList()
+        );
+    }
+}
@@ -0,0 +1,11 @@
+package com.kevdev.inventory.service.submission;
+
+/**
+ * Thrown when a polled order id is neither queued nor reserved. Mapped to 404.
+ */
+public class SubmissionNotFoundException extends RuntimeException {
+
+    public SubmissionNotFoundException(String orderId) {
+        super("No submission or reservation found for orderId " + orderId);
+    }
+}
@@ -0,0 +1,2 @@
+CREATE UNIQUE INDEX IF NOT EXISTS uk_inventory_sku_location
+    ON inventory_items (sku, location_id);
@@ -0,0 +1,40 @@
+-- Redelivered orders could create more than one reservation before order ids were unique.
+-- Keep the earliest reservation of each order id. Later duplicates that still hold stock give
+-- it back and are marked RELEASED; every duplicate gets its order id suffixed with its own id,
+-- so it stays in place for audit without colliding with the unique index. Duplicates that were
+-- already committed shipped stock twice and are only renamed; find them afterwards with
+--   SELECT * FROM reservation WHERE order_id LIKE '%#duplicate-%' AND status = 'COMMITTED';
+CREATE TEMPORARY TABLE duplicate_reservation ON COMMIT DROP AS
+SELECT id
+  FROM (SELECT id,
+               ROW_NUMBER() OVER (PARTITION BY order_id ORDER BY created_at, id) AS position
+          FROM reservation
+         WHERE order_id IS NOT NULL) ranked
+ WHERE position > 1;
+
+UPDATE inventory_items i
+   SET quantity_reserved = i.quantity_reserved - held.quantity,
+       updated_at = NOW()
+  FROM (SELECT l.inventory_item_id, SUM(l.reserved_quantity) AS quantity
+          FROM reservation_line l
+          JOIN reservation r ON r.id = l.reservation_id
+          JOIN duplicate_reservation d ON d.id = r.id
+         WHERE r.status IN ('CONFIRMED', 'PARTIAL')
+           AND l.reserved_quantity > 0
+         GROUP BY l.inventory_item_id) held
+ WHERE i.id = held.inventory_item_id;
+
+UPDATE reservation r
+   SET status = 'RELEASED',
+       reason = 'Released as duplicate of an earlier reservation for the same order',
+       updated_at = NOW()
+  FROM duplicate_reservation d
+ WHERE r.id = d.id
+   AND r.status IN ('CONFIRMED', 'PARTIAL');
+
+UPDATE reservation r
+   SET order_id = LEFT(r.order_id, 70) || '#duplicate-' || r.id
+  FROM duplicate_reservation d
+ WHERE r.id = d.id;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_reservation_order_id ON reservation (order_id);
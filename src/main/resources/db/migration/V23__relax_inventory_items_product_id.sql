@@ -0,0 +1,3 @@
+-- Rows created by sku and location (bulk stock upserts) have no product id.
+ALTER TABLE inventory_items
+    ALTER COLUMN product_id DROP NOT NULL;
@@ -0,0 +1,18 @@
+-- Hibernate allocates ids from these sequences in blocks of 50 (pooled optimizer), which lets
+-- inserts be JDBC batched. Each nextval hands out the upper bound of a block, so move every
+-- sequence past the current max id by at least one block before switching the increment.
+
+ALTER SEQUENCE inventory_items_id_seq INCREMENT BY 50;
+SELECT setval('inventory_items_id_seq', COALESCE((SELECT MAX(id) FROM inventory_items), 0) + 50);
+
+ALTER SEQUENCE reservation_id_seq INCREMENT BY 50;
+SELECT setval('reservation_id_seq', COALESCE((SELECT MAX(id) FROM reservation), 0) + 50);
+
+ALTER SEQUENCE reservation_line_id_seq INCREMENT BY 50;
+SELECT setval('reservation_line_id_seq', COALESCE((SELECT MAX(id) FROM reservation_line), 0) + 50);
+
+ALTER SEQUENCE stock_adjustment_id_seq INCREMENT BY 50;
+SELECT setval('stock_adjustment_id_seq', COALESCE((SELECT MAX(id) FROM stock_adjustment), 0) + 50);
+
+ALTER SEQUENCE outbox_event_id_seq INCREMENT BY 50;
+SELECT setval('outbox_event_id_seq', COALESCE((SELECT MAX(id) FROM outbox_event), 0) + 50);
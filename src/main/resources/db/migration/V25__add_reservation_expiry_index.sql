@@ -0,0 +1,4 @@
+-- Supports the expiry sweeper: only live holds are indexed, so the index stays small.
+CREATE INDEX IF NOT EXISTS idx_reservation_hold_expiry
+    ON reservation (expires_at, id)
+    WHERE status IN ('CONFIRMED', 'PARTIAL');
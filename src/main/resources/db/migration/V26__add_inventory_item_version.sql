@@ -0,0 +1,3 @@
+-- Optimistic lock column for InventoryItem; bulk SQL updates bump it as well.
+ALTER TABLE inventory_items
+    ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
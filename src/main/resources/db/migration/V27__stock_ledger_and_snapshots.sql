@@ -0,0 +1,23 @@
+-- stock_adjustment becomes the append-only stock ledger: one row per movement of on-hand and
+-- reserved quantity. Columns the entity never writes lose their NOT NULL.
+ALTER TABLE stock_adjustment
+    ALTER COLUMN adjustment_quantity DROP NOT NULL;
+
+ALTER TABLE stock_adjustment
+    ALTER COLUMN created_by DROP NOT NULL;
+
+ALTER TABLE stock_adjustment
+    ADD COLUMN IF NOT EXISTS reserved_delta BIGINT NOT NULL DEFAULT 0;
+
+-- Ledger tail lookups are always "entries of this item after this id".
+CREATE INDEX IF NOT EXISTS idx_stock_adjustment_item_id
+    ON stock_adjustment (inventory_item_id, id);
+
+-- Latest folded state per item: quantities as of ledger entry last_adjustment_id.
+CREATE TABLE IF NOT EXISTS inventory_snapshot (
+    inventory_item_id BIGINT PRIMARY KEY REFERENCES inventory_items(id),
+    quantity_on_hand BIGINT NOT NULL,
+    quantity_reserved BIGINT NOT NULL,
+    last_adjustment_id BIGINT NOT NULL,
+    taken_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
@@ -0,0 +1,4 @@
+-- Lease taken by a relay while it sends a row; lets the claim transaction commit before the
+-- broker round trip instead of holding row locks for the whole send.
+ALTER TABLE outbox_event
+    ADD COLUMN IF NOT EXISTS claimed_until TIMESTAMP WITH TIME ZONE;
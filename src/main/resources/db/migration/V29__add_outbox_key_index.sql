@@ -0,0 +1,4 @@
+-- The relay only claims the oldest pending event of each key, so every candidate row probes
+-- for an earlier row with the same key.
+CREATE INDEX IF NOT EXISTS idx_outbox_event_key_id
+    ON outbox_event (message_key, id);
@@ -0,0 +1,69 @@
+package com.kevdev.inventory.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kevdev.inventory.service.admission.AdaptiveLimiter;
+import com.kevdev.inventory.service.admission.AdaptiveLimiter.Priority;
+import com.kevdev.inventory.service.admission.GradientLimit;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AdmissionControlFilterTest {
+
+    private final AdaptiveLimiter limiter =
+            new AdaptiveLimiter(new GradientLimit(2, 2, 2, 2.0, 0.2, 100), 0.5, new SimpleMeterRegistry());
+    private final AdmissionControlFilter filter =
+            new AdmissionControlFilter(limiter, new ObjectMapper().findAndRegisterModules(), Duration.ofSeconds(2));
+
+    @Test
+    void doFilter_whenWritesAreFull_shedsWithRetryAfter_butStillAdmitsReads() throws Exception {
+        limiter.tryAcquire(Priority.WRITE).orElseThrow();
+
+        MockHttpServletResponse shed = new MockHttpServletResponse();
+        MockFilterChain writeChain = new MockFilterChain();
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/inventory/reservations"), shed, writeChain);
+
+        assertThat(shed.getStatus()).isEqualTo(503);
+        assertThat(shed.getHeader("Retry-After")).isEqualTo("2");
+        assertThat(shed.getContentAsString()).contains("\"status\":503");
+        assertThat(writeChain.getRequest()).isNull();
+
+        MockHttpServletResponse admitted = new MockHttpServletResponse();
+        MockFilterChain readChain = new MockFilterChain();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/inventory/reservations/by-order/ORDER_1"),
+                admitted, readChain);
+
+        assertThat(admitted.getStatus()).isEqualTo(200);
+        assertThat(readChain.getRequest()).isNotNull();
+    }
+
+    @Test
+    void doFilter_admitsStreamingRequests_withoutFeedingTheirLatencyToTheLimit() throws Exception {
+        GradientLimit limit = mock(GradientLimit.class);
+        when(limit.getLimit()).thenReturn(10);
+        AdmissionControlFilter streamingFilter = new AdmissionControlFilter(
+                new AdaptiveLimiter(limit, 0.5, new SimpleMeterRegistry()),
+                new ObjectMapper().findAndRegisterModules(),
+                Duration.ofSeconds(2));
+
+        MockHttpServletRequest bulk = new MockHttpServletRequest("POST", "/api/inventory/items/adjust/bulk");
+        bulk.setContentType("application/x-ndjson");
+        MockFilterChain chain = new MockFilterChain();
+        streamingFilter.doFilter(bulk, new MockHttpServletResponse(), chain);
+
+        assertThat(chain.getRequest()).isNotNull();
+        verify(limit, never()).onSample(anyLong(), anyInt());
+    }
+}
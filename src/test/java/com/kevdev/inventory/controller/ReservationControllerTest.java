@@ -2,8 +2,16 @@ package com.kevdev.inventory.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.kevdev.inventory.dto.ReservationActionRequestDto;
+import com.kevdev.inventory.dto.ReservationBulkResultDto;
 import com.kevdev.inventory.dto.ReservationResponseDto;
+import com.kevdev.inventory.dto.ReservationSubmissionDto;
+import com.kevdev.inventory.entity.InventoryKey;
 import com.kevdev.inventory.service.ReservationService;
+import com.kevdev.inventory.service.impl.ReservationBatchProcessor;
+import com.kevdev.inventory.service.shard.ReservationShards;
+import com.kevdev.inventory.service.submission.ReservationQueueFullException;
+import com.kevdev.inventory.service.submission.ReservationSubmissionQueue;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -11,29 +19,59 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(ReservationController.class)
 class ReservationControllerTest {
 
+    private static final String SUBMISSION_JSON = """
+        {
+          "orderId": "ORDER123",
+          "items": [
+            { "sku": "SKU123", "locationId": "LOC1", "quantity": 5 }
+          ]
+        }
+        """;
+
     @Autowired
     private MockMvc mockMvc;
 
     @MockBean
     private ReservationService reservationService;
 
+    @MockBean
+    private ReservationShards reservationShards;
+
+    @MockBean
+    private ReservationSubmissionQueue submissionQueue;
+
+    @MockBean
+    private ReservationBatchProcessor batchProcessor;
+
     private final ObjectMapper objectMapper = new ObjectMapper();
 
+    @BeforeEach
+    void runShardWorkInline() {
+        given(reservationShards.execute(anyCollection(), any()))
+                .willAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+    }
+
     @Test
     void createReservation_returnsCreatedReservation() throws Exception {
         ReservationResponseDto response = new ReservationResponseDto(
@@ -73,6 +111,31 @@ class ReservationControllerTest {
         verify(reservationService).createReservation(any());
     }
 
+    @Test
+    void createReservation_unlocatedLine_holdsEveryCandidateLocation() throws Exception {
+        List<InventoryKey> candidates = List.of(
+                new InventoryKey("SKU123", "MAIN"),
+                new InventoryKey("SKU123", "EAST")
+        );
+        given(reservationService.findCandidateKeys("SKU123", null)).willReturn(candidates);
+        given(reservationService.createReservation(any()))
+                .willReturn(new ReservationResponseDto(1L, "ORDER123", "CONFIRMED", null, List.of()));
+
+        mockMvc.perform(post("/api/inventory/reservations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                            {
+                              "orderId": "ORDER123",
+                              "items": [
+                                { "sku": "SKU123", "quantity": 5 }
+                              ]
+                            }
+                            """))
+                .andExpect(status().isCreated());
+
+        verify(reservationShards).execute(eq(candidates), any());
+    }
+
     @Test
     void commitReservation_returnsUpdatedReservation() throws Exception {
         ReservationResponseDto response = new ReservationResponseDto(
@@ -150,5 +213,108 @@ class ReservationControllerTest {
 
         verify(reservationService).getReservationByOrderId("ORDER123");
     }
-}
 
+    @Test
+    void createReservations_splitsTheBatchPerShardThroughTheBatchProcessor() throws Exception {
+        given(batchProcessor.createReservations(any())).willReturn(List.of(
+                new ReservationBulkResultDto(1L, "ORDER1", "CONFIRMED", null),
+                ReservationBulkResultDto.rejected(null, "ORDER2", "Inventory item not found for one or more lines")
+        ));
+
+        mockMvc.perform(post("/api/inventory/reservations/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                            {
+                              "reservations": [
+                                { "orderId": "ORDER1", "items": [ { "sku": "SKU1", "quantity": 1 } ] },
+                                { "orderId": "ORDER2", "items": [ { "sku": "SKU2", "quantity": 1 } ] }
+                              ]
+                            }
+                            """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("CONFIRMED"))
+                .andExpect(jsonPath("$[1].status").value("REJECTED"));
+
+        verify(batchProcessor).createReservations(any());
+        verify(reservationShards, never()).execute(anyCollection(), any());
+    }
+
+    @Test
+    void commitReservations_returnsPerReservationResults() throws Exception {
+        given(reservationService.commitReservations(any())).willReturn(List.of(
+                new ReservationBulkResultDto(1L, null, "COMMITTED", "shipped"),
+                ReservationBulkResultDto.rejected(2L, null, "Reservation not found with id 2")
+        ));
+
+        String requestJson = """
+            {
+              "items": [
+                { "reservationId": 1, "reason": "shipped" },
+                { "reservationId": 2, "reason": "shipped" }
+              ]
+            }
+            """;
+
+        mockMvc.perform(post("/api/inventory/reservations/batch/commit")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(requestJson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("COMMITTED"))
+                .andExpect(jsonPath("$[1].status").value("REJECTED"));
+
+        verify(reservationService).findInventoryKeysByReservationIds(List.of(1L, 2L));
+    }
+
+    @Test
+    void commitReservations_whenItemsEmpty_returnsBadRequest() throws Exception {
+        mockMvc.perform(post("/api/inventory/reservations/batch/commit")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"items\": []}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void submitReservation_returnsAcceptedWithPollingLocation() throws Exception {
+        given(submissionQueue.submit(any())).willReturn(ReservationSubmissionDto.queued("ORDER123"));
+
+        mockMvc.perform(post("/api/inventory/reservations/submissions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(SUBMISSION_JSON))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/inventory/reservations/submissions/ORDER123"))
+                .andExpect(jsonPath("$.status").value("QUEUED"));
+    }
+
+    @Test
+    void submitReservation_whenQueueFull_returnsServiceUnavailableWithRetryAfter() throws Exception {
+        given(submissionQueue.submit(any())).willThrow(new ReservationQueueFullException(Duration.ofMillis(1500)));
+
+        mockMvc.perform(post("/api/inventory/reservations/submissions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(SUBMISSION_JSON))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "2"));
+    }
+
+    @Test
+    void getSubmission_whenNoLongerTracked_fallsBackToStoredReservation() throws Exception {
+        given(submissionQueue.find("ORDER123")).willReturn(Optional.empty());
+        given(reservationService.findReservationByOrderId("ORDER123"))
+                .willReturn(Optional.of(new ReservationResponseDto(1L, "ORDER123", "CONFIRMED", null, List.of())));
+
+        mockMvc.perform(get("/api/inventory/reservations/submissions/{orderId}", "ORDER123"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("COMPLETED"))
+                .andExpect(jsonPath("$.reservation.reservationId").value(1L));
+    }
+
+    @Test
+    void getSubmission_whenOrderIsUnknown_returnsNotFound() throws Exception {
+        given(submissionQueue.find("UNKNOWN")).willReturn(Optional.empty());
+        given(reservationService.findReservationByOrderId("UNKNOWN")).willReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/inventory/reservations/submissions/{orderId}", "UNKNOWN"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("No submission or reservation found for orderId UNKNOWN"));
+    }
+}
@@ -0,0 +1,119 @@
+package com.kevdev.inventory.integration;
+
+import com.kevdev.inventory.entity.InventoryItem;
+import com.kevdev.inventory.entity.InventoryKey;
+import com.kevdev.inventory.repository.InventoryItemRepository;
+import com.kevdev.inventory.repository.ReservationLineRepository;
+import com.kevdev.inventory.repository.ReservationOutcome;
+import com.kevdev.inventory.repository.ReservationRepository;
+import com.kevdev.inventory.repository.StockDemand;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InventoryItemRepositoryIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private InventoryItemRepository inventoryItemRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private ReservationLineRepository reservationLineRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        reservationLineRepository.deleteAll();
+        reservationRepository.deleteAll();
+        inventoryItemRepository.deleteAll();
+    }
+
+    @Test
+    void reserveAvailable_reservesOnlyLinesWithEnoughStock() {
+        InventoryItem plenty = inventoryItemRepository.saveAndFlush(new InventoryItem("SKU_A", "MAIN", 10, 0));
+        InventoryItem scarce = inventoryItemRepository.saveAndFlush(new InventoryItem("SKU_B", "MAIN", 3, 1));
+
+        List<ReservationOutcome> outcomes = inventoryItemRepository.reserveAvailable(List.of(
+                new StockDemand("SKU_B", "MAIN", 5L),
+                new StockDemand("SKU_A", "MAIN", 4L)
+        ));
+
+        assertThat(outcomes).containsExactly(
+                new ReservationOutcome(scarce.getId(), false),
+                new ReservationOutcome(plenty.getId(), true)
+        );
+        assertThat(reloadReserved(plenty)).isEqualTo(4);
+        assertThat(reloadReserved(scarce)).isEqualTo(1);
+    }
+
+    @Test
+    void reserveAvailable_whenItemRepeated_laterLinesSeeEarlierReservations() {
+        InventoryItem item = inventoryItemRepository.saveAndFlush(new InventoryItem("SKU_A", "MAIN", 10, 0));
+
+        List<ReservationOutcome> outcomes = inventoryItemRepository.reserveAvailable(List.of(
+                new StockDemand("SKU_A", "MAIN", 6L),
+                new StockDemand("SKU_A", "MAIN", 6L),
+                new StockDemand("SKU_A", "MAIN", 4L)
+        ));
+
+        assertThat(outcomes).extracting(ReservationOutcome::reserved).containsExactly(true, false, true);
+        assertThat(reloadReserved(item)).isEqualTo(10);
+    }
+
+    @Test
+    void reserveAvailable_whenAnyItemUnknown_reservesNothing() {
+        InventoryItem item = inventoryItemRepository.saveAndFlush(new InventoryItem("SKU_A", "MAIN", 10, 0));
+
+        List<ReservationOutcome> outcomes = inventoryItemRepository.reserveAvailable(List.of(
+                new StockDemand("SKU_A", "MAIN", 2L),
+                new StockDemand("SKU_MISSING", "MAIN", 1L)
+        ));
+
+        assertThat(outcomes).containsExactly(
+                new ReservationOutcome(item.getId(), false),
+                new ReservationOutcome(null, false)
+        );
+        assertThat(reloadReserved(item)).isZero();
+    }
+
+    @Test
+    void findAllByKeys_returnsMatchingRowsOrderedById_andSkipsUnknownKeys() {
+        InventoryItem first = inventoryItemRepository.saveAndFlush(new InventoryItem("SKU_A", "MAIN", 1, 0));
+        InventoryItem second = inventoryItemRepository.saveAndFlush(new InventoryItem("SKU_A", "EAST", 2, 0));
+        inventoryItemRepository.saveAndFlush(new InventoryItem("SKU_B", "MAIN", 3, 0));
+
+        List<InventoryItem> items = inventoryItemRepository.findAllByKeys(List.of(
+                new InventoryKey("SKU_A", "EAST"),
+                new InventoryKey("SKU_MISSING", "MAIN"),
+                new InventoryKey("SKU_A", "MAIN")
+        ), false);
+
+        assertThat(items).extracting(InventoryItem::getId).containsExactly(first.getId(), second.getId());
+    }
+
+    @Test
+    void findAllByKeys_forUpdate_locksRowsInsideTransaction() {
+        InventoryItem first = inventoryItemRepository.saveAndFlush(new InventoryItem("SKU_A", "MAIN", 1, 0));
+        InventoryItem second = inventoryItemRepository.saveAndFlush(new InventoryItem("SKU_B", "MAIN", 2, 0));
+
+        List<InventoryItem> items = transactionTemplate.execute(status -> inventoryItemRepository.findAllByKeys(List.of(
+                new InventoryKey("SKU_B", "MAIN"),
+                new InventoryKey("SKU_A", "MAIN")
+        ), true));
+
+        assertThat(items).extracting(InventoryItem::getId).containsExactly(first.getId(), second.getId());
+    }
+
+    private int reloadReserved(InventoryItem item) {
+        return inventoryItemRepository.findById(item.getId()).orElseThrow().getQuantityReserved();
+    }
+}
@@ -0,0 +1,66 @@
+package com.kevdev.inventory.integration;
+
+import com.kevdev.inventory.dto.ReservationActionItemDto;
+import com.kevdev.inventory.dto.ReservationBulkResultDto;
+import com.kevdev.inventory.dto.ReservationCreateRequestDto;
+import com.kevdev.inventory.dto.ReservationItemRequestDto;
+import com.kevdev.inventory.entity.InventoryItem;
+import com.kevdev.inventory.repository.InventoryItemRepository;
+import com.kevdev.inventory.service.ReservationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReservationBulkIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    InventoryItemRepository inventoryItemRepository;
+
+    @Autowired
+    ReservationService reservationService;
+
+    @Test
+    void bulkCommitAndRelease_aggregatePerItem_andReportEachReservation() {
+        inventoryItemRepository.save(new InventoryItem("BULK-SKU-1", "MAIN", 100, 0));
+        inventoryItemRepository.save(new InventoryItem("BULK-SKU-2", "MAIN", 100, 0));
+
+        List<ReservationBulkResultDto> created = reservationService.createReservations(List.of(
+                order("bulk-1", 3L),
+                order("bulk-2", 4L),
+                order("bulk-3", 5L)
+        ));
+        assertThat(created).extracting(ReservationBulkResultDto::status).containsOnly("CONFIRMED");
+
+        List<ReservationBulkResultDto> committed = reservationService.commitReservations(List.of(
+                new ReservationActionItemDto(created.get(0).reservationId(), "shipped"),
+                new ReservationActionItemDto(created.get(1).reservationId(), "shipped"),
+                new ReservationActionItemDto(-1L, "shipped")
+        ));
+        List<ReservationBulkResultDto> released = reservationService.releaseReservations(List.of(
+                new ReservationActionItemDto(created.get(0).reservationId(), "cancelled"),
+                new ReservationActionItemDto(created.get(2).reservationId(), "cancelled")
+        ));
+
+        assertThat(committed).extracting(ReservationBulkResultDto::status)
+                .containsExactly("COMMITTED", "COMMITTED", "REJECTED");
+        assertThat(released).extracting(ReservationBulkResultDto::status)
+                .containsExactly("REJECTED", "RELEASED");
+
+        InventoryItem first = inventoryItemRepository.findBySkuAndLocationId("BULK-SKU-1", "MAIN").orElseThrow();
+        assertThat(first.getOnHandQuantity()).isEqualTo(93);
+        assertThat(first.getReservedQuantity()).isZero();
+        InventoryItem second = inventoryItemRepository.findBySkuAndLocationId("BULK-SKU-2", "MAIN").orElseThrow();
+        assertThat(second.getOnHandQuantity()).isEqualTo(93);
+        assertThat(second.getReservedQuantity()).isZero();
+    }
+
+    private static ReservationCreateRequestDto order(String orderId, long quantity) {
+        return new ReservationCreateRequestDto(orderId, List.of(
+                new ReservationItemRequestDto("BULK-SKU-1", "MAIN", quantity),
+                new ReservationItemRequestDto("BULK-SKU-2", "MAIN", quantity)
+        ));
+    }
+}
@@ -0,0 +1,77 @@
+package com.kevdev.inventory.integration;
+
+import com.kevdev.inventory.dto.ReservationCreateRequestDto;
+import com.kevdev.inventory.dto.ReservationItemRequestDto;
+import com.kevdev.inventory.entity.InventoryItem;
+import com.kevdev.inventory.repository.InventoryItemRepository;
+import com.kevdev.inventory.service.ReservationService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Counts the statements Hibernate prepares for one reservation. With IDENTITY ids every line
+ * was its own insert, so a 20 line order prepared 19 more statements than a one line order;
+ * with pooled sequence ids the lines go out as a single JDBC batch, so the count no longer
+ * grows with the number of lines.
+ * <p>
+ * The generators are warmed first, because the pooled optimizer calls nextval twice on its
+ * first use. After that each generator calls it at most once more when its block of 50 runs
+ * out, which may happen during either measurement depending on what ran earlier in the context.
+ */
+class ReservationInsertBatchingIntegrationTest extends BaseIntegrationTest {
+
+    private static final int MANY_LINES = 20;
+    private static final int GENERATORS = 2;
+
+    @Autowired
+    InventoryItemRepository inventoryItemRepository;
+
+    @Autowired
+    ReservationService reservationService;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void createReservation_insertsLinesAsOneBatch() {
+        reservationService.createReservation(request("batch-warmup", 1));
+
+        long single = statementsFor("batch-1", 1);
+        long many = statementsFor("batch-n", MANY_LINES);
+
+        assertThat(statistics().getEntityInsertCount()).isEqualTo(MANY_LINES + 1);
+        // one lookup, one reservation insert and one batched line insert either way; only a
+        // pooled block running out can add a sequence call
+        assertThat(many).isBetween(single - GENERATORS, single + GENERATORS);
+    }
+
+    private long statementsFor(String orderId, int lineCount) {
+        ReservationCreateRequestDto request = request(orderId, lineCount);
+        Statistics statistics = statistics();
+        statistics.clear();
+        reservationService.createReservation(request);
+        return statistics.getPrepareStatementCount();
+    }
+
+    private ReservationCreateRequestDto request(String orderId, int lineCount) {
+        List<ReservationItemRequestDto> items = new ArrayList<>();
+        for (int i = 0; i < lineCount; i++) {
+            String sku = "BATCH-" + orderId + "-" + i;
+            inventoryItemRepository.save(new InventoryItem(sku, "MAIN", 100, 0));
+            items.add(new ReservationItemRequestDto(sku, "MAIN", 1L));
+        }
+        return new ReservationCreateRequestDto(orderId, items);
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
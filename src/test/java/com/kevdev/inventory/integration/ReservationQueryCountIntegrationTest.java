@@ -0,0 +1,91 @@
+package com.kevdev.inventory.integration;
+
+import com.kevdev.inventory.dto.ReservationCreateRequestDto;
+import com.kevdev.inventory.dto.ReservationItemRequestDto;
+import com.kevdev.inventory.dto.ReservationResponseDto;
+import com.kevdev.inventory.entity.InventoryItem;
+import com.kevdev.inventory.repository.InventoryItemRepository;
+import com.kevdev.inventory.service.ReservationService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Guards the reservation read and write paths against N+1 loading. Each path is run against a
+ * one line and a many line reservation; with the fetch plans in place both prepare the same
+ * number of statements, so a lazy collection or per line item load shows up as a difference.
+ */
+class ReservationQueryCountIntegrationTest extends BaseIntegrationTest {
+
+    private static final int MANY_LINES = 20;
+
+    @Autowired
+    InventoryItemRepository inventoryItemRepository;
+
+    @Autowired
+    ReservationService reservationService;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void getReservationByOrderId_readsOneJoinWithoutEntities() {
+        long single = statementsFor("get-1", 1,
+                reservation -> reservationService.getReservationByOrderId(reservation.orderId()));
+        long many = statementsFor("get-n", MANY_LINES,
+                reservation -> assertThat(reservationService.getReservationByOrderId(reservation.orderId())
+                        .items()).hasSize(MANY_LINES));
+
+        assertThat(many).isEqualTo(single);
+        assertThat(many).isEqualTo(1);
+        assertThat(statistics().getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void commitReservation_doesNotLoadPerLine() {
+        long single = statementsFor("commit-1", 1,
+                reservation -> reservationService.commitReservation(reservation.reservationId(), "shipped"));
+        long many = statementsFor("commit-n", MANY_LINES,
+                reservation -> reservationService.commitReservation(reservation.reservationId(), "shipped"));
+
+        assertThat(many).isEqualTo(single);
+    }
+
+    @Test
+    void releaseReservation_doesNotLoadPerLine() {
+        long single = statementsFor("release-1", 1,
+                reservation -> reservationService.releaseReservation(reservation.reservationId(), "cancelled"));
+        long many = statementsFor("release-n", MANY_LINES,
+                reservation -> reservationService.releaseReservation(reservation.reservationId(), "cancelled"));
+
+        assertThat(many).isEqualTo(single);
+    }
+
+    private long statementsFor(String orderId, int lineCount, Consumer<ReservationResponseDto> action) {
+        List<ReservationItemRequestDto> items = new ArrayList<>();
+        for (int i = 0; i < lineCount; i++) {
+            String sku = "QC-" + orderId + "-" + i;
+            inventoryItemRepository.save(new InventoryItem(sku, "MAIN", 100, 0));
+            items.add(new ReservationItemRequestDto(sku, "MAIN", 1L));
+        }
+        ReservationResponseDto reservation =
+                reservationService.createReservation(new ReservationCreateRequestDto(orderId, items));
+
+        Statistics statistics = statistics();
+        statistics.clear();
+        action.accept(reservation);
+        return statistics.getPrepareStatementCount();
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
@@ -0,0 +1,101 @@
+package com.kevdev.inventory.integration;
+
+import com.kevdev.inventory.dto.ReserveStockRequest;
+import com.kevdev.inventory.dto.StockAdjustmentRequestDto;
+import com.kevdev.inventory.service.InventoryService;
+import com.kevdev.inventory.service.ledger.LedgerRebuildReport;
+import com.kevdev.inventory.service.ledger.StockLedger;
+import com.kevdev.inventory.service.ledger.StockLedgerRebuilder;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Ledger round trip on real Postgres: movements are appended, snapshots taken, and a row that
+ * was changed behind the ledger's back is found and repaired by the rebuild.
+ */
+@SpringBootTest
+@Testcontainers
+class StockLedgerPostgresTest {
+
+    @Container
+    static final PostgreSQLContainer<?> postgres =
+            new PostgreSQLContainer<>("postgres:16-alpine")
+                    .withDatabaseName("inventorydb")
+                    .withUsername("inventory")
+                    .withPassword("inventory");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.flyway.enabled", () -> true);
+        registry.add("inventory.kafka.enabled", () -> false);
+        registry.add("inventory.reservations.expiry.enabled", () -> false);
+        registry.add("inventory.ledger.snapshot-enabled", () -> false);
+    }
+
+    @Autowired
+    InventoryService inventoryService;
+
+    @Autowired
+    StockLedger stockLedger;
+
+    @Autowired
+    StockLedgerRebuilder rebuilder;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    void rebuildFromSnapshotAndTail_findsAndRepairsDrift() {
+        inventoryService.adjustStock(adjustment("LEDGER-1", 10));
+        inventoryService.adjustStock(adjustment("LEDGER-2", 20));
+        stockLedger.snapshot(0L, 1_000);
+
+        // the tail after the snapshot
+        inventoryService.adjustStock(adjustment("LEDGER-1", 5));
+        inventoryService.reserveStock(reservation("LEDGER-1", 3));
+
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM stock_adjustment WHERE sku = 'LEDGER-1'", Long.class)).isEqualTo(3L);
+        assertThat(rebuilder.rebuild(false).drifted()).isZero();
+
+        jdbcTemplate.update("UPDATE inventory_items SET quantity_on_hand = 999 WHERE sku = 'LEDGER-1'");
+
+        assertThat(rebuilder.rebuild(false).drifted()).isEqualTo(1L);
+        LedgerRebuildReport repaired = rebuilder.rebuild(true);
+
+        assertThat(repaired.drifted()).isEqualTo(1L);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT quantity_on_hand FROM inventory_items WHERE sku = 'LEDGER-1'", Integer.class)).isEqualTo(15);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT quantity_reserved FROM inventory_items WHERE sku = 'LEDGER-1'", Integer.class)).isEqualTo(3);
+    }
+
+    private static StockAdjustmentRequestDto adjustment(String sku, int delta) {
+        StockAdjustmentRequestDto request = new StockAdjustmentRequestDto();
+        request.setSku(sku);
+        request.setLocationId("MAIN");
+        request.setQuantityDelta(delta);
+        return request;
+    }
+
+    private static ReserveStockRequest reservation(String sku, int quantity) {
+        ReserveStockRequest request = new ReserveStockRequest();
+        request.setSku(sku);
+        request.setLocationId("MAIN");
+        request.setQuantity(quantity);
+        return request;
+    }
+}
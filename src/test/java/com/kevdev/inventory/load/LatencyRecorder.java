@@ -0,0 +1,42 @@
+package com.kevdev.inventory.load;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fixed-capacity, lock-free store of per-order latencies in nanoseconds.
+ */
+final class LatencyRecorder {
+
+    private final long[] samples;
+    private final AtomicInteger count = new AtomicInteger();
+
+    LatencyRecorder(int capacity) {
+        samples = new long[capacity];
+    }
+
+    void record(long nanos) {
+        int index = count.getAndIncrement();
+        if (index < samples.length) {
+            samples[index] = nanos;
+        }
+    }
+
+    int count() {
+        return Math.min(count.get(), samples.length);
+    }
+
+    /**
+     * Latency in milliseconds at the given quantile (0.5, 0.99, ...), or 0 without samples.
+     */
+    double percentileMillis(double quantile) {
+        int n = count();
+        if (n == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(samples, n);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(quantile * n) - 1;
+        return sorted[Math.max(0, Math.min(index, n - 1))] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,64 @@
+package com.kevdev.inventory.load;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Load run settings, read from {@code load.*} system properties so runs can be varied from the
+ * Maven command line without code changes.
+ */
+record LoadProfile(
+        String mode,
+        String database,
+        int orders,
+        int concurrency,
+        int skus,
+        double zipfExponent,
+        List<OrderMix> mix,
+        long seed,
+        int timeoutSeconds
+) {
+
+    record OrderMix(int lines, int weight) {
+    }
+
+    static LoadProfile fromSystemProperties() {
+        return new LoadProfile(
+                System.getProperty("load.mode", "kafka"),
+                System.getProperty("load.database", "h2"),
+                Integer.getInteger("load.orders", 2_000),
+                Integer.getInteger("load.concurrency", 32),
+                Integer.getInteger("load.skus", 500),
+                Double.parseDouble(System.getProperty("load.zipf", "1.1")),
+                parseMix(System.getProperty("load.mix", "1:60,3:30,10:10")),
+                Long.getLong("load.seed", 42L),
+                Integer.getInteger("load.timeout-seconds", 300)
+        );
+    }
+
+    int sampleLines(Random random) {
+        int total = mix.stream().mapToInt(OrderMix::weight).sum();
+        int pick = random.nextInt(total);
+        for (OrderMix entry : mix) {
+            pick -= entry.weight();
+            if (pick < 0) {
+                return Math.min(entry.lines(), skus);
+            }
+        }
+        throw new IllegalStateException("Order mix weights are inconsistent");
+    }
+
+    // "lines:weight,lines:weight", e.g. "1:60,3:30,10:10"
+    private static List<OrderMix> parseMix(String spec) {
+        List<OrderMix> mix = new ArrayList<>();
+        for (String part : spec.split(",")) {
+            String[] fields = part.trim().split(":");
+            if (fields.length != 2) {
+                throw new IllegalArgumentException("Invalid load.mix entry '" + part + "', expected lines:weight");
+            }
+            mix.add(new OrderMix(Integer.parseInt(fields[0].trim()), Integer.parseInt(fields[1].trim())));
+        }
+        return List.copyOf(mix);
+    }
+}
@@ -0,0 +1,20 @@
+package com.kevdev.inventory.load;
+
+/**
+ * One load run, written as JSON under target/load-results so runs can be diffed.
+ */
+record LoadReport(
+        String startedAt,
+        LoadProfile profile,
+        int completed,
+        double durationSeconds,
+        double ordersPerSecond,
+        double p50Millis,
+        double p99Millis,
+        double p999Millis,
+        double maxMillis,
+        double statementsPerOrder,
+        long maxConsumerLag,
+        long finalConsumerLag
+) {
+}
@@ -0,0 +1,418 @@
+package com.kevdev.inventory.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kevdev.inventory.dto.ReservationCreateRequestDto;
+import com.kevdev.inventory.dto.ReservationItemRequestDto;
+import com.kevdev.inventory.entity.InventoryItem;
+import com.kevdev.inventory.messaging.event.OrderCreatedEvent;
+import com.kevdev.inventory.messaging.event.OrderItemEvent;
+import com.kevdev.inventory.repository.InventoryItemRepository;
+import com.kevdev.inventory.service.ReservationService;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.ListOffsetsResult;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * End-to-end throughput harness. Drives orders through {@code orders.created} (load.mode=kafka,
+ * latency measured until the result event arrives) or the reservation REST endpoint
+ * (load.mode=rest) into the full service, on H2 or Postgres (load.database=postgres).
+ * load.mode=read reserves the orders up front and then measures order status lookups on
+ * {@code GET /by-order/{orderId}} instead.
+ * Excluded from the default build; run with {@code ./mvnw -Pload test}. See {@link LoadProfile}
+ * for the knobs. Each run writes a JSON report to target/load-results.
+ */
+@Slf4j
+@Tag("load")
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+                "spring.kafka.consumer.auto-offset-reset=earliest",
+                "inventory.kafka.enabled=true",
+                "logging.level.com.kevdev.inventory=WARN"
+        }
+)
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+@EmbeddedKafka(
+        partitions = ReservationLoadTest.PARTITIONS,
+        topics = {ReservationLoadTest.ORDERS_TOPIC, ReservationLoadTest.RESULTS_TOPIC},
+        brokerProperties = {
+                "log.dirs=target/embedded-kafka-load-logs",
+                "offsets.topic.replication.factor=1",
+                "transaction.state.log.replication.factor=1",
+                "transaction.state.log.min.isr=1"
+        }
+)
+class ReservationLoadTest {
+
+    static final int PARTITIONS = 3;
+    static final String ORDERS_TOPIC = "orders.created";
+    static final String RESULTS_TOPIC = "inventory.reservation.results";
+
+    private static final String CONSUMER_GROUP = "inventory-service";
+    private static final String LOCATION = "MAIN";
+    private static final LoadProfile PROFILE = LoadProfile.fromSystemProperties();
+
+    private static PostgreSQLContainer<?> postgres;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        if (!"postgres".equals(PROFILE.database())) {
+            return;
+        }
+        postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+        postgres.start();
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl() + "&reWriteBatchedInserts=true");
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+        registry.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.PostgreSQLDialect");
+        registry.add("spring.flyway.enabled", () -> true);
+    }
+
+    @AfterAll
+    static void stopDatabase() {
+        if (postgres != null) {
+            postgres.stop();
+        }
+    }
+
+    @TestConfiguration
+    static class StatementCounting {
+
+        @Bean
+        static BeanPostProcessor statementCountingPostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource dataSource && !(bean instanceof StatementCountingDataSource)) {
+                        return new StatementCountingDataSource(dataSource);
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+
+    @Autowired
+    private EmbeddedKafkaBroker embeddedKafka;
+
+    @Autowired
+    private InventoryItemRepository inventoryItemRepository;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void reservationThroughput() throws Exception {
+        seedInventory();
+        List<OrderCreatedEvent> orders = generateOrders();
+        if ("read".equals(PROFILE.mode())) {
+            orders.forEach(order -> reservationService.createReservation(toRequest(order)));
+        }
+
+        StatementCountingDataSource statements = (StatementCountingDataSource) dataSource;
+        LatencyRecorder latencies = new LatencyRecorder(orders.size());
+        AtomicLong maxLag = new AtomicLong();
+        Instant startedAt = Instant.now();
+
+        long elapsedNanos;
+        long finalLag;
+        try (AdminClient admin = AdminClient.create(Map.of(
+                AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, embeddedKafka.getBrokersAsString()))) {
+            ScheduledExecutorService lagSampler = Executors.newSingleThreadScheduledExecutor();
+            if ("kafka".equals(PROFILE.mode())) {
+                lagSampler.scheduleAtFixedRate(
+                        () -> maxLag.accumulateAndGet(consumerLag(admin), Math::max),
+                        0, 250, TimeUnit.MILLISECONDS);
+            }
+
+            statements.reset();
+            long started = System.nanoTime();
+            if ("rest".equals(PROFILE.mode())) {
+                runOverRest(orders, latencies);
+            } else if ("read".equals(PROFILE.mode())) {
+                runReads(orders, latencies);
+            } else {
+                runOverKafka(orders, latencies);
+            }
+            elapsedNanos = System.nanoTime() - started;
+
+            lagSampler.shutdownNow();
+            finalLag = "kafka".equals(PROFILE.mode()) ? consumerLag(admin) : 0L;
+        }
+
+        int completed = latencies.count();
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        LoadReport report = new LoadReport(
+                startedAt.toString(),
+                PROFILE,
+                completed,
+                seconds,
+                completed / seconds,
+                latencies.percentileMillis(0.50),
+                latencies.percentileMillis(0.99),
+                latencies.percentileMillis(0.999),
+                latencies.percentileMillis(1.0),
+                completed == 0 ? 0 : (double) statements.statements() / completed,
+                maxLag.get(),
+                finalLag
+        );
+        writeReport(report);
+
+        assertThat(completed).isEqualTo(orders.size());
+    }
+
+    private void runOverKafka(List<OrderCreatedEvent> orders, LatencyRecorder latencies) throws Exception {
+        Map<String, Long> sentAt = new ConcurrentHashMap<>();
+        CountDownLatch done = new CountDownLatch(orders.size());
+        Semaphore inFlight = new Semaphore(PROFILE.concurrency());
+        AtomicBoolean running = new AtomicBoolean(true);
+
+        Map<String, Object> consumerProps = KafkaTestUtils.consumerProps("reservation-load-test", "false", embeddedKafka);
+        Consumer<String, String> results = new DefaultKafkaConsumerFactory<>(
+                consumerProps, new StringDeserializer(), new StringDeserializer()).createConsumer();
+        embeddedKafka.consumeFromEmbeddedTopics(results, RESULTS_TOPIC);
+
+        Thread collector = new Thread(() -> {
+            while (running.get() && done.getCount() > 0) {
+                for (ConsumerRecord<String, String> record : results.poll(Duration.ofMillis(100))) {
+                    Long start = sentAt.remove(record.key());
+                    if (start != null) {
+                        latencies.record(System.nanoTime() - start);
+                        inFlight.release();
+                        done.countDown();
+                    }
+                }
+            }
+        }, "load-result-collector");
+        collector.start();
+
+        DefaultKafkaProducerFactory<String, OrderCreatedEvent> producerFactory = new DefaultKafkaProducerFactory<>(
+                KafkaTestUtils.producerProps(embeddedKafka), new StringSerializer(), new JsonSerializer<>());
+        try {
+            KafkaTemplate<String, OrderCreatedEvent> template = new KafkaTemplate<>(producerFactory);
+            for (OrderCreatedEvent order : orders) {
+                inFlight.acquire();
+                sentAt.put(order.orderId(), System.nanoTime());
+                template.send(ORDERS_TOPIC, order.orderId(), order);
+            }
+            template.flush();
+
+            if (!done.await(PROFILE.timeoutSeconds(), TimeUnit.SECONDS)) {
+                log.warn("Load run timed out with {} orders outstanding", done.getCount());
+            }
+        } finally {
+            running.set(false);
+            collector.join(TimeUnit.SECONDS.toMillis(5));
+            results.close();
+            producerFactory.destroy();
+        }
+    }
+
+    private void runOverRest(List<OrderCreatedEvent> orders, LatencyRecorder latencies) throws Exception {
+        URI uri = URI.create("http://localhost:" + port + "/api/inventory/reservations");
+        List<HttpRequest> requests = new ArrayList<>(orders.size());
+        for (OrderCreatedEvent order : orders) {
+            requests.add(HttpRequest.newBuilder(uri)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(toRequest(order))))
+                    .build());
+        }
+        sendAll(orders, requests, latencies);
+    }
+
+    private void runReads(List<OrderCreatedEvent> orders, LatencyRecorder latencies) throws Exception {
+        List<HttpRequest> requests = new ArrayList<>(orders.size());
+        for (OrderCreatedEvent order : orders) {
+            requests.add(HttpRequest.newBuilder(URI.create(
+                            "http://localhost:" + port + "/api/inventory/reservations/by-order/" + order.orderId()))
+                    .GET()
+                    .build());
+        }
+        sendAll(orders, requests, latencies);
+    }
+
+    private void sendAll(List<OrderCreatedEvent> orders, List<HttpRequest> requests, LatencyRecorder latencies)
+            throws Exception {
+        CountDownLatch done = new CountDownLatch(orders.size());
+        Semaphore inFlight = new Semaphore(PROFILE.concurrency());
+
+        ExecutorService executor = Executors.newFixedThreadPool(PROFILE.concurrency());
+        HttpClient client = HttpClient.newBuilder().executor(executor).build();
+        try {
+            for (int i = 0; i < orders.size(); i++) {
+                OrderCreatedEvent order = orders.get(i);
+                HttpRequest request = requests.get(i);
+
+                inFlight.acquire();
+                long start = System.nanoTime();
+                client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                        .whenComplete((response, ex) -> {
+                            if (ex == null && response.statusCode() / 100 == 2) {
+                                latencies.record(System.nanoTime() - start);
+                            } else {
+                                log.warn("Request for orderId={} failed: {}", order.orderId(),
+                                        ex != null ? ex.toString() : "HTTP " + response.statusCode());
+                            }
+                            inFlight.release();
+                            done.countDown();
+                        });
+            }
+
+            if (!done.await(PROFILE.timeoutSeconds(), TimeUnit.SECONDS)) {
+                log.warn("Load run timed out with {} requests outstanding", done.getCount());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void seedInventory() {
+        List<InventoryItem> items = new ArrayList<>(PROFILE.skus());
+        for (int i = 0; i < PROFILE.skus(); i++) {
+            items.add(new InventoryItem(sku(i), LOCATION, 1_000_000_000, 0));
+        }
+        inventoryItemRepository.saveAll(items);
+    }
+
+    private List<OrderCreatedEvent> generateOrders() {
+        Random random = new Random(PROFILE.seed());
+        ZipfSampler skus = new ZipfSampler(PROFILE.skus(), PROFILE.zipfExponent());
+        String run = Long.toString(System.currentTimeMillis(), 36);
+
+        List<OrderCreatedEvent> orders = new ArrayList<>(PROFILE.orders());
+        for (int i = 0; i < PROFILE.orders(); i++) {
+            int lines = PROFILE.sampleLines(random);
+            Set<Integer> ranks = new LinkedHashSet<>();
+            // hot SKUs repeat under skew; keep lines distinct but give up after a bounded number of draws
+            for (int draw = 0; ranks.size() < lines && draw < lines * 20; draw++) {
+                ranks.add(skus.sample(random));
+            }
+
+            List<OrderItemEvent> items = new ArrayList<>(ranks.size());
+            for (int rank : ranks) {
+                items.add(new OrderItemEvent((long) rank, sku(rank), LOCATION, 1 + random.nextInt(3)));
+            }
+            orders.add(new OrderCreatedEvent("load-" + run + "-" + i, items));
+        }
+        return orders;
+    }
+
+    private long consumerLag(AdminClient admin) {
+        try {
+            Map<TopicPartition, OffsetAndMetadata> committed = admin
+                    .listConsumerGroupOffsets(CONSUMER_GROUP)
+                    .partitionsToOffsetAndMetadata()
+                    .get();
+
+            Map<TopicPartition, OffsetSpec> latest = new HashMap<>();
+            for (int partition = 0; partition < PARTITIONS; partition++) {
+                latest.put(new TopicPartition(ORDERS_TOPIC, partition), OffsetSpec.latest());
+            }
+
+            long lag = 0;
+            for (Map.Entry<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> end
+                    : admin.listOffsets(latest).all().get().entrySet()) {
+                OffsetAndMetadata position = committed.get(end.getKey());
+                lag += end.getValue().offset() - (position != null ? position.offset() : 0L);
+            }
+            return lag;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return 0L;
+        } catch (Exception ex) {
+            log.debug("Could not sample consumer lag", ex);
+            return 0L;
+        }
+    }
+
+    private void writeReport(LoadReport report) throws Exception {
+        Path dir = Path.of("target", "load-results");
+        Files.createDirectories(dir);
+        Path file = dir.resolve("reservation-load-" + PROFILE.mode() + "-" + System.currentTimeMillis() + ".json");
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(file.toFile(), report);
+        log.warn("Load report written to {}:\n{}", file, objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(report));
+    }
+
+    private static ReservationCreateRequestDto toRequest(OrderCreatedEvent order) {
+        return new ReservationCreateRequestDto(
+                order.orderId(),
+                order.items().stream()
+                        .map(item -> new ReservationItemRequestDto(item.sku(), item.locationId(), item.quantity()))
+                        .toList()
+        );
+    }
+
+    private static String sku(int rank) {
+        return "LOAD-SKU-" + rank;
+    }
+}
@@ -0,0 +1,112 @@
+package com.kevdev.inventory.messaging.consumer;
+
+import com.kevdev.inventory.config.ConsumerBackpressureProperties;
+import com.kevdev.inventory.messaging.consumer.OrderConsumptionThrottle.Reason;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OrderConsumptionThrottleTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Mock KafkaListenerEndpointRegistry listenerRegistry;
+    @Mock MessageListenerContainer container;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger pending = new AtomicInteger();
+    private Timer latency;
+    private OrderConsumptionThrottle throttle;
+
+    @BeforeEach
+    void setUp() {
+        Gauge.builder("hikaricp.connections.active", active, AtomicInteger::get).register(meterRegistry);
+        Gauge.builder("hikaricp.connections.pending", pending, AtomicInteger::get).register(meterRegistry);
+        Gauge.builder("hikaricp.connections.max", () -> 10).register(meterRegistry);
+        latency = Timer.builder(ListenerMetrics.LATENCY_TIMER).tag("mode", "record").register(meterRegistry);
+
+        ConsumerBackpressureProperties properties = new ConsumerBackpressureProperties(
+                true, Duration.ofSeconds(1), 0.9, 0.6,
+                Duration.ofSeconds(2), Duration.ofMillis(500), Duration.ofSeconds(5),
+                List.of(ListenerMetrics.LISTENER_ID));
+        throttle = new OrderConsumptionThrottle(properties, listenerRegistry, meterRegistry);
+    }
+
+    @Test
+    void check_pausesOnPoolSaturation_andResumesOnlyAfterMinPause() {
+        when(listenerRegistry.getListenerContainer(ListenerMetrics.LISTENER_ID)).thenReturn(container);
+        active.set(8);
+        pending.set(4);
+        throttle.check(0);
+
+        assertThat(throttle.getState().paused()).isTrue();
+        assertThat(throttle.getState().reason()).isEqualTo(Reason.POOL);
+        assertThat(meterRegistry.get(ListenerMetrics.PAUSED).gauge().value()).isEqualTo(1.0);
+        assertThat(meterRegistry.get(ListenerMetrics.PAUSES).tag("reason", "pool").counter().count())
+                .isEqualTo(1.0);
+
+        active.set(2);
+        pending.set(0);
+        throttle.check(2 * SECOND);
+        assertThat(throttle.getState().paused()).isTrue();
+        verify(container, never()).resume();
+
+        throttle.check(6 * SECOND);
+        assertThat(throttle.getState().paused()).isFalse();
+        assertThat(meterRegistry.get(ListenerMetrics.PAUSED).gauge().value()).isZero();
+        verify(container, times(1)).pause();
+        verify(container, times(1)).resume();
+    }
+
+    @Test
+    void check_pausesOnSlowProcessing_andHoldsUntilBelowResumeThresholds() {
+        when(listenerRegistry.getListenerContainer(ListenerMetrics.LISTENER_ID)).thenReturn(container);
+        latency.record(Duration.ofSeconds(3));
+        throttle.check(0);
+
+        assertThat(throttle.getState().reason()).isEqualTo(Reason.LATENCY);
+        verify(container).pause();
+
+        // between the resume and pause thresholds: stays paused
+        active.set(7);
+        throttle.check(10 * SECOND);
+        assertThat(throttle.getState().paused()).isTrue();
+
+        active.set(5);
+        throttle.check(11 * SECOND);
+        assertThat(throttle.getState().paused()).isFalse();
+        verify(container).resume();
+    }
+
+    @Test
+    void check_staysRunningWhileBelowThresholds() {
+        active.set(6);
+        latency.record(Duration.ofMillis(800));
+        throttle.check(0);
+        throttle.check(SECOND);
+
+        assertThat(throttle.getState().paused()).isFalse();
+        assertThat(throttle.getState().poolUtilization()).isEqualTo(0.6);
+        verify(container, never()).pause();
+    }
+}
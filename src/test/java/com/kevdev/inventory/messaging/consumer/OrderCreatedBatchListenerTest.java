@@ -0,0 +1,40 @@
+package com.kevdev.inventory.messaging.consumer;
+
+import com.kevdev.inventory.messaging.event.OrderCreatedEvent;
+import com.kevdev.inventory.service.impl.ReservationBatchProcessor.BatchResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OrderCreatedBatchListenerTest {
+
+    @Test
+    void failOnFirstUnreserved_reportsIndexOfFirstFailedRecord() {
+        List<OrderCreatedEvent> events = List.of(order("ORDER_1"), order("ORDER_2"), order("ORDER_3"));
+        IllegalStateException cause = new IllegalStateException("lock timeout");
+        BatchResult result = new BatchResult(List.of(), Map.of("ORDER_3", cause, "ORDER_2", cause));
+
+        assertThatThrownBy(() -> OrderCreatedBatchListener.failOnFirstUnreserved(events, result))
+                .isInstanceOfSatisfying(BatchListenerFailedException.class,
+                        ex -> assertThat(ex.getIndex()).isEqualTo(1))
+                .hasCause(cause);
+    }
+
+    @Test
+    void failOnFirstUnreserved_returnsWhenEveryOrderWasReserved() {
+        List<OrderCreatedEvent> events = List.of(order("ORDER_1"));
+
+        assertThatCode(() -> OrderCreatedBatchListener.failOnFirstUnreserved(events, new BatchResult(List.of(), Map.of())))
+                .doesNotThrowAnyException();
+    }
+
+    private static OrderCreatedEvent order(String orderId) {
+        return new OrderCreatedEvent(orderId, List.of());
+    }
+}
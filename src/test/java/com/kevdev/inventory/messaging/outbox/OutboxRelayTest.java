@@ -0,0 +1,124 @@
+package com.kevdev.inventory.messaging.outbox;
+
+import com.kevdev.inventory.config.OutboxProperties;
+import com.kevdev.inventory.entity.OutboxEvent;
+import com.kevdev.inventory.repository.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    private static final String TOPIC = "inventory.reservation.results";
+
+    @Mock OutboxEventRepository outboxEventRepository;
+    @Mock KafkaTemplate<String, String> outboxKafkaTemplate;
+
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        OutboxProperties properties = new OutboxProperties(
+                true, 2, Duration.ofMillis(200), Duration.ofSeconds(1), "lz4", 10);
+        relay = new OutboxRelay(
+                outboxEventRepository,
+                outboxKafkaTemplate,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)),
+                properties
+        );
+    }
+
+    @Test
+    void relayBatch_deletesOnlyAcknowledgedEvents() {
+        OutboxEvent first = event(1L, "ORDER_1");
+        OutboxEvent second = event(2L, "ORDER_2");
+
+        when(outboxEventRepository.findBatchForPublish(any(Instant.class), eq(PageRequest.of(0, 2)))).thenReturn(List.of(first, second));
+        when(outboxKafkaTemplate.send(TOPIC, "ORDER_1", "{}"))
+                .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+        when(outboxKafkaTemplate.send(TOPIC, "ORDER_2", "{}"))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker unavailable")));
+
+        int published = relay.relayBatch();
+
+        assertThat(published).isEqualTo(1);
+        verify(outboxEventRepository).claim(eq(List.of(1L, 2L)), any(Instant.class));
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L));
+        verify(outboxEventRepository).releaseClaims(List.of(2L));
+    }
+
+    @Test
+    void relayBatch_afterFailureForKey_keepsLaterEventsForThatKey() {
+        OutboxEvent failed = event(1L, "ORDER_1");
+        OutboxEvent later = event(2L, "ORDER_1");
+
+        when(outboxEventRepository.findBatchForPublish(any(Instant.class), eq(PageRequest.of(0, 2))))
+                .thenReturn(List.of(failed, later));
+        when(outboxKafkaTemplate.send(TOPIC, "ORDER_1", "{}"))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker unavailable")))
+                .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+
+        assertThat(relay.relayBatch()).isZero();
+
+        verify(outboxEventRepository, never()).deleteAllByIdInBatch(any());
+        verify(outboxEventRepository).releaseClaims(List.of(1L, 2L));
+    }
+
+    @Test
+    void relay_whenBatchIsFull_drainsUntilOutboxIsEmpty() {
+        OutboxEvent first = event(1L, "ORDER_1");
+        OutboxEvent second = event(2L, "ORDER_2");
+        OutboxEvent third = event(3L, "ORDER_3");
+
+        when(outboxEventRepository.findBatchForPublish(any(Instant.class), eq(PageRequest.of(0, 2))))
+                .thenReturn(List.of(first, second))
+                .thenReturn(List.of(third));
+        when(outboxKafkaTemplate.send(any(), any(), any()))
+                .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+
+        relay.relay();
+
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(3L));
+    }
+
+    @Test
+    void relayBatch_whenOutboxEmpty_sendsNothing() {
+        when(outboxEventRepository.findBatchForPublish(any(Instant.class), eq(PageRequest.of(0, 2)))).thenReturn(List.of());
+
+        assertThat(relay.relayBatch()).isZero();
+
+        verify(outboxKafkaTemplate, never()).send(any(), any(), any());
+    }
+
+    private OutboxEvent event(Long id, String key) {
+        return OutboxEvent.builder()
+                .id(id)
+                .topic(TOPIC)
+                .messageKey(key)
+                .payload("{}")
+                .createdAt(Instant.now())
+                .build();
+    }
+}
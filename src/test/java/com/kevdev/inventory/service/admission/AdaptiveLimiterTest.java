@@ -0,0 +1,74 @@
+package com.kevdev.inventory.service.admission;
+
+import com.kevdev.inventory.service.admission.AdaptiveLimiter.Permit;
+import com.kevdev.inventory.service.admission.AdaptiveLimiter.Priority;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveLimiterTest {
+
+    private static final long BASE_RTT = TimeUnit.MILLISECONDS.toNanos(10);
+
+    @Test
+    void limit_growsWhileLatencyStaysFlat() {
+        GradientLimit limit = new GradientLimit(10, 2, 100, 2.0, 0.2, 100);
+
+        for (int i = 0; i < 50; i++) {
+            limit.onSample(BASE_RTT, limit.getLimit());
+        }
+
+        assertThat(limit.getLimit()).isGreaterThan(20);
+    }
+
+    @Test
+    void limit_shrinksToMinimumWhenLatencyClimbs() {
+        GradientLimit limit = new GradientLimit(50, 4, 100, 2.0, 0.2, 600);
+        for (int i = 0; i < 300; i++) {
+            limit.onSample(BASE_RTT, limit.getLimit());
+        }
+        assertThat(limit.getLimit()).isEqualTo(100);
+
+        for (int i = 0; i < 80; i++) {
+            limit.onSample(BASE_RTT * 20, limit.getLimit());
+        }
+
+        assertThat(limit.getLimit()).isEqualTo(4);
+    }
+
+    @Test
+    void limit_ignoresSamplesWhileMostlyIdle() {
+        GradientLimit limit = new GradientLimit(40, 4, 100, 2.0, 0.2, 100);
+
+        for (int i = 0; i < 50; i++) {
+            limit.onSample(BASE_RTT, 1);
+        }
+
+        assertThat(limit.getLimit()).isEqualTo(40);
+    }
+
+    @Test
+    void tryAcquire_shedsWritesBeforeReads_andCountsThem() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AdaptiveLimiter limiter = new AdaptiveLimiter(new GradientLimit(4, 4, 4, 2.0, 0.2, 100), 0.5, registry);
+
+        Optional<Permit> firstWrite = limiter.tryAcquire(Priority.WRITE);
+        Optional<Permit> secondWrite = limiter.tryAcquire(Priority.WRITE);
+
+        assertThat(firstWrite).isPresent();
+        assertThat(secondWrite).isPresent();
+        assertThat(limiter.tryAcquire(Priority.WRITE)).isEmpty();
+        Optional<Permit> read = limiter.tryAcquire(Priority.READ);
+        assertThat(read).isPresent();
+        assertThat(registry.get("inventory.admission.shed").tag("priority", "write").counter().count()).isEqualTo(1.0);
+
+        firstWrite.get().release(false);
+        read.get().release(false);
+        assertThat(limiter.tryAcquire(Priority.WRITE)).isPresent();
+        assertThat(registry.get("inventory.admission.inflight").gauge().value()).isEqualTo(2.0);
+    }
+}
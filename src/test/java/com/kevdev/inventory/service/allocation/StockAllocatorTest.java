@@ -0,0 +1,180 @@
+package com.kevdev.inventory.service.allocation;
+
+import com.kevdev.inventory.config.AllocationProperties;
+import com.kevdev.inventory.config.AllocationProperties.ApplyTo;
+import com.kevdev.inventory.config.ShardProperties;
+import com.kevdev.inventory.entity.InventoryKey;
+import com.kevdev.inventory.repository.StockDemand;
+import com.kevdev.inventory.service.availability.AvailabilityIndex;
+import com.kevdev.inventory.service.availability.LocationStock;
+import com.kevdev.inventory.service.availability.SkuAvailability;
+import com.kevdev.inventory.service.shard.ReservationShards;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StockAllocatorTest {
+
+    private static final List<AllocationStrategy> STRATEGIES =
+            List.of(new ClosestFirstStrategy(), new MostStockStrategy(), new FewestSplitsStrategy());
+
+    @Mock
+    AvailabilityIndex availabilityIndex;
+
+    @Test
+    void closest_drainsLocationsInConfiguredOrder() {
+        stock(Map.of("MAIN", 3L, "EAST", 4L, "WEST", 10L));
+
+        List<StockDemand> demands = allocator("closest", ApplyTo.UNLOCATED).allocate("SKU1", null, 5L);
+
+        assertThat(demands).containsExactly(
+                new StockDemand("SKU1", "MAIN", 3L),
+                new StockDemand("SKU1", "EAST", 2L)
+        );
+    }
+
+    @Test
+    void mostStock_takesFromTheLargestLocationFirst() {
+        stock(Map.of("MAIN", 3L, "EAST", 4L, "WEST", 10L));
+
+        List<StockDemand> demands = allocator("most-stock", ApplyTo.UNLOCATED).allocate("SKU1", null, 12L);
+
+        assertThat(demands).containsExactly(
+                new StockDemand("SKU1", "WEST", 10L),
+                new StockDemand("SKU1", "EAST", 2L)
+        );
+    }
+
+    @Test
+    void fewestSplits_prefersClosestLocationThatCoversEverything() {
+        stock(Map.of("MAIN", 3L, "EAST", 6L, "WEST", 10L));
+
+        List<StockDemand> demands = allocator("fewest-splits", ApplyTo.UNLOCATED).allocate("SKU1", null, 5L);
+
+        assertThat(demands).containsExactly(new StockDemand("SKU1", "EAST", 5L));
+    }
+
+    @Test
+    void lineWithLocation_isKeptAsIs_whenOnlyUnlocatedLinesAreAllocated() {
+        List<StockDemand> demands = allocator("closest", ApplyTo.UNLOCATED).allocate("SKU1", "WEST", 5L);
+
+        assertThat(demands).containsExactly(new StockDemand("SKU1", "WEST", 5L));
+        verify(availabilityIndex, never()).get(any());
+    }
+
+    @Test
+    void lineWithLocation_startsAtThatLocation_whenAllLinesAreAllocated() {
+        stock(Map.of("MAIN", 3L, "WEST", 2L));
+
+        List<StockDemand> demands = allocator("closest", ApplyTo.ALL).allocate("SKU1", "WEST", 4L);
+
+        assertThat(demands).containsExactly(
+                new StockDemand("SKU1", "WEST", 2L),
+                new StockDemand("SKU1", "MAIN", 2L)
+        );
+    }
+
+    @Test
+    void notEnoughStockAnywhere_keepsLineWholeOnDefaultLocation() {
+        stock(Map.of("MAIN", 1L, "EAST", 1L));
+
+        List<StockDemand> demands = allocator("closest", ApplyTo.UNLOCATED).allocate("SKU1", null, 5L);
+
+        assertThat(demands).containsExactly(new StockDemand("SKU1", "MAIN", 5L));
+    }
+
+    @Test
+    void laterLines_allocateAroundWhatEarlierLinesOfTheBatchTook() {
+        stock(Map.of("MAIN", 3L, "EAST", 4L, "WEST", 10L));
+        StockAllocator allocator = allocator("closest", ApplyTo.UNLOCATED);
+        Map<InventoryKey, Long> allocated = new HashMap<>();
+
+        List<StockDemand> first = allocator.allocate("SKU1", null, 3L, allocated);
+        List<StockDemand> second = allocator.allocate("SKU1", null, 5L, allocated);
+
+        assertThat(first).containsExactly(new StockDemand("SKU1", "MAIN", 3L));
+        assertThat(second).containsExactly(
+                new StockDemand("SKU1", "EAST", 4L),
+                new StockDemand("SKU1", "WEST", 1L)
+        );
+        assertThat(allocated).containsEntry(new InventoryKey("SKU1", "MAIN"), 3L)
+                .containsEntry(new InventoryKey("SKU1", "EAST"), 4L)
+                .containsEntry(new InventoryKey("SKU1", "WEST"), 1L);
+    }
+
+    @Test
+    void onAShard_onlyPicksLocationsOwnedByThatShard() {
+        stock(Map.of("MAIN", 3L, "EAST", 4L, "WEST", 10L));
+        ReservationShards shards = new ReservationShards(new ShardProperties(true, 64));
+        try {
+            StockAllocator allocator = allocator("closest", ApplyTo.UNLOCATED, shards);
+            int eastShard = shards.shardOf(new InventoryKey("SKU1", "EAST"));
+
+            List<StockDemand> demands = shards.submit(eastShard, () -> allocator.allocate("SKU1", null, 4L)).join();
+
+            assertThat(demands).isNotEmpty();
+            assertThat(demands).allSatisfy(demand -> assertThat(shards.shardOf(demand.key())).isEqualTo(eastShard));
+        } finally {
+            shards.shutdown();
+        }
+    }
+
+    @Test
+    void candidateKeys_ofUnlocatedLine_coverEveryLocationOfTheSku() {
+        stock(Map.of("EAST", 4L, "WEST", 0L));
+
+        List<InventoryKey> keys = allocator("closest", ApplyTo.UNLOCATED).candidateKeys("SKU1", null);
+
+        assertThat(keys).containsExactly(
+                new InventoryKey("SKU1", "MAIN"),
+                new InventoryKey("SKU1", "EAST"),
+                new InventoryKey("SKU1", "WEST")
+        );
+    }
+
+    @Test
+    void candidateKeys_ofLocatedLine_areItsOwnLocation_whenOnlyUnlocatedLinesAreAllocated() {
+        List<InventoryKey> keys = allocator("closest", ApplyTo.UNLOCATED).candidateKeys("SKU1", "WEST");
+
+        assertThat(keys).containsExactly(new InventoryKey("SKU1", "WEST"));
+        verify(availabilityIndex, never()).get(any());
+    }
+
+    @Test
+    void unknownStrategy_failsAtStartup() {
+        assertThatThrownBy(() -> allocator("nearest-moon", ApplyTo.UNLOCATED))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private StockAllocator allocator(String strategy, ApplyTo applyTo) {
+        return allocator(strategy, applyTo, new ReservationShards(new ShardProperties(false, 1)));
+    }
+
+    private StockAllocator allocator(String strategy, ApplyTo applyTo, ReservationShards shards) {
+        return new StockAllocator(
+                new AllocationProperties(true, strategy, applyTo, List.of("MAIN", "EAST", "WEST")),
+                availabilityIndex,
+                shards,
+                STRATEGIES
+        );
+    }
+
+    private void stock(Map<String, Long> availableByLocation) {
+        Map<String, LocationStock> locations = new HashMap<>();
+        availableByLocation.forEach((location, available) -> locations.put(location, new LocationStock(available, 0)));
+        when(availabilityIndex.get("SKU1")).thenReturn(SkuAvailability.of("SKU1", locations));
+    }
+}
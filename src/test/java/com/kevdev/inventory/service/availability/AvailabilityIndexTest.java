@@ -0,0 +1,152 @@
+package com.kevdev.inventory.service.availability;
+
+import com.kevdev.inventory.config.AvailabilityIndexProperties;
+import com.kevdev.inventory.entity.InventoryItem;
+import com.kevdev.inventory.repository.InventoryItemRepository;
+import com.kevdev.inventory.repository.StockMovement;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AvailabilityIndexTest {
+
+    @Mock
+    InventoryItemRepository inventoryItemRepository;
+
+    private AvailabilityIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new AvailabilityIndex(
+                new AvailabilityIndexProperties(true, 1_000, Duration.ofMinutes(1)),
+                inventoryItemRepository,
+                new SimpleMeterRegistry()
+        );
+    }
+
+    @Test
+    void get_aggregatesEveryLocationOfTheSku() {
+        when(inventoryItemRepository.findBySkuIn(List.of("SKU1"))).thenReturn(List.of(
+                new InventoryItem("SKU1", "WEST", 10, 4),
+                new InventoryItem("SKU1", "EAST", 5, 0)
+        ));
+
+        SkuAvailability availability = index.get("SKU1");
+
+        assertThat(availability.onHand()).isEqualTo(15);
+        assertThat(availability.reserved()).isEqualTo(4);
+        assertThat(availability.available()).isEqualTo(11);
+        assertThat(availability.locations().keySet()).containsExactly("EAST", "WEST");
+    }
+
+    @Test
+    void get_servesCachedSkuWithoutReloading() {
+        when(inventoryItemRepository.findBySkuIn(List.of("SKU1")))
+                .thenReturn(List.of(new InventoryItem("SKU1", "MAIN", 10, 0)));
+
+        index.get("SKU1");
+        index.get("SKU1");
+
+        verify(inventoryItemRepository, times(1)).findBySkuIn(any());
+    }
+
+    @Test
+    void apply_updatesEntryLoadedBeforeTheCommit_withoutReloading() {
+        when(inventoryItemRepository.findBySkuIn(List.of("SKU1")))
+                .thenReturn(List.of(new InventoryItem("SKU1", "MAIN", 10, 0)));
+        index.get("SKU1");
+
+        long mark = index.markCommit();
+        index.apply(List.of(
+                new StockMovement(1L, "SKU1", "MAIN", 0, 3, "reserve"),
+                new StockMovement(2L, "SKU1", "EAST", 5, 0, "adjustment")
+        ), mark);
+        SkuAvailability availability = index.get("SKU1");
+
+        verify(inventoryItemRepository, times(1)).findBySkuIn(any());
+        assertThat(availability.available()).isEqualTo(12);
+        assertThat(availability.locations().get("MAIN")).isEqualTo(new LocationStock(10, 3));
+        assertThat(availability.locations().get("EAST")).isEqualTo(new LocationStock(5, 0));
+    }
+
+    @Test
+    void apply_evictsEntryThatMayAlreadyHaveSeenTheCommit() {
+        long mark = index.markCommit();
+        when(inventoryItemRepository.findBySkuIn(List.of("SKU1")))
+                .thenReturn(List.of(new InventoryItem("SKU1", "MAIN", 10, 3)))
+                .thenReturn(List.of(new InventoryItem("SKU1", "MAIN", 10, 3)));
+        index.get("SKU1");
+
+        index.apply(List.of(new StockMovement(1L, "SKU1", "MAIN", 0, 3, "reserve")), mark);
+        SkuAvailability availability = index.get("SKU1");
+
+        verify(inventoryItemRepository, times(2)).findBySkuIn(any());
+        assertThat(availability.locations().get("MAIN")).isEqualTo(new LocationStock(10, 3));
+    }
+
+    @Test
+    void getAll_doesNotCacheSkuMovedWhileItWasLoading() {
+        when(inventoryItemRepository.findBySkuIn(List.of("SKU1"))).thenAnswer(invocation -> {
+            index.apply(List.of(new StockMovement(1L, "SKU1", "MAIN", 0, 3, "reserve")), index.markCommit());
+            return List.of(new InventoryItem("SKU1", "MAIN", 10, 0));
+        });
+
+        index.getAll(List.of("SKU1"));
+        index.getAll(List.of("SKU1"));
+
+        verify(inventoryItemRepository, times(2)).findBySkuIn(any());
+    }
+
+    @Test
+    void invalidate_reloadsMovedSkuOnNextGet() {
+        when(inventoryItemRepository.findBySkuIn(List.of("SKU1")))
+                .thenReturn(List.of(new InventoryItem("SKU1", "MAIN", 10, 0)))
+                .thenReturn(List.of(new InventoryItem("SKU1", "MAIN", 10, 3)));
+        index.get("SKU1");
+
+        index.invalidate(List.of(new StockMovement(1L, "SKU1", "MAIN", 0, 3, "reserve")));
+        SkuAvailability availability = index.get("SKU1");
+
+        verify(inventoryItemRepository, times(2)).findBySkuIn(any());
+        assertThat(availability.available()).isEqualTo(7);
+        assertThat(availability.locations().get("MAIN")).isEqualTo(new LocationStock(10, 3));
+    }
+
+    @Test
+    void invalidate_leavesOtherSkusCached() {
+        when(inventoryItemRepository.findBySkuIn(List.of("SKU2")))
+                .thenReturn(List.of(new InventoryItem("SKU2", "MAIN", 4, 0)));
+        index.get("SKU2");
+
+        index.invalidate(List.of(new StockMovement(1L, "SKU1", "MAIN", 5, 0, "adjustment")));
+        index.get("SKU2");
+
+        verify(inventoryItemRepository, times(1)).findBySkuIn(any());
+    }
+
+    @Test
+    void getAll_loadsMissesInOneQuery_andReportsUnknownSkusAsEmpty() {
+        when(inventoryItemRepository.findBySkuIn(any()))
+                .thenReturn(List.of(new InventoryItem("SKU1", "MAIN", 10, 2)));
+
+        Map<String, SkuAvailability> result = index.getAll(List.of("SKU1", "UNKNOWN"));
+
+        verify(inventoryItemRepository, times(1)).findBySkuIn(any());
+        assertThat(result.get("SKU1").available()).isEqualTo(8);
+        assertThat(result.get("UNKNOWN").isEmpty()).isTrue();
+    }
+}
@@ -0,0 +1,40 @@
+package com.kevdev.inventory.service.expiry;
+
+import com.kevdev.inventory.config.ReservationExpiryProperties;
+import com.kevdev.inventory.service.ExpiredBatch;
+import com.kevdev.inventory.service.ReservationService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationExpirySweeperTest {
+
+    @Mock
+    ReservationService reservationService;
+
+    @Test
+    void sweep_walksPagesByCursor_untilAShortPage() {
+        ReservationExpirySweeper sweeper = new ReservationExpirySweeper(
+                reservationService,
+                new ReservationExpiryProperties(Duration.ofMinutes(15), true, 2, Duration.ofSeconds(5))
+        );
+        when(reservationService.expireHolds(any(), eq(0L), eq(2))).thenReturn(new ExpiredBatch(1, 1, 10L));
+        when(reservationService.expireHolds(any(), eq(10L), eq(2))).thenReturn(new ExpiredBatch(1, 0, 12L));
+
+        sweeper.sweep();
+
+        verify(reservationService, times(2)).expireHolds(any(), anyLong(), anyInt());
+    }
+}
@@ -1,10 +1,18 @@
 package com.kevdev.inventory.service.impl;
 
+import com.kevdev.inventory.config.InventoryCacheProperties;
 import com.kevdev.inventory.dto.InventoryItemResponse;
+import com.kevdev.inventory.dto.InventoryLookupResultDto;
 import com.kevdev.inventory.dto.ReserveStockRequest;
 import com.kevdev.inventory.dto.StockAdjustmentRequestDto;
 import com.kevdev.inventory.entity.InventoryItem;
+import com.kevdev.inventory.entity.InventoryKey;
 import com.kevdev.inventory.repository.InventoryItemRepository;
+import com.kevdev.inventory.service.availability.AvailabilityIndex;
+import com.kevdev.inventory.service.cache.InventoryItemCache;
+import com.kevdev.inventory.service.ledger.StockLedger;
+import com.kevdev.inventory.service.retry.ContentionTracker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -12,12 +20,16 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Duration;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -27,11 +39,26 @@ class InventoryServiceImplTest {
     @Mock
     InventoryItemRepository inventoryItemRepository;
 
+    @Mock
+    ContentionTracker contentionTracker;
+
+    @Mock
+    StockLedger stockLedger;
+
+    @Mock
+    AvailabilityIndex availabilityIndex;
+
     private InventoryServiceImpl service;
 
     @BeforeEach
     void setUp() {
-        service = new InventoryServiceImpl(inventoryItemRepository);
+        service = new InventoryServiceImpl(
+                inventoryItemRepository,
+                new InventoryItemCache(new InventoryCacheProperties(true, 1_000, Duration.ofSeconds(30)), new SimpleMeterRegistry()),
+                contentionTracker,
+                stockLedger,
+                availabilityIndex
+        );
     }
 
     @Test
@@ -60,6 +87,74 @@ class InventoryServiceImplTest {
         assertThrows(EntityNotFoundException.class, () -> service.getInventory("SKU1", "MAIN"));
     }
 
+    @Test
+    void getInventory_whenCalledTwice_loadsOnce() {
+        when(inventoryItemRepository.findBySkuAndLocationId("SKU1", "MAIN"))
+                .thenReturn(Optional.of(new InventoryItem("SKU1", "MAIN", 10, 2)));
+
+        service.getInventory("SKU1", "MAIN");
+        InventoryItemResponse cached = service.getInventory("SKU1", "MAIN");
+
+        assertThat(cached.getQuantityAvailable()).isEqualTo(8);
+        verify(inventoryItemRepository, times(1)).findBySkuAndLocationId("SKU1", "MAIN");
+    }
+
+    @Test
+    void getInventory_afterReserveStock_reloadsItem() {
+        InventoryItem item = new InventoryItem("SKU1", "MAIN", 10, 2);
+        when(inventoryItemRepository.findBySkuAndLocationId("SKU1", "MAIN"))
+                .thenReturn(Optional.of(item));
+        when(inventoryItemRepository.save(any(InventoryItem.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        service.getInventory("SKU1", "MAIN");
+        service.reserveStock(reserveReq("SKU1", "MAIN", 5));
+        InventoryItemResponse refreshed = service.getInventory("SKU1", "MAIN");
+
+        assertThat(refreshed.getQuantityReserved()).isEqualTo(7);
+    }
+
+    @Test
+    void getInventoryBatch_reportsMissingPairsInline_andLoadsMissesInOneQuery() {
+        InventoryKey known = new InventoryKey("SKU1", "MAIN");
+        InventoryKey unknown = new InventoryKey("SKU_UNKNOWN", "MAIN");
+        when(inventoryItemRepository.findAllByKeys(any(), eq(false)))
+                .thenReturn(List.of(new InventoryItem("SKU1", "MAIN", 10, 2)));
+
+        List<InventoryLookupResultDto> results = service.getInventoryBatch(List.of(known, unknown, known));
+
+        verify(inventoryItemRepository, times(1)).findAllByKeys(any(), eq(false));
+        assertThat(results).extracting(InventoryLookupResultDto::sku).containsExactly("SKU1", "SKU_UNKNOWN", "SKU1");
+        assertThat(results).extracting(InventoryLookupResultDto::found).containsExactly(true, false, true);
+        assertThat(results.get(0).item().getQuantityAvailable()).isEqualTo(8);
+        assertThat(results.get(1).item()).isNull();
+    }
+
+    @Test
+    void getInventoryBatch_servesCachedPairsWithoutQuerying() {
+        when(inventoryItemRepository.findBySkuAndLocationId("SKU1", "MAIN"))
+                .thenReturn(Optional.of(new InventoryItem("SKU1", "MAIN", 10, 2)));
+        service.getInventory("SKU1", "MAIN");
+
+        List<InventoryLookupResultDto> results = service.getInventoryBatch(List.of(new InventoryKey("SKU1", "MAIN")));
+
+        assertThat(results.get(0).found()).isTrue();
+        verify(inventoryItemRepository, never()).findAllByKeys(any(), eq(false));
+    }
+
+    @Test
+    void getInventoryBatch_doesNotCacheBulkLoads() {
+        InventoryKey key = new InventoryKey("SKU1", "MAIN");
+        when(inventoryItemRepository.findAllByKeys(any(), eq(false)))
+                .thenReturn(List.of(new InventoryItem("SKU1", "MAIN", 10, 2)));
+
+        service.getInventoryBatch(List.of(key));
+        service.getInventoryBatch(List.of(key));
+
+        // a bulk load has no per-key lock to order it against a writer's invalidation
+        verify(inventoryItemRepository, times(2)).findAllByKeys(any(), eq(false));
+    }
+
     @Test
     void adjustStock_whenExisting_updatesOnHand_andSaves() {
         InventoryItem existing = new InventoryItem("SKU1", "MAIN", 10, 1);
@@ -137,6 +232,21 @@ class InventoryServiceImplTest {
         verify(inventoryItemRepository, never()).save(any());
     }
 
+    @Test
+    void reserveStock_whenKeyIsContended_locksRowInsteadOfOptimisticRead() {
+        InventoryKey key = new InventoryKey("SKU1", "MAIN");
+        InventoryItem item = new InventoryItem("SKU1", "MAIN", 10, 2);
+        when(contentionTracker.shouldLock(key)).thenReturn(true);
+        when(inventoryItemRepository.findAllByKeys(List.of(key), true)).thenReturn(List.of(item));
+        when(inventoryItemRepository.save(any(InventoryItem.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        service.reserveStock(reserveReq("SKU1", "MAIN", 5));
+
+        assertThat(item.getQuantityReserved()).isEqualTo(7);
+        verify(inventoryItemRepository, never()).findBySkuAndLocationId(any(), any());
+    }
+
     @Test
     void reserveStock_whenMissing_throwsEntityNotFound() {
         when(inventoryItemRepository.findBySkuAndLocationId("SKU1", "MAIN"))
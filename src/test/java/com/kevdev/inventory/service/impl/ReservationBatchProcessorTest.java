@@ -0,0 +1,153 @@
+package com.kevdev.inventory.service.impl;
+
+import com.kevdev.inventory.config.ShardProperties;
+import com.kevdev.inventory.dto.ReservationBulkResultDto;
+import com.kevdev.inventory.dto.ReservationCreateRequestDto;
+import com.kevdev.inventory.dto.ReservationItemRequestDto;
+import com.kevdev.inventory.dto.ReservationResponseDto;
+import com.kevdev.inventory.entity.InventoryKey;
+import com.kevdev.inventory.messaging.event.OrderCreatedEvent;
+import com.kevdev.inventory.messaging.event.OrderItemEvent;
+import com.kevdev.inventory.service.OrderBatchOutcome;
+import com.kevdev.inventory.service.ReservationService;
+import com.kevdev.inventory.service.shard.ReservationShards;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationBatchProcessorTest {
+
+    @Mock ReservationService reservationService;
+
+    private ReservationShards reservationShards;
+    private ReservationBatchProcessor processor;
+
+    @BeforeEach
+    void setUp() {
+        reservationShards = new ReservationShards(new ShardProperties(true, 4));
+        processor = new ReservationBatchProcessor(reservationService, reservationShards);
+    }
+
+    @AfterEach
+    void tearDown() {
+        reservationShards.shutdown();
+    }
+
+    @Test
+    void process_whenBatchSucceeds_usesSingleBatchCall() {
+        OrderCreatedEvent first = order("ORDER_1");
+        OrderCreatedEvent second = order("ORDER_2");
+
+        when(reservationService.reserveForOrders(List.of(first, second)))
+                .thenReturn(new OrderBatchOutcome(List.of(response("ORDER_1"), response("ORDER_2")), List.of()));
+
+        List<ReservationResponseDto> result = processor.process(List.of(first, second));
+
+        assertThat(result).extracting(ReservationResponseDto::orderId).containsExactly("ORDER_1", "ORDER_2");
+        verify(reservationService, never()).reserveForOrder(any());
+    }
+
+    @Test
+    void process_whenOrderRejected_retriesItAlone_andKeepsTheRest() {
+        OrderCreatedEvent good = order("ORDER_1");
+        OrderCreatedEvent bad = order("ORDER_BAD");
+
+        when(reservationService.reserveForOrders(List.of(good, bad)))
+                .thenReturn(new OrderBatchOutcome(List.of(response("ORDER_1")), List.of(bad)));
+        when(reservationService.reserveForOrder(bad))
+                .thenThrow(new IllegalArgumentException("Inventory item not found"));
+
+        List<ReservationResponseDto> result = processor.process(List.of(good, bad));
+
+        assertThat(result).extracting(ReservationResponseDto::orderId).containsExactly("ORDER_1");
+    }
+
+    @Test
+    void process_whenBatchTransactionFails_fallsBackToOneOrderAtATime() {
+        OrderCreatedEvent first = order("ORDER_1");
+        OrderCreatedEvent second = order("ORDER_2");
+
+        when(reservationService.reserveForOrders(List.of(first, second)))
+                .thenThrow(new IllegalStateException("deadlock"));
+        when(reservationService.reserveForOrder(first)).thenReturn(response("ORDER_1"));
+        when(reservationService.reserveForOrder(second)).thenThrow(new IllegalStateException("boom"));
+
+        ReservationBatchProcessor.BatchResult result = processor.reserve(List.of(first, second));
+
+        assertThat(result.reservations()).extracting(ReservationResponseDto::orderId).containsExactly("ORDER_1");
+        assertThat(result.failures()).containsOnlyKeys("ORDER_2");
+        assertThat(result.failures().get("ORDER_2")).hasMessage("boom");
+    }
+
+    @Test
+    void processOne_whenOrderIdConstraintViolated_replaysAsDuplicate() {
+        OrderCreatedEvent order = order("ORDER_1");
+
+        when(reservationService.reserveForOrder(order))
+                .thenThrow(new DataIntegrityViolationException("uk_reservation_order_id"))
+                .thenReturn(response("ORDER_1"));
+
+        ReservationResponseDto result = processor.processOne(order);
+
+        assertThat(result.orderId()).isEqualTo("ORDER_1");
+    }
+
+    @Test
+    void createReservations_runsOneTransactionPerShard_andAnswersInRequestOrder() {
+        InventoryKey east = new InventoryKey("SKU_EAST", "MAIN");
+        InventoryKey west = keyOnAnotherShard(east);
+        when(reservationService.findCandidateKeys(east.sku(), null)).thenReturn(List.of(east));
+        when(reservationService.findCandidateKeys(west.sku(), null)).thenReturn(List.of(west));
+
+        ReservationCreateRequestDto first = request("ORDER_1", east.sku());
+        ReservationCreateRequestDto second = request("ORDER_2", west.sku());
+        ReservationCreateRequestDto repeat = request("ORDER_1", west.sku());
+        when(reservationService.createReservations(List.of(first, repeat))).thenReturn(List.of(
+                new ReservationBulkResultDto(1L, "ORDER_1", "CONFIRMED", null),
+                ReservationBulkResultDto.rejected(null, "ORDER_1", "Duplicate orderId in request")
+        ));
+        when(reservationService.createReservations(List.of(second)))
+                .thenThrow(new IllegalStateException("deadlock"));
+
+        List<ReservationBulkResultDto> results = processor.createReservations(List.of(first, second, repeat));
+
+        assertThat(results).extracting(ReservationBulkResultDto::orderId).containsExactly("ORDER_1", "ORDER_2", "ORDER_1");
+        assertThat(results).extracting(ReservationBulkResultDto::status).containsExactly("CONFIRMED", "REJECTED", "REJECTED");
+        assertThat(results.get(1).message()).isEqualTo("deadlock");
+        assertThat(results.get(2).message()).isEqualTo("Duplicate orderId in request");
+    }
+
+    private InventoryKey keyOnAnotherShard(InventoryKey key) {
+        for (int i = 0; ; i++) {
+            InventoryKey candidate = new InventoryKey("SKU_WEST" + i, "MAIN");
+            if (reservationShards.shardOf(candidate) != reservationShards.shardOf(key)) {
+                return candidate;
+            }
+        }
+    }
+
+    private static ReservationCreateRequestDto request(String orderId, String sku) {
+        return new ReservationCreateRequestDto(orderId, List.of(new ReservationItemRequestDto(sku, null, 1L)));
+    }
+
+    private static OrderCreatedEvent order(String orderId) {
+        return new OrderCreatedEvent(orderId, List.of(new OrderItemEvent(1L, "SKU1", "MAIN", 1L)));
+    }
+
+    private static ReservationResponseDto response(String orderId) {
+        return new ReservationResponseDto(1L, orderId, "CONFIRMED", null, List.of());
+    }
+}
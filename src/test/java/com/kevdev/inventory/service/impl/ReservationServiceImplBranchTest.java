@@ -1,9 +1,17 @@
 package com.kevdev.inventory.service.impl;
 
+import com.kevdev.inventory.config.AllocationProperties;
+import com.kevdev.inventory.config.IdempotencyProperties;
+import com.kevdev.inventory.config.InventoryCacheProperties;
+import com.kevdev.inventory.config.ReservationExpiryProperties;
+import com.kevdev.inventory.config.ShardProperties;
+import com.kevdev.inventory.dto.ReservationActionItemDto;
+import com.kevdev.inventory.dto.ReservationBulkResultDto;
 import com.kevdev.inventory.dto.ReservationCreateRequestDto;
 import com.kevdev.inventory.dto.ReservationItemRequestDto;
 import com.kevdev.inventory.dto.ReservationResponseDto;
 import com.kevdev.inventory.entity.InventoryItem;
+import com.kevdev.inventory.entity.InventoryKey;
 import com.kevdev.inventory.entity.Reservation;
 import com.kevdev.inventory.entity.ReservationLine;
 import com.kevdev.inventory.entity.ReservationLineStatus;
@@ -11,18 +19,37 @@ import com.kevdev.inventory.entity.ReservationStatus;
 import com.kevdev.inventory.messaging.event.InventoryReservationResultEvent;
 import com.kevdev.inventory.messaging.event.OrderCreatedEvent;
 import com.kevdev.inventory.messaging.event.OrderItemEvent;
+import com.kevdev.inventory.messaging.outbox.OutboxPublisher;
 import com.kevdev.inventory.repository.InventoryItemRepository;
+import com.kevdev.inventory.repository.ReservationLineRepository;
+import com.kevdev.inventory.repository.ReservationLineView;
+import com.kevdev.inventory.repository.ReservationOutcome;
 import com.kevdev.inventory.repository.ReservationRepository;
+import com.kevdev.inventory.repository.ReservedLine;
+import com.kevdev.inventory.repository.ReservedQuantity;
+import com.kevdev.inventory.repository.StockDemand;
+import com.kevdev.inventory.repository.StockMovement;
+import com.kevdev.inventory.service.ExpiredBatch;
+import com.kevdev.inventory.service.OrderBatchOutcome;
+import com.kevdev.inventory.service.cache.InventoryItemCache;
+import com.kevdev.inventory.service.idempotency.SeenOrderRegistry;
+import com.kevdev.inventory.service.allocation.ClosestFirstStrategy;
+import com.kevdev.inventory.service.allocation.StockAllocator;
+import com.kevdev.inventory.service.availability.AvailabilityIndex;
+import com.kevdev.inventory.service.ledger.StockLedger;
+import com.kevdev.inventory.service.metrics.ReservationMetrics;
+import com.kevdev.inventory.service.retry.ContentionTracker;
+import com.kevdev.inventory.service.shard.ReservationShards;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.beans.factory.ObjectProvider;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
@@ -33,8 +60,8 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
-import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -44,9 +71,15 @@ class ReservationServiceImplBranchTest {
 
     @Mock ReservationRepository reservationRepository;
     @Mock InventoryItemRepository inventoryItemRepository;
+    @Mock ReservationLineRepository reservationLineRepository;
 
-    @Mock ObjectProvider<KafkaTemplate<String, InventoryReservationResultEvent>> inventoryResultKafkaTemplateProvider;
-    @Mock KafkaTemplate<String, InventoryReservationResultEvent> kafkaTemplate;
+    @Mock OutboxPublisher outboxPublisher;
+
+    @Mock StockLedger stockLedger;
+
+    @Mock AvailabilityIndex availabilityIndex;
+
+    @Mock ContentionTracker contentionTracker;
 
     private ReservationServiceImpl service;
 
@@ -55,37 +88,22 @@ class ReservationServiceImplBranchTest {
         service = new ReservationServiceImpl(
                 reservationRepository,
                 inventoryItemRepository,
-                inventoryResultKafkaTemplateProvider
-        );
-    }
-
-    @Test
-    void reserveForOrder_whenTemplateUnavailable_doesNotSendEvent() {
-        when(inventoryResultKafkaTemplateProvider.getIfAvailable()).thenReturn(null);
-
-        InventoryItem item = new InventoryItem("SKU1", "MAIN", 10, 0);
-        when(inventoryItemRepository.findBySkuAndLocationId("SKU1", "MAIN"))
-                .thenReturn(Optional.of(item));
-
-        when(reservationRepository.save(any(Reservation.class)))
-                .thenAnswer(invocation -> invocation.getArgument(0));
-
-        OrderCreatedEvent orderEvent = new OrderCreatedEvent(
-                "ORDER_1",
-                List.of(new OrderItemEvent(1L, "SKU1", "MAIN", 5L))
+                reservationLineRepository,
+                outboxPublisher,
+                new SeenOrderRegistry(new IdempotencyProperties(100)),
+                new InventoryItemCache(new InventoryCacheProperties(true, 1_000, Duration.ofSeconds(30)), new SimpleMeterRegistry()),
+                new ReservationExpiryProperties(Duration.ofMinutes(15), true, 500, Duration.ofSeconds(5)),
+                new ReservationMetrics(new SimpleMeterRegistry()),
+                stockLedger,
+                singleLocationAllocator(),
+                contentionTracker
         );
-
-        ReservationResponseDto response = service.reserveForOrder(orderEvent);
-
-        assertThat(response.status()).isEqualTo("CONFIRMED");
-        verifyNoInteractions(kafkaTemplate);
     }
 
     @Test
     void createReservation_whenAllItemsReserved_setsConfirmed() {
-        InventoryItem item = new InventoryItem("SKU1", "MAIN", 10, 0);
-        when(inventoryItemRepository.findBySkuAndLocationId("SKU1", "MAIN"))
-                .thenReturn(Optional.of(item));
+        when(inventoryItemRepository.reserveAvailable(List.of(new StockDemand("SKU1", "MAIN", 5L))))
+                .thenReturn(List.of(new ReservationOutcome(1L, true)));
 
         when(reservationRepository.save(any(Reservation.class)))
                 .thenAnswer(invocation -> invocation.getArgument(0));
@@ -98,16 +116,15 @@ class ReservationServiceImplBranchTest {
         ReservationResponseDto response = service.createReservation(request);
 
         assertThat(response.status()).isEqualTo("CONFIRMED");
-        assertThat(item.getReservedQuantity()).isEqualTo(5L);
         assertThat(response.items()).hasSize(1);
         assertThat(response.items().get(0).status()).isEqualTo(ReservationLineStatus.RESERVED.name());
+        assertThat(response.items().get(0).reservedQuantity()).isEqualTo(5L);
     }
 
     @Test
     void createReservation_whenAllItemsFail_setsFailedAndReason() {
-        InventoryItem item = new InventoryItem("SKU1", "MAIN", 2, 0);
-        when(inventoryItemRepository.findBySkuAndLocationId("SKU1", "MAIN"))
-                .thenReturn(Optional.of(item));
+        when(inventoryItemRepository.reserveAvailable(List.of(new StockDemand("SKU1", "MAIN", 5L))))
+                .thenReturn(List.of(new ReservationOutcome(1L, false)));
 
         when(reservationRepository.save(any(Reservation.class)))
                 .thenAnswer(invocation -> invocation.getArgument(0));
@@ -121,21 +138,21 @@ class ReservationServiceImplBranchTest {
 
         assertThat(response.status()).isEqualTo("FAILED");
         assertThat(response.reason()).isEqualTo("All items failed reservation");
-        assertThat(item.getReservedQuantity()).isEqualTo(0L);
         assertThat(response.items()).hasSize(1);
+        assertThat(response.items().get(0).reservedQuantity()).isEqualTo(0L);
         assertThat(response.items().get(0).status()).isEqualTo(ReservationLineStatus.FAILED.name());
         assertThat(response.items().get(0).failureReason()).isEqualTo("Insufficient available stock");
     }
 
     @Test
     void createReservation_whenMixedItems_setsPartial() {
-        InventoryItem ok = new InventoryItem("SKU_OK", "MAIN", 10, 0);
-        InventoryItem bad = new InventoryItem("SKU_BAD", "MAIN", 2, 0);
-
-        when(inventoryItemRepository.findBySkuAndLocationId("SKU_OK", "MAIN"))
-                .thenReturn(Optional.of(ok));
-        when(inventoryItemRepository.findBySkuAndLocationId("SKU_BAD", "MAIN"))
-                .thenReturn(Optional.of(bad));
+        when(inventoryItemRepository.reserveAvailable(List.of(
+                new StockDemand("SKU_OK", "MAIN", 5L),
+                new StockDemand("SKU_BAD", "MAIN", 5L)
+        ))).thenReturn(List.of(
+                new ReservationOutcome(1L, true),
+                new ReservationOutcome(2L, false)
+        ));
 
         when(reservationRepository.save(any(Reservation.class)))
                 .thenAnswer(invocation -> invocation.getArgument(0));
@@ -154,15 +171,60 @@ class ReservationServiceImplBranchTest {
         assertThat(response.items()).hasSize(2);
         assertThat(response.items().stream().anyMatch(i -> i.status().equals("RESERVED"))).isTrue();
         assertThat(response.items().stream().anyMatch(i -> i.status().equals("FAILED"))).isTrue();
-        assertThat(ok.getReservedQuantity()).isEqualTo(5L);
-        assertThat(bad.getReservedQuantity()).isEqualTo(0L);
+        assertThat(response.items().get(0).reservedQuantity()).isEqualTo(5L);
+        assertThat(response.items().get(1).reservedQuantity()).isEqualTo(0L);
+    }
+
+    @Test
+    void createReservation_whenInventoryItemUnknown_throws() {
+        when(inventoryItemRepository.reserveAvailable(List.of(new StockDemand("SKU_UNKNOWN", "MAIN", 5L))))
+                .thenReturn(List.of(new ReservationOutcome(null, false)));
+
+        ReservationCreateRequestDto request = new ReservationCreateRequestDto(
+                "ORDER_1",
+                List.of(new ReservationItemRequestDto("SKU_UNKNOWN", "MAIN", 5L))
+        );
+
+        assertThrows(IllegalArgumentException.class, () -> service.createReservation(request));
+
+        verify(reservationRepository, never()).save(any(Reservation.class));
+    }
+
+    @Test
+    void reserveForOrders_whenOneOrderReferencesUnknownItem_rejectsOnlyThatOrder() {
+        OrderCreatedEvent good = new OrderCreatedEvent(
+                "ORDER_1",
+                List.of(new OrderItemEvent(1L, "SKU1", "MAIN", 5L))
+        );
+        OrderCreatedEvent bad = new OrderCreatedEvent(
+                "ORDER_2",
+                List.of(new OrderItemEvent(2L, "SKU_UNKNOWN", "MAIN", 1L))
+        );
+
+        when(inventoryItemRepository.reserveAvailable(List.of(
+                new StockDemand("SKU1", "MAIN", 5L),
+                new StockDemand("SKU_UNKNOWN", "MAIN", 1L)
+        ))).thenReturn(List.of(
+                new ReservationOutcome(1L, false),
+                new ReservationOutcome(null, false)
+        ));
+        when(inventoryItemRepository.reserveAvailable(List.of(new StockDemand("SKU1", "MAIN", 5L))))
+                .thenReturn(List.of(new ReservationOutcome(1L, true)));
+        when(reservationRepository.saveAll(any()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        OrderBatchOutcome outcome = service.reserveForOrders(List.of(good, bad));
+
+        assertThat(outcome.rejected()).containsExactly(bad);
+        assertThat(outcome.reservations()).hasSize(1);
+        assertThat(outcome.reservations().get(0).orderId()).isEqualTo("ORDER_1");
+        assertThat(outcome.reservations().get(0).status()).isEqualTo("CONFIRMED");
     }
 
     @Test
     void createReservation_whenLocationMissing_usesDefaultMain() {
-        InventoryItem item = new InventoryItem("SKU1", "MAIN", 10, 0);
-        when(inventoryItemRepository.findBySkuAndLocationId("SKU1", "MAIN"))
-                .thenReturn(Optional.of(item));
+        when(inventoryItemRepository.reserveAvailable(List.of(new StockDemand("SKU1", "MAIN", 5L))))
+                .thenReturn(List.of(new ReservationOutcome(1L, true)));
 
         when(reservationRepository.save(any(Reservation.class)))
                 .thenAnswer(invocation -> invocation.getArgument(0));
@@ -175,16 +237,13 @@ class ReservationServiceImplBranchTest {
         ReservationResponseDto response = service.createReservation(request);
 
         assertThat(response.status()).isEqualTo("CONFIRMED");
-        verify(inventoryItemRepository).findBySkuAndLocationId(eq("SKU1"), eq("MAIN"));
+        verify(inventoryItemRepository).reserveAvailable(eq(List.of(new StockDemand("SKU1", "MAIN", 5L))));
     }
 
     @Test
-    void reserveForOrder_sendsResultEvent_withLines() {
-        when(inventoryResultKafkaTemplateProvider.getIfAvailable()).thenReturn(kafkaTemplate);
-
-        InventoryItem item = new InventoryItem("SKU1", "MAIN", 10, 0);
-        when(inventoryItemRepository.findBySkuAndLocationId("SKU1", "MAIN"))
-                .thenReturn(Optional.of(item));
+    void reserveForOrder_writesResultEventToOutbox_withLines() {
+        when(inventoryItemRepository.reserveAvailable(List.of(new StockDemand("SKU1", "MAIN", 5L))))
+                .thenReturn(List.of(new ReservationOutcome(1L, true)));
 
         when(reservationRepository.save(any(Reservation.class)))
                 .thenAnswer(invocation -> invocation.getArgument(0));
@@ -201,7 +260,7 @@ class ReservationServiceImplBranchTest {
 
         assertThat(response.status()).isEqualTo("CONFIRMED");
 
-        verify(kafkaTemplate).send(eq(TOPIC_RESULTS), eq("ORDER_1"), eventCaptor.capture());
+        verify(outboxPublisher).publish(eq(TOPIC_RESULTS), eq("ORDER_1"), eventCaptor.capture());
 
         InventoryReservationResultEvent sent = eventCaptor.getValue();
         assertThat(sent.orderId()).isEqualTo("ORDER_1");
@@ -211,11 +270,92 @@ class ReservationServiceImplBranchTest {
         assertThat(sent.lines().get(0).status()).isEqualTo("RESERVED");
     }
 
+    @Test
+    void reserveForOrder_whenOrderRedelivered_republishesCurrentStatusWithoutTouchingInventory() {
+        when(inventoryItemRepository.reserveAvailable(List.of(new StockDemand("SKU1", "MAIN", 5L))))
+                .thenReturn(List.of(new ReservationOutcome(1L, true)));
+
+        when(reservationRepository.save(any(Reservation.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        // committed between the first delivery and the redelivery
+        when(reservationRepository.findLineViewsByOrderId("ORDER_1"))
+                .thenReturn(List.of(), List.of(new ReservationLineView(
+                        1L, "ORDER_1", ReservationStatus.COMMITTED, "shipped",
+                        "SKU1", "MAIN", 5L, 5L, ReservationLineStatus.RESERVED, null)));
+
+        OrderCreatedEvent orderEvent = new OrderCreatedEvent(
+                "ORDER_1",
+                List.of(new OrderItemEvent(1L, "SKU1", "MAIN", 5L))
+        );
+
+        service.reserveForOrder(orderEvent);
+        ReservationResponseDto second = service.reserveForOrder(orderEvent);
+
+        assertThat(second.status()).isEqualTo("COMMITTED");
+        verify(inventoryItemRepository, times(1)).reserveAvailable(any());
+        verify(reservationRepository, times(1)).save(any(Reservation.class));
+
+        ArgumentCaptor<InventoryReservationResultEvent> eventCaptor =
+                ArgumentCaptor.forClass(InventoryReservationResultEvent.class);
+        verify(outboxPublisher, times(2)).publish(eq(TOPIC_RESULTS), eq("ORDER_1"), eventCaptor.capture());
+        assertThat(eventCaptor.getAllValues().get(1).status()).isEqualTo("COMMITTED");
+    }
+
+    @Test
+    void createReservation_whenOrderAlreadyReserved_throws() {
+        when(inventoryItemRepository.reserveAvailable(List.of(new StockDemand("SKU1", "MAIN", 5L))))
+                .thenReturn(List.of(new ReservationOutcome(1L, true)));
+
+        when(reservationRepository.save(any(Reservation.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        ReservationCreateRequestDto request = new ReservationCreateRequestDto(
+                "ORDER_1",
+                List.of(new ReservationItemRequestDto("SKU1", "MAIN", 5L))
+        );
+
+        service.createReservation(request);
+
+        assertThrows(IllegalStateException.class, () -> service.createReservation(request));
+        verify(inventoryItemRepository, times(1)).reserveAvailable(any());
+    }
+
+    @Test
+    void reserveForOrders_skipsOrdersThatAlreadyHaveAReservation() {
+        Reservation existing = newReservation(7L, "ORDER_1", ReservationStatus.CONFIRMED, List.of());
+        OrderCreatedEvent duplicate = new OrderCreatedEvent(
+                "ORDER_1",
+                List.of(new OrderItemEvent(1L, "SKU1", "MAIN", 5L))
+        );
+        OrderCreatedEvent fresh = new OrderCreatedEvent(
+                "ORDER_2",
+                List.of(new OrderItemEvent(2L, "SKU2", "MAIN", 1L))
+        );
+
+        when(reservationRepository.findLineViewsByOrderIdIn(List.of("ORDER_1", "ORDER_2")))
+                .thenReturn(List.of(new ReservationLineView(
+                        existing.getId(), "ORDER_1", ReservationStatus.CONFIRMED, null,
+                        "SKU1", "MAIN", 5L, 5L, ReservationLineStatus.RESERVED, null)));
+        when(inventoryItemRepository.reserveAvailable(List.of(new StockDemand("SKU2", "MAIN", 1L))))
+                .thenReturn(List.of(new ReservationOutcome(2L, true)));
+        when(reservationRepository.saveAll(any()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        OrderBatchOutcome outcome = service.reserveForOrders(List.of(duplicate, fresh, fresh));
+
+        assertThat(outcome.rejected()).isEmpty();
+        assertThat(outcome.reservations())
+                .extracting(ReservationResponseDto::orderId)
+                .containsExactly("ORDER_1", "ORDER_2");
+        verify(outboxPublisher).publish(eq(TOPIC_RESULTS), eq("ORDER_1"), any());
+        verify(outboxPublisher).publish(eq(TOPIC_RESULTS), eq("ORDER_2"), any());
+    }
+
     @Test
     void commitReservation_whenStatusInvalid_throws() {
         Reservation reservation = newReservation(1L, "ORDER_1", ReservationStatus.PENDING, List.of());
 
-        when(reservationRepository.findById(1L)).thenReturn(Optional.of(reservation));
+        when(reservationRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(reservation));
 
         assertThrows(IllegalStateException.class, () -> service.commitReservation(1L, "reason"));
 
@@ -231,9 +371,9 @@ class ReservationServiceImplBranchTest {
 
         fixLineReservationBackrefs(reservation);
 
-        when(reservationRepository.findById(1L)).thenReturn(Optional.of(reservation));
-        when(inventoryItemRepository.save(any(InventoryItem.class)))
-                .thenAnswer(invocation -> invocation.getArgument(0));
+        when(reservationRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(reservation));
+        when(inventoryItemRepository.findAllByKeys(List.of(new InventoryKey("SKU1", "MAIN")), false))
+                .thenReturn(List.of(item));
         when(reservationRepository.save(any(Reservation.class)))
                 .thenAnswer(invocation -> invocation.getArgument(0));
 
@@ -242,8 +382,10 @@ class ReservationServiceImplBranchTest {
         assertThat(response.status()).isEqualTo("COMMITTED");
         assertThat(item.getOnHandQuantity()).isEqualTo(5L);
         assertThat(item.getReservedQuantity()).isEqualTo(0L);
-        verify(inventoryItemRepository).save(any(InventoryItem.class));
+        verify(inventoryItemRepository).findAllByKeys(List.of(new InventoryKey("SKU1", "MAIN")), false);
         verify(reservationRepository).save(any(Reservation.class));
+        verify(stockLedger).recordAll(List.of(
+                new StockMovement(null, "SKU1", "MAIN", -5L, -5L, StockLedger.REASON_COMMIT)));
     }
 
     @Test
@@ -255,9 +397,9 @@ class ReservationServiceImplBranchTest {
 
         fixLineReservationBackrefs(reservation);
 
-        when(reservationRepository.findById(1L)).thenReturn(Optional.of(reservation));
-        when(inventoryItemRepository.save(any(InventoryItem.class)))
-                .thenAnswer(invocation -> invocation.getArgument(0));
+        when(reservationRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(reservation));
+        when(inventoryItemRepository.findAllByKeys(List.of(new InventoryKey("SKU1", "MAIN")), false))
+                .thenReturn(List.of(item));
         when(reservationRepository.save(any(Reservation.class)))
                 .thenAnswer(invocation -> invocation.getArgument(0));
 
@@ -266,10 +408,31 @@ class ReservationServiceImplBranchTest {
         assertThat(response.status()).isEqualTo("RELEASED");
         assertThat(item.getOnHandQuantity()).isEqualTo(10L);
         assertThat(item.getReservedQuantity()).isEqualTo(0L);
-        verify(inventoryItemRepository).save(any(InventoryItem.class));
+        verify(inventoryItemRepository).findAllByKeys(List.of(new InventoryKey("SKU1", "MAIN")), false);
         verify(reservationRepository).save(any(Reservation.class));
     }
 
+    @Test
+    void commitReservation_locksHotKeysUpFront() {
+        InventoryItem item = new InventoryItem("SKU1", "MAIN", 10, 5);
+        Reservation reservation = newReservation(1L, "ORDER_1", ReservationStatus.CONFIRMED, List.of(
+                newLine(reservationStub(), item, 5L, ReservationLineStatus.RESERVED)
+        ));
+
+        fixLineReservationBackrefs(reservation);
+
+        when(contentionTracker.shouldLock(new InventoryKey("SKU1", "MAIN"))).thenReturn(true);
+        when(reservationRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(reservation));
+        when(inventoryItemRepository.findAllByKeys(List.of(new InventoryKey("SKU1", "MAIN")), true))
+                .thenReturn(List.of(item));
+        when(reservationRepository.save(any(Reservation.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        service.commitReservation(1L, "ok");
+
+        verify(inventoryItemRepository, never()).findAllByKeys(any(), eq(false));
+    }
+
     @Test
     void commitReservation_whenCommitWouldMakeOnHandNegative_throws() {
         InventoryItem item = new InventoryItem("SKU1", "MAIN", 3, 5);
@@ -279,7 +442,9 @@ class ReservationServiceImplBranchTest {
 
         fixLineReservationBackrefs(reservation);
 
-        when(reservationRepository.findById(1L)).thenReturn(Optional.of(reservation));
+        when(reservationRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(reservation));
+        when(inventoryItemRepository.findAllByKeys(List.of(new InventoryKey("SKU1", "MAIN")), false))
+                .thenReturn(List.of(item));
 
         assertThrows(IllegalStateException.class, () -> service.commitReservation(1L, "ok"));
     }
@@ -293,7 +458,9 @@ class ReservationServiceImplBranchTest {
 
         fixLineReservationBackrefs(reservation);
 
-        when(reservationRepository.findById(1L)).thenReturn(Optional.of(reservation));
+        when(reservationRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(reservation));
+        when(inventoryItemRepository.findAllByKeys(List.of(new InventoryKey("SKU1", "MAIN")), false))
+                .thenReturn(List.of(item));
 
         assertThrows(IllegalStateException.class, () -> service.commitReservation(1L, "ok"));
     }
@@ -323,6 +490,219 @@ class ReservationServiceImplBranchTest {
         return reservation;
     }
 
+    @Test
+    void expireHolds_releasesAggregatedQuantities_andMarksHoldsExpired() {
+        Instant cutoff = Instant.now();
+        List<ReservedQuantity> released = List.of(new ReservedQuantity(7L, "SKU1", "MAIN", 5L));
+        when(reservationRepository.lockExpiredHoldIds(cutoff, 0L, 100)).thenReturn(List.of(3L, 4L));
+        when(reservationLineRepository.findReservedLines(List.of(3L, 4L))).thenReturn(List.of(
+                new ReservedLine(3L, 7L, "SKU1", "MAIN", 2L),
+                new ReservedLine(4L, 7L, "SKU1", "MAIN", 3L)
+        ));
+        when(inventoryItemRepository.findAllByKeys(List.of(new InventoryKey("SKU1", "MAIN")), true))
+                .thenReturn(List.of(stockedItem(7L, "SKU1", 10, 5)));
+        when(inventoryItemRepository.releaseReserved(released)).thenReturn(List.of());
+
+        ExpiredBatch batch = service.expireHolds(cutoff, 0L, 100);
+
+        assertThat(batch).isEqualTo(new ExpiredBatch(2, 0, 4L));
+        verify(inventoryItemRepository).releaseReserved(released);
+        verify(reservationRepository).updateStatus(eq(List.of(3L, 4L)), eq(ReservationStatus.EXPIRED), any(), any());
+    }
+
+    @Test
+    void expireHolds_whenReservedNoLongerCoversAHold_skipsIt_andLedgersOnlyWhatWasReleased() {
+        Instant cutoff = Instant.now();
+        when(reservationRepository.lockExpiredHoldIds(cutoff, 0L, 100)).thenReturn(List.of(3L, 4L));
+        when(reservationLineRepository.findReservedLines(List.of(3L, 4L))).thenReturn(List.of(
+                new ReservedLine(3L, 7L, "SKU1", "MAIN", 2L),
+                new ReservedLine(4L, 7L, "SKU1", "MAIN", 3L)
+        ));
+        when(inventoryItemRepository.findAllByKeys(List.of(new InventoryKey("SKU1", "MAIN")), true))
+                .thenReturn(List.of(stockedItem(7L, "SKU1", 10, 4)));
+        List<ReservedQuantity> released = List.of(new ReservedQuantity(7L, "SKU1", "MAIN", 2L));
+        when(inventoryItemRepository.releaseReserved(released)).thenReturn(List.of());
+
+        ExpiredBatch batch = service.expireHolds(cutoff, 0L, 100);
+
+        assertThat(batch).isEqualTo(new ExpiredBatch(1, 1, 4L));
+        verify(reservationRepository).updateStatus(eq(List.of(3L)), eq(ReservationStatus.EXPIRED), any(), any());
+        verify(stockLedger).recordAll(List.of(new StockMovement(7L, "SKU1", "MAIN", 0L, -2L, StockLedger.REASON_EXPIRE)));
+    }
+
+    @Test
+    void expireHolds_whenNothingExpired_keepsCursor_andTouchesNothing() {
+        Instant cutoff = Instant.now();
+        when(reservationRepository.lockExpiredHoldIds(cutoff, 42L, 100)).thenReturn(List.of());
+
+        ExpiredBatch batch = service.expireHolds(cutoff, 42L, 100);
+
+        assertThat(batch).isEqualTo(new ExpiredBatch(0, 0, 42L));
+        verify(inventoryItemRepository, never()).releaseReserved(any());
+        verify(reservationRepository, never()).updateStatus(any(), any(), any(), any());
+    }
+
+    @Test
+    void commitReservations_appliesHeldInOneDecrement_andRejectsTheRestIndividually() {
+        List<ReservedQuantity> committed = List.of(new ReservedQuantity(7L, "SKU1", "MAIN", 5L));
+        Reservation alreadyCommitted = reservationStub();
+        alreadyCommitted.setId(3L);
+        alreadyCommitted.setStatus(ReservationStatus.COMMITTED);
+        when(reservationRepository.lockHeldIds(any())).thenReturn(List.of(1L));
+        when(reservationRepository.findAllById(List.of(2L, 3L))).thenReturn(List.of(alreadyCommitted));
+        when(reservationLineRepository.findReservedLines(List.of(1L)))
+                .thenReturn(List.of(new ReservedLine(1L, 7L, "SKU1", "MAIN", 5L)));
+        when(inventoryItemRepository.findAllByKeys(List.of(new InventoryKey("SKU1", "MAIN")), true))
+                .thenReturn(List.of(stockedItem(7L, "SKU1", 10, 5)));
+        when(inventoryItemRepository.commitReserved(committed)).thenReturn(List.of());
+
+        List<ReservationBulkResultDto> results = service.commitReservations(List.of(
+                new ReservationActionItemDto(1L, "shipped"),
+                new ReservationActionItemDto(2L, "shipped"),
+                new ReservationActionItemDto(3L, "shipped"),
+                new ReservationActionItemDto(1L, "shipped")
+        ));
+
+        assertThat(results).extracting(ReservationBulkResultDto::status)
+                .containsExactly("COMMITTED", "REJECTED", "REJECTED", "REJECTED");
+        assertThat(results.get(1).message()).isEqualTo("Reservation not found with id 2");
+        assertThat(results.get(2).message()).isEqualTo("Cannot commit reservation in status COMMITTED");
+        assertThat(results.get(3).message()).isEqualTo("Duplicate reservationId in request");
+        verify(reservationRepository).updateStatus(eq(List.of(1L)), eq(ReservationStatus.COMMITTED), eq("shipped"), any());
+        verify(stockLedger).recordAll(List.of(new StockMovement(7L, "SKU1", "MAIN", -5L, -5L, StockLedger.REASON_COMMIT)));
+    }
+
+    @Test
+    void commitReservations_whenStockCannotCoverEveryHold_rejectsOnlyTheShortOnes() {
+        when(reservationRepository.lockHeldIds(any())).thenReturn(List.of(1L, 2L, 3L));
+        when(reservationLineRepository.findReservedLines(List.of(1L, 2L, 3L))).thenReturn(List.of(
+                new ReservedLine(1L, 7L, "SKU1", "MAIN", 4L),
+                new ReservedLine(2L, 7L, "SKU1", "MAIN", 4L),
+                new ReservedLine(2L, 8L, "SKU2", "MAIN", 1L),
+                new ReservedLine(3L, 8L, "SKU2", "MAIN", 1L)
+        ));
+        when(inventoryItemRepository.findAllByKeys(
+                List.of(new InventoryKey("SKU1", "MAIN"), new InventoryKey("SKU2", "MAIN")), true))
+                .thenReturn(List.of(stockedItem(7L, "SKU1", 6, 8), stockedItem(8L, "SKU2", 5, 2)));
+        List<ReservedQuantity> committed = List.of(
+                new ReservedQuantity(7L, "SKU1", "MAIN", 4L),
+                new ReservedQuantity(8L, "SKU2", "MAIN", 1L)
+        );
+        when(inventoryItemRepository.commitReserved(committed)).thenReturn(List.of());
+
+        List<ReservationBulkResultDto> results = service.commitReservations(List.of(
+                new ReservationActionItemDto(1L, "shipped"),
+                new ReservationActionItemDto(2L, "shipped"),
+                new ReservationActionItemDto(3L, "shipped")
+        ));
+
+        assertThat(results).extracting(ReservationBulkResultDto::status)
+                .containsExactly("COMMITTED", "REJECTED", "COMMITTED");
+        assertThat(results.get(1).message()).isEqualTo("Commit would reduce stock below zero for sku SKU1 at location MAIN");
+        verify(reservationRepository).updateStatus(eq(List.of(1L, 3L)), eq(ReservationStatus.COMMITTED), eq("shipped"), any());
+        verify(stockLedger).recordAll(List.of(
+                new StockMovement(7L, "SKU1", "MAIN", -4L, -4L, StockLedger.REASON_COMMIT),
+                new StockMovement(8L, "SKU2", "MAIN", -1L, -1L, StockLedger.REASON_COMMIT)
+        ));
+    }
+
+    @Test
+    void commitReservations_whenNoHoldCanBeCovered_writesNothing() {
+        when(reservationRepository.lockHeldIds(any())).thenReturn(List.of(1L));
+        when(reservationLineRepository.findReservedLines(List.of(1L)))
+                .thenReturn(List.of(new ReservedLine(1L, 7L, "SKU1", "MAIN", 5L)));
+        when(inventoryItemRepository.findAllByKeys(List.of(new InventoryKey("SKU1", "MAIN")), true))
+                .thenReturn(List.of(stockedItem(7L, "SKU1", 3, 5)));
+
+        List<ReservationBulkResultDto> results = service.commitReservations(List.of(
+                new ReservationActionItemDto(1L, "shipped")));
+
+        assertThat(results.get(0).status()).isEqualTo("REJECTED");
+        assertThat(results.get(0).message()).contains("SKU1");
+        verify(inventoryItemRepository, never()).commitReserved(any());
+        verify(reservationRepository, never()).updateStatus(any(), any(), any(), any());
+    }
+
+    @Test
+    void releaseReservations_updatesStatusOncePerReason() {
+        List<ReservedQuantity> released = List.of(new ReservedQuantity(7L, "SKU1", "MAIN", 5L));
+        when(reservationRepository.lockHeldIds(any())).thenReturn(List.of(1L, 2L, 3L));
+        when(reservationLineRepository.findReservedLines(List.of(1L, 2L, 3L))).thenReturn(List.of(
+                new ReservedLine(1L, 7L, "SKU1", "MAIN", 2L),
+                new ReservedLine(2L, 7L, "SKU1", "MAIN", 2L),
+                new ReservedLine(3L, 7L, "SKU1", "MAIN", 1L)
+        ));
+        when(inventoryItemRepository.findAllByKeys(List.of(new InventoryKey("SKU1", "MAIN")), true))
+                .thenReturn(List.of(stockedItem(7L, "SKU1", 10, 5)));
+        when(inventoryItemRepository.releaseReserved(released)).thenReturn(List.of());
+
+        List<ReservationBulkResultDto> results = service.releaseReservations(List.of(
+                new ReservationActionItemDto(1L, "cancelled"),
+                new ReservationActionItemDto(2L, "out of stock"),
+                new ReservationActionItemDto(3L, "cancelled")
+        ));
+
+        assertThat(results).extracting(ReservationBulkResultDto::status).containsOnly("RELEASED");
+        verify(inventoryItemRepository).releaseReserved(released);
+        verify(reservationRepository).updateStatus(eq(List.of(1L, 3L)), eq(ReservationStatus.RELEASED), eq("cancelled"), any());
+        verify(reservationRepository).updateStatus(eq(List.of(2L)), eq(ReservationStatus.RELEASED), eq("out of stock"), any());
+    }
+
+    @Test
+    void releaseReservations_whenReservedCannotCoverEveryHold_rejectsOnlyTheShortOnes() {
+        when(reservationRepository.lockHeldIds(any())).thenReturn(List.of(1L, 2L));
+        when(reservationLineRepository.findReservedLines(List.of(1L, 2L))).thenReturn(List.of(
+                new ReservedLine(1L, 7L, "SKU1", "MAIN", 3L),
+                new ReservedLine(2L, 7L, "SKU1", "MAIN", 3L)
+        ));
+        when(inventoryItemRepository.findAllByKeys(List.of(new InventoryKey("SKU1", "MAIN")), true))
+                .thenReturn(List.of(stockedItem(7L, "SKU1", 10, 4)));
+        List<ReservedQuantity> released = List.of(new ReservedQuantity(7L, "SKU1", "MAIN", 3L));
+        when(inventoryItemRepository.releaseReserved(released)).thenReturn(List.of());
+
+        List<ReservationBulkResultDto> results = service.releaseReservations(List.of(
+                new ReservationActionItemDto(1L, "cancelled"),
+                new ReservationActionItemDto(2L, "cancelled")
+        ));
+
+        assertThat(results).extracting(ReservationBulkResultDto::status).containsExactly("RELEASED", "REJECTED");
+        assertThat(results.get(1).message()).isEqualTo("Release would reduce reserved below zero for sku SKU1 at location MAIN");
+        verify(reservationRepository).updateStatus(eq(List.of(1L)), eq(ReservationStatus.RELEASED), eq("cancelled"), any());
+        verify(stockLedger).recordAll(List.of(new StockMovement(7L, "SKU1", "MAIN", 0L, -3L, StockLedger.REASON_RELEASE)));
+    }
+
+    @Test
+    void createReservations_rejectsUnknownItemsAndDuplicates_withoutFailingTheBatch() {
+        when(inventoryItemRepository.reserveAvailable(List.of(
+                new StockDemand("SKU1", "MAIN", 5L),
+                new StockDemand("SKU_UNKNOWN", "MAIN", 1L)
+        ))).thenReturn(List.of(
+                new ReservationOutcome(1L, false),
+                new ReservationOutcome(null, false)
+        ));
+        when(inventoryItemRepository.reserveAvailable(List.of(new StockDemand("SKU1", "MAIN", 5L))))
+                .thenReturn(List.of(new ReservationOutcome(1L, true)));
+        when(reservationRepository.saveAll(any()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        ReservationCreateRequestDto good = new ReservationCreateRequestDto(
+                "ORDER_1", List.of(new ReservationItemRequestDto("SKU1", "MAIN", 5L)));
+        ReservationCreateRequestDto bad = new ReservationCreateRequestDto(
+                "ORDER_2", List.of(new ReservationItemRequestDto("SKU_UNKNOWN", "MAIN", 1L)));
+
+        List<ReservationBulkResultDto> results = service.createReservations(List.of(good, bad, good));
+
+        assertThat(results).extracting(ReservationBulkResultDto::status)
+                .containsExactly("CONFIRMED", "REJECTED", "REJECTED");
+        assertThat(results.get(2).message()).isEqualTo("Duplicate orderId in request");
+    }
+
+    private static InventoryItem stockedItem(Long id, String sku, long onHand, long reserved) {
+        InventoryItem item = new InventoryItem(sku, "MAIN", onHand, reserved);
+        ReflectionTestUtils.setField(item, "id", id);
+        return item;
+    }
+
     private ReservationLine newLine(Reservation reservation, InventoryItem item, long reservedQty, ReservationLineStatus status) {
         return ReservationLine.builder()
                 .reservation(reservation)
@@ -357,5 +737,13 @@ class ReservationServiceImplBranchTest {
             line.setReservation(reservation);
         }
     }
-}
 
+    private StockAllocator singleLocationAllocator() {
+        return new StockAllocator(
+                new AllocationProperties(false, "closest", AllocationProperties.ApplyTo.UNLOCATED, List.of("MAIN")),
+                availabilityIndex,
+                new ReservationShards(new ShardProperties(false, 1)),
+                List.of(new ClosestFirstStrategy())
+        );
+    }
+}
@@ -1,24 +1,40 @@
 package com.kevdev.inventory.service.impl;
 
+import com.kevdev.inventory.config.AllocationProperties;
+import com.kevdev.inventory.config.IdempotencyProperties;
+import com.kevdev.inventory.config.InventoryCacheProperties;
+import com.kevdev.inventory.config.ReservationExpiryProperties;
+import com.kevdev.inventory.config.ShardProperties;
 import com.kevdev.inventory.dto.ReservationResponseDto;
-import com.kevdev.inventory.entity.InventoryItem;
 import com.kevdev.inventory.entity.Reservation;
 import com.kevdev.inventory.messaging.event.InventoryReservationResultEvent;
 import com.kevdev.inventory.messaging.event.OrderCreatedEvent;
 import com.kevdev.inventory.messaging.event.OrderItemEvent;
+import com.kevdev.inventory.messaging.outbox.OutboxPublisher;
 import com.kevdev.inventory.repository.InventoryItemRepository;
+import com.kevdev.inventory.repository.ReservationLineRepository;
+import com.kevdev.inventory.repository.ReservationOutcome;
 import com.kevdev.inventory.repository.ReservationRepository;
+import com.kevdev.inventory.repository.StockDemand;
+import com.kevdev.inventory.service.cache.InventoryItemCache;
+import com.kevdev.inventory.service.idempotency.SeenOrderRegistry;
+import com.kevdev.inventory.service.allocation.ClosestFirstStrategy;
+import com.kevdev.inventory.service.allocation.StockAllocator;
+import com.kevdev.inventory.service.availability.AvailabilityIndex;
+import com.kevdev.inventory.service.ledger.StockLedger;
+import com.kevdev.inventory.service.metrics.ReservationMetrics;
+import com.kevdev.inventory.service.retry.ContentionTracker;
+import com.kevdev.inventory.service.shard.ReservationShards;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.beans.factory.ObjectProvider;
-import org.springframework.kafka.core.KafkaTemplate;
 
+import java.time.Duration;
 import java.util.List;
-import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
@@ -34,20 +50,32 @@ class ReservationServiceImplTest {
 
     @Mock ReservationRepository reservationRepository;
     @Mock InventoryItemRepository inventoryItemRepository;
+    @Mock ReservationLineRepository reservationLineRepository;
 
-    @Mock ObjectProvider<KafkaTemplate<String, InventoryReservationResultEvent>> inventoryResultKafkaTemplateProvider;
-    @Mock KafkaTemplate<String, InventoryReservationResultEvent> kafkaTemplate;
+    @Mock OutboxPublisher outboxPublisher;
+
+    @Mock StockLedger stockLedger;
+
+    @Mock AvailabilityIndex availabilityIndex;
+
+    @Mock ContentionTracker contentionTracker;
 
     private ReservationServiceImpl reservationService;
 
     @BeforeEach
     void setUp() {
-        when(inventoryResultKafkaTemplateProvider.getIfAvailable()).thenReturn(kafkaTemplate);
-
         reservationService = new ReservationServiceImpl(
                 reservationRepository,
                 inventoryItemRepository,
-                inventoryResultKafkaTemplateProvider
+                reservationLineRepository,
+                outboxPublisher,
+                new SeenOrderRegistry(new IdempotencyProperties(100)),
+                new InventoryItemCache(new InventoryCacheProperties(true, 1_000, Duration.ofSeconds(30)), new SimpleMeterRegistry()),
+                new ReservationExpiryProperties(Duration.ofMinutes(15), true, 500, Duration.ofSeconds(5)),
+                new ReservationMetrics(new SimpleMeterRegistry()),
+                stockLedger,
+                singleLocationAllocator(),
+                contentionTracker
         );
     }
 
@@ -57,10 +85,8 @@ class ReservationServiceImplTest {
 
         OrderCreatedEvent orderEvent = buildOrderCreatedEvent(orderId);
 
-        InventoryItem inventoryItem = new InventoryItem(TEST_SKU, TEST_LOCATION, 10, 0);
-
-        when(inventoryItemRepository.findBySkuAndLocationId(TEST_SKU, TEST_LOCATION))
-                .thenReturn(Optional.of(inventoryItem));
+        when(inventoryItemRepository.reserveAvailable(List.of(new StockDemand(TEST_SKU, TEST_LOCATION, 5L))))
+                .thenReturn(List.of(new ReservationOutcome(1L, true)));
 
         when(reservationRepository.save(any(Reservation.class)))
                 .thenAnswer(invocation -> invocation.getArgument(0));
@@ -74,9 +100,10 @@ class ReservationServiceImplTest {
         assertThat(response.orderId()).isEqualTo(orderId);
         assertThat(response.status()).isEqualTo("CONFIRMED");
 
-        assertThat(inventoryItem.getReservedQuantity()).isEqualTo(5L);
+        assertThat(response.items()).hasSize(1);
+        assertThat(response.items().get(0).reservedQuantity()).isEqualTo(5L);
 
-        verify(kafkaTemplate).send(
+        verify(outboxPublisher).publish(
                 eq("inventory.reservation.results"),
                 eq(orderId),
                 eventCaptor.capture()
@@ -100,5 +127,13 @@ class ReservationServiceImplTest {
 
         return new OrderCreatedEvent(orderId, List.of(item));
     }
-}
 
+    private StockAllocator singleLocationAllocator() {
+        return new StockAllocator(
+                new AllocationProperties(false, "closest", AllocationProperties.ApplyTo.UNLOCATED, List.of("MAIN")),
+                availabilityIndex,
+                new ReservationShards(new ShardProperties(false, 1)),
+                List.of(new ClosestFirstStrategy())
+        );
+    }
+}
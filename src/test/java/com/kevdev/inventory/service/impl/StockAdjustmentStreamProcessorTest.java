@@ -0,0 +1,101 @@
+package com.kevdev.inventory.service.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kevdev.inventory.repository.AdjustmentStatus;
+import com.kevdev.inventory.repository.StockDelta;
+import com.kevdev.inventory.service.InventoryService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StockAdjustmentStreamProcessorTest {
+
+    @Mock
+    InventoryService inventoryService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private StockAdjustmentStreamProcessor processor;
+
+    @BeforeEach
+    void setUp() {
+        processor = new StockAdjustmentStreamProcessor(inventoryService, objectMapper);
+    }
+
+    @Test
+    void process_writesOneResultPerLine_inInputOrder() throws Exception {
+        String input = """
+                {"sku":"SKU-1","locationId":"MAIN","quantityDelta":5}
+                not json
+                {"sku":"","locationId":"MAIN","quantityDelta":1}
+
+                {"sku":"SKU-2","locationId":"MAIN","quantityDelta":-3}
+                """;
+        when(inventoryService.adjustStockBatch(List.of(
+                new StockDelta("SKU-1", "MAIN", 5),
+                new StockDelta("SKU-2", "MAIN", -3)
+        ))).thenReturn(List.of(AdjustmentStatus.APPLIED, AdjustmentStatus.INSUFFICIENT_STOCK));
+
+        List<JsonNode> results = run(input);
+
+        assertThat(results).extracting(node -> node.get("line").asLong()).containsExactly(1L, 2L, 3L, 5L);
+        assertThat(results).extracting(node -> node.get("status").asText())
+                .containsExactly("APPLIED", "INVALID", "INVALID", "INSUFFICIENT_STOCK");
+        assertThat(results.get(3).get("quantityDelta").asInt()).isEqualTo(-3);
+    }
+
+    @Test
+    void process_whenChunkFails_marksItsRowsFailed_andContinues() throws Exception {
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < StockAdjustmentStreamProcessor.CHUNK_SIZE + 1; i++) {
+            input.append("{\"sku\":\"SKU-").append(i).append("\",\"locationId\":\"MAIN\",\"quantityDelta\":1}\n");
+        }
+        when(inventoryService.adjustStockBatch(any()))
+                .thenThrow(new IllegalStateException("boom"))
+                .thenReturn(List.of(AdjustmentStatus.APPLIED));
+
+        List<JsonNode> results = run(input.toString());
+
+        assertThat(results).hasSize(StockAdjustmentStreamProcessor.CHUNK_SIZE + 1);
+        assertThat(results.get(0).get("status").asText()).isEqualTo("FAILED");
+        assertThat(results.get(StockAdjustmentStreamProcessor.CHUNK_SIZE).get("status").asText()).isEqualTo("APPLIED");
+        verify(inventoryService, times(2)).adjustStockBatch(any());
+    }
+
+    @Test
+    void process_whenNoValidRows_doesNotCallService() throws Exception {
+        List<JsonNode> results = run("{\"sku\":\"SKU-1\",\"locationId\":\"MAIN\"}\n");
+
+        assertThat(results).singleElement()
+                .satisfies(node -> assertThat(node.get("status").asText()).isEqualTo("INVALID"));
+        verifyNoInteractions(inventoryService);
+    }
+
+    private List<JsonNode> run(String input) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        processor.process(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), output);
+
+        List<JsonNode> results = new ArrayList<>();
+        for (String line : output.toString(StandardCharsets.UTF_8).split("\n")) {
+            results.add(objectMapper.readTree(line));
+        }
+        return results;
+    }
+}
@@ -0,0 +1,65 @@
+package com.kevdev.inventory.service.ledger;
+
+import com.kevdev.inventory.config.StockLedgerProperties;
+import com.kevdev.inventory.repository.StockAdjustmentRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LedgerEndpointTest {
+
+    private static final Instant NOW = Instant.parse("2024-05-01T12:00:00Z");
+
+    @Mock
+    StockLedgerRebuilder rebuilder;
+
+    @Mock
+    StockAdjustmentRepository stockAdjustmentRepository;
+
+    @Test
+    void rebuild_refusesRepair_whileMovementsAreStillArriving() {
+        when(stockAdjustmentRepository.findLatestMovementAt()).thenReturn(Optional.of(NOW.minusSeconds(10)));
+
+        assertThatThrownBy(() -> endpoint().rebuild(true)).isInstanceOf(IllegalStateException.class);
+        verify(rebuilder, never()).rebuild(anyBoolean());
+    }
+
+    @Test
+    void rebuild_repairs_onceWritesHaveBeenQuietForThePeriod() {
+        LedgerRebuildReport report = new LedgerRebuildReport(8, 1, true, 5);
+        when(stockAdjustmentRepository.findLatestMovementAt()).thenReturn(Optional.of(NOW.minusSeconds(120)));
+        when(rebuilder.rebuild(true)).thenReturn(report);
+
+        assertThat(endpoint().rebuild(true)).isEqualTo(report);
+    }
+
+    @Test
+    void rebuild_verifiesWithoutCheckingForWriters() {
+        LedgerRebuildReport report = new LedgerRebuildReport(8, 0, false, 5);
+        when(rebuilder.rebuild(false)).thenReturn(report);
+
+        assertThat(endpoint().rebuild(false)).isEqualTo(report);
+        verify(stockAdjustmentRepository, never()).findLatestMovementAt();
+    }
+
+    private LedgerEndpoint endpoint() {
+        StockLedgerProperties properties =
+                new StockLedgerProperties(true, Duration.ofMinutes(5), 1000, 8, Duration.ofMinutes(1));
+        return new LedgerEndpoint(rebuilder, stockAdjustmentRepository, properties, Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+}
@@ -0,0 +1,62 @@
+package com.kevdev.inventory.service.metrics;
+
+import com.kevdev.inventory.dto.ReservationItemResponseDto;
+import com.kevdev.inventory.dto.ReservationResponseDto;
+import com.kevdev.inventory.entity.ReservationStatus;
+import com.kevdev.inventory.service.metrics.ReservationMetrics.Operation;
+import com.kevdev.inventory.service.metrics.ReservationMetrics.Stage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReservationMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ReservationMetrics metrics = new ReservationMetrics(registry);
+
+    @Test
+    void recordOutcome_countsStatusAndLinesByOutcome() {
+        metrics.recordOutcome(new ReservationResponseDto(1L, "ORDER_1", "PARTIAL", null, List.of(
+                new ReservationItemResponseDto("SKU1", "MAIN", 2, 2, "RESERVED", null),
+                new ReservationItemResponseDto("SKU2", "MAIN", 2, 0, "FAILED", "Insufficient available stock"),
+                new ReservationItemResponseDto("SKU3", "MAIN", 1, 1, "RESERVED", null)
+        )));
+
+        assertThat(registry.get(ReservationMetrics.STATUS_COUNTER).tag("status", "PARTIAL").counter().count()).isEqualTo(1.0);
+        assertThat(registry.get(ReservationMetrics.LINES_COUNTER).tag("status", "RESERVED").counter().count()).isEqualTo(2.0);
+        assertThat(registry.get(ReservationMetrics.LINES_COUNTER).tag("status", "FAILED").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void meters_arePreRegistered_withBoundedTags() {
+        metrics.recordStatus(ReservationStatus.EXPIRED, 3);
+        String result = metrics.time(Operation.COMMIT, Stage.FLUSH, () -> "done");
+
+        assertThat(result).isEqualTo("done");
+        assertThat(registry.get(ReservationMetrics.STAGE_TIMER)
+                .tag("operation", "commit").tag("stage", "flush").timer().count()).isEqualTo(1L);
+        assertThat(registry.get(ReservationMetrics.STAGE_TIMER).timers())
+                .hasSize(Operation.values().length * Stage.values().length);
+        assertThat(registry.get(ReservationMetrics.STATUS_COUNTER).tag("status", "EXPIRED").counter().count()).isEqualTo(3.0);
+    }
+
+    @Test
+    void recordStatus_countsOnlyOnceTheTransactionCommits() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            metrics.recordStatus(ReservationStatus.COMMITTED, 1);
+            assertThat(registry.get(ReservationMetrics.STATUS_COUNTER).tag("status", "COMMITTED").counter().count()).isZero();
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(registry.get(ReservationMetrics.STATUS_COUNTER).tag("status", "COMMITTED").counter().count()).isEqualTo(1.0);
+    }
+}
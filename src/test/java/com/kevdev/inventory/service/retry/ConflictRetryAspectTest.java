@@ -0,0 +1,190 @@
+package com.kevdev.inventory.service.retry;
+
+import com.kevdev.inventory.config.ConflictRetryProperties;
+import com.kevdev.inventory.config.ShardProperties;
+import com.kevdev.inventory.entity.InventoryKey;
+import com.kevdev.inventory.service.shard.ReservationShards;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ConflictRetryAspectTest {
+
+    private static final InventoryKey KEY = new InventoryKey("SKU1", "MAIN");
+
+    @Mock
+    ProceedingJoinPoint joinPoint;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void retriesConflictAndReturnsResultOfLaterAttempt() throws Throwable {
+        ConflictRetryAspect aspect = aspect(properties(5, 50, 2, 10));
+        when(joinPoint.proceed())
+                .thenThrow(conflict())
+                .thenReturn("done");
+
+        Object result = aspect.retry(joinPoint, annotation());
+
+        assertThat(result).isEqualTo("done");
+        assertThat(count(ConflictRetryAspect.CONFLICTS_COUNTER)).isEqualTo(1.0);
+        assertThat(count(ConflictRetryAspect.RETRIES_COUNTER)).isEqualTo(1.0);
+    }
+
+    @Test
+    void escalatesToPessimisticLockAfterConfiguredAttempts() throws Throwable {
+        ContentionTracker tracker = tracker(properties(5, 50, 2, 10));
+        ConflictRetryAspect aspect = new ConflictRetryAspect(properties(5, 50, 2, 10), tracker, meterRegistry);
+        List<Boolean> locked = new ArrayList<>();
+        when(joinPoint.proceed()).thenAnswer(invocation -> {
+            locked.add(tracker.shouldLock(KEY));
+            if (locked.size() < 3) {
+                throw conflict();
+            }
+            return "done";
+        });
+
+        aspect.retry(joinPoint, annotation());
+
+        assertThat(locked).containsExactly(false, false, true);
+    }
+
+    @Test
+    void givesUpAfterMaxAttempts() throws Throwable {
+        ConflictRetryAspect aspect = aspect(properties(3, 50, 2, 10));
+        when(joinPoint.proceed()).thenThrow(conflict());
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> aspect.retry(joinPoint, annotation()));
+
+        verify(joinPoint, times(3)).proceed();
+        assertThat(meterRegistry.get(ConflictRetryAspect.EXHAUSTED_COUNTER).tag("reason", "attempts").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void failsFastOnceRetryBudgetIsSpent() throws Throwable {
+        ConflictRetryAspect aspect = aspect(properties(5, 1, 2, 10));
+        when(joinPoint.proceed()).thenThrow(conflict());
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> aspect.retry(joinPoint, annotation()));
+
+        // one retry from the initial budget, then the bucket is empty
+        verify(joinPoint, times(2)).proceed();
+        assertThat(meterRegistry.get(ConflictRetryAspect.EXHAUSTED_COUNTER).tag("reason", "budget").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void keysThatKeepConflictingBecomeHot() throws Throwable {
+        ContentionTracker tracker = tracker(properties(5, 50, 10, 2));
+        ConflictRetryAspect aspect = new ConflictRetryAspect(properties(5, 50, 10, 2), tracker, meterRegistry);
+        when(joinPoint.proceed()).thenAnswer(invocation -> {
+            tracker.shouldLock(KEY);
+            throw conflict();
+        }).thenAnswer(invocation -> {
+            tracker.shouldLock(KEY);
+            throw conflict();
+        }).thenReturn("done");
+
+        aspect.retry(joinPoint, annotation());
+
+        assertThat(tracker.isHot(KEY)).isTrue();
+        assertThat(tracker.shouldLock(KEY)).isTrue();
+        assertThat(tracker.hotKeys(10)).containsExactly(new HotKey("SKU1", "MAIN", 2));
+        assertThat(meterRegistry.get(ContentionTracker.HOT_KEYS_GAUGE).gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    void doesNotRetryInsideAnExistingTransaction() throws Throwable {
+        ConflictRetryAspect aspect = aspect(properties(5, 50, 2, 10));
+        when(joinPoint.proceed()).thenThrow(conflict());
+
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            assertThrows(ObjectOptimisticLockingFailureException.class, () -> aspect.retry(joinPoint, annotation()));
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+
+        verify(joinPoint, times(1)).proceed();
+    }
+
+    @Test
+    void backsOffOffTheShardAndResumesAtTheNextAttempt() throws Throwable {
+        ConflictRetryAspect aspect = aspect(new ConflictRetryProperties(
+                true, 5, Duration.ofMillis(1), Duration.ofMillis(1), 0.0, 50, 2, 10, Duration.ofMinutes(1), 100));
+        ReservationShards shards = new ReservationShards(new ShardProperties(true, 2));
+        List<String> threads = new ArrayList<>();
+        when(joinPoint.proceed()).thenAnswer(invocation -> {
+            threads.add(Thread.currentThread().getName());
+            throw conflict();
+        }).thenAnswer(invocation -> {
+            threads.add(Thread.currentThread().getName());
+            return "done";
+        });
+
+        try {
+            Object result = shards.execute(List.of(KEY), () -> {
+                try {
+                    return aspect.retry(joinPoint, annotation());
+                } catch (Throwable ex) {
+                    throw new IllegalStateException(ex);
+                }
+            });
+
+            assertThat(result).isEqualTo("done");
+        } finally {
+            shards.shutdown();
+        }
+
+        String shardThread = "reservation-shard-" + shards.shardOf(KEY);
+        assertThat(threads).containsExactly(shardThread, shardThread);
+        assertThat(count(ConflictRetryAspect.RETRIES_COUNTER)).isEqualTo(1.0);
+    }
+
+    private ConflictRetryAspect aspect(ConflictRetryProperties properties) {
+        return new ConflictRetryAspect(properties, tracker(properties), meterRegistry);
+    }
+
+    private ContentionTracker tracker(ConflictRetryProperties properties) {
+        return new ContentionTracker(properties, meterRegistry);
+    }
+
+    private double count(String name) {
+        return meterRegistry.get(name).tag("operation", "test").counter().count();
+    }
+
+    private static ConflictRetryProperties properties(int maxAttempts, int budgetCapacity, int escalateAfter, int hotKeyThreshold) {
+        return new ConflictRetryProperties(
+                true, maxAttempts, Duration.ZERO, Duration.ZERO, 0.0, budgetCapacity,
+                escalateAfter, hotKeyThreshold, Duration.ofMinutes(1), 100);
+    }
+
+    private static ObjectOptimisticLockingFailureException conflict() {
+        return new ObjectOptimisticLockingFailureException("InventoryItem", 1L);
+    }
+
+    private static RetryOnConflict annotation() throws NoSuchMethodException {
+        return ConflictRetryAspectTest.class.getDeclaredMethod("annotated").getAnnotation(RetryOnConflict.class);
+    }
+
+    @RetryOnConflict("test")
+    private static void annotated() {
+    }
+}
@@ -0,0 +1,163 @@
+package com.kevdev.inventory.service.shard;
+
+import com.kevdev.inventory.config.ShardProperties;
+import com.kevdev.inventory.entity.InventoryKey;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ReservationShardsTest {
+
+    private ReservationShards shards;
+
+    @BeforeEach
+    void setUp() {
+        shards = new ReservationShards(new ShardProperties(true, 4));
+    }
+
+    @AfterEach
+    void tearDown() {
+        shards.shutdown();
+    }
+
+    @Test
+    void execute_runsWorkForTheSameKeyOnTheSameShardThread() {
+        InventoryKey key = new InventoryKey("SKU1", "MAIN");
+
+        String first = shards.execute(List.of(key), () -> Thread.currentThread().getName());
+        String second = shards.execute(List.of(key), () -> Thread.currentThread().getName());
+
+        assertThat(first).isEqualTo("reservation-shard-" + shards.shardOf(key));
+        assertThat(second).isEqualTo(first);
+    }
+
+    @Test
+    void execute_rethrowsFailuresFromTheShardThread() {
+        InventoryKey key = new InventoryKey("SKU1", "MAIN");
+
+        assertThrows(IllegalArgumentException.class, () -> shards.execute(List.of(key), () -> {
+            throw new IllegalArgumentException("Inventory item not found");
+        }));
+    }
+
+    @Test
+    void execute_acrossShards_excludesSingleShardWorkUntilDone() throws Exception {
+        List<InventoryKey> keys = keysOnDistinctShards(2);
+        BitSet both = shards.shardsFor(keys);
+        int firstShard = both.nextSetBit(0);
+
+        CountDownLatch multiShardRunning = new CountDownLatch(1);
+        CountDownLatch finishMultiShard = new CountDownLatch(1);
+        AtomicBoolean multiShardDone = new AtomicBoolean();
+
+        CompletableFuture<Void> multiShard = CompletableFuture.runAsync(() -> shards.execute(both, () -> {
+            multiShardRunning.countDown();
+            await(finishMultiShard);
+            multiShardDone.set(true);
+            return null;
+        }));
+        assertThat(multiShardRunning.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<Boolean> singleShard = shards.submit(firstShard, multiShardDone::get);
+        assertThat(singleShard).isNotDone();
+
+        finishMultiShard.countDown();
+
+        assertThat(singleShard.get(5, TimeUnit.SECONDS)).isTrue();
+        multiShard.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void execute_whenDisabled_runsOnCallerThread() {
+        ReservationShards disabled = new ReservationShards(new ShardProperties(false, 4));
+
+        String thread = disabled.execute(List.of(new InventoryKey("SKU1", "MAIN")), () -> Thread.currentThread().getName());
+
+        assertThat(thread).isEqualTo(Thread.currentThread().getName());
+    }
+
+    @Test
+    void execute_resubmitsWorkThatRetriesOffTheShard() {
+        InventoryKey key = new InventoryKey("SKU1", "MAIN");
+        List<Object> states = new ArrayList<>();
+
+        String thread = shards.execute(List.of(key), () -> {
+            Object state = ReservationShards.takeRetryState();
+            states.add(state);
+            if (state == null) {
+                throw new RetryOffShardException(Duration.ofMillis(1), "attempt-2", new IllegalStateException("conflict"));
+            }
+            return Thread.currentThread().getName();
+        });
+
+        assertThat(states).containsExactly(null, "attempt-2");
+        assertThat(thread).isEqualTo("reservation-shard-" + shards.shardOf(key));
+    }
+
+    @Test
+    void execute_acrossShards_releasesShardsWhileWaitingToRetry() throws Exception {
+        List<InventoryKey> keys = keysOnDistinctShards(2);
+        BitSet both = shards.shardsFor(keys);
+        int firstShard = both.nextSetBit(0);
+        AtomicBoolean otherWorkRan = new AtomicBoolean();
+
+        String result = shards.execute(both, () -> {
+            if (ReservationShards.takeRetryState() == null) {
+                // queued behind this run; it can only finish once the shards are released
+                shards.submit(firstShard, () -> {
+                    otherWorkRan.set(true);
+                    return null;
+                });
+                throw new RetryOffShardException(Duration.ofMillis(50), "retry", new IllegalStateException("conflict"));
+            }
+            return otherWorkRan.get() ? "released" : "held";
+        });
+
+        assertThat(result).isEqualTo("released");
+    }
+
+    @Test
+    void execute_rethrowsFailuresAfterAnOffShardRetry() {
+        InventoryKey key = new InventoryKey("SKU1", "MAIN");
+
+        assertThrows(IllegalStateException.class, () -> shards.execute(List.of(key), () -> {
+            if (ReservationShards.takeRetryState() == null) {
+                throw new RetryOffShardException(Duration.ZERO, "retry", new IllegalStateException("conflict"));
+            }
+            throw new IllegalStateException("still conflicting");
+        }));
+    }
+
+    private List<InventoryKey> keysOnDistinctShards(int count) {
+        List<InventoryKey> keys = new ArrayList<>();
+        BitSet used = new BitSet();
+        for (int i = 0; keys.size() < count; i++) {
+            InventoryKey key = new InventoryKey("SKU" + i, "MAIN");
+            if (!used.get(shards.shardOf(key))) {
+                used.set(shards.shardOf(key));
+                keys.add(key);
+            }
+        }
+        return keys;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
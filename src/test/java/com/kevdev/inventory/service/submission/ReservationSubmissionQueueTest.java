@@ -0,0 +1,133 @@
+package com.kevdev.inventory.service.submission;
+
+import com.kevdev.inventory.config.AsyncReservationProperties;
+import com.kevdev.inventory.dto.ReservationCreateRequestDto;
+import com.kevdev.inventory.dto.ReservationItemRequestDto;
+import com.kevdev.inventory.dto.ReservationResponseDto;
+import com.kevdev.inventory.dto.ReservationSubmissionDto;
+import com.kevdev.inventory.messaging.event.OrderCreatedEvent;
+import com.kevdev.inventory.service.impl.ReservationBatchProcessor;
+import com.kevdev.inventory.service.impl.ReservationBatchProcessor.BatchResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationSubmissionQueueTest {
+
+    @Mock ReservationBatchProcessor batchProcessor;
+
+    @Test
+    void drainOnce_reservesQueuedOrdersAsOneBatch_andRecordsResults() throws Exception {
+        ReservationSubmissionQueue queue = queue(10);
+        when(batchProcessor.reserve(any())).thenReturn(new BatchResult(
+                List.of(new ReservationResponseDto(1L, "ORDER_1", "CONFIRMED", null, List.of())),
+                Map.of("ORDER_2", new IllegalArgumentException("Inventory item not found for sku SKU1 at location MAIN"))
+        ));
+
+        assertThat(queue.submit(request("ORDER_1")).status()).isEqualTo(ReservationSubmissionDto.QUEUED);
+        queue.submit(request("ORDER_2"));
+
+        assertThat(queue.drainOnce(Duration.ZERO)).isEqualTo(2);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<OrderCreatedEvent>> batch = ArgumentCaptor.forClass(List.class);
+        verify(batchProcessor).reserve(batch.capture());
+        assertThat(batch.getValue()).extracting(OrderCreatedEvent::orderId).containsExactly("ORDER_1", "ORDER_2");
+        assertThat(queue.find("ORDER_1").orElseThrow().status()).isEqualTo(ReservationSubmissionDto.COMPLETED);
+        assertThat(queue.find("ORDER_1").orElseThrow().reservation().reservationId()).isEqualTo(1L);
+        assertThat(queue.find("ORDER_2").orElseThrow().status()).isEqualTo(ReservationSubmissionDto.FAILED);
+        assertThat(queue.find("ORDER_2").orElseThrow().message())
+                .isEqualTo("Inventory item not found for sku SKU1 at location MAIN");
+    }
+
+    @Test
+    void submit_whenQueueFull_throwsAndForgetsTheSubmission() {
+        ReservationSubmissionQueue queue = queue(1);
+        queue.submit(request("ORDER_1"));
+
+        assertThrows(ReservationQueueFullException.class, () -> queue.submit(request("ORDER_2")));
+        assertThat(queue.find("ORDER_2")).isEmpty();
+    }
+
+    @Test
+    void submit_whenOrderStillPending_returnsItWithoutQueueingAgain() {
+        ReservationSubmissionQueue queue = queue(1);
+        queue.submit(request("ORDER_1"));
+
+        ReservationSubmissionDto again = queue.submit(request("ORDER_1"));
+
+        assertThat(again.status()).isEqualTo(ReservationSubmissionDto.QUEUED);
+    }
+
+    @Test
+    void submit_whenOrderAlreadyFinished_returnsItWithoutQueueingAgain() throws Exception {
+        ReservationSubmissionQueue queue = queue(10);
+        when(batchProcessor.reserve(any())).thenReturn(new BatchResult(
+                List.of(new ReservationResponseDto(1L, "ORDER_1", "CONFIRMED", null, List.of())), Map.of()));
+        queue.submit(request("ORDER_1"));
+        queue.drainOnce(Duration.ZERO);
+
+        ReservationSubmissionDto again = queue.submit(request("ORDER_1"));
+
+        assertThat(again.status()).isEqualTo(ReservationSubmissionDto.COMPLETED);
+        assertThat(queue.drainOnce(Duration.ZERO)).isZero();
+    }
+
+    @Test
+    void submit_concurrentDuplicates_queueTheOrderOnce() throws Exception {
+        ReservationSubmissionQueue queue = queue(100);
+        when(batchProcessor.reserve(any())).thenReturn(new BatchResult(List.of(), Map.of()));
+        int callers = 16;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<ReservationSubmissionDto>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return queue.submit(request("ORDER_1"));
+                }));
+            }
+            start.countDown();
+            for (Future<ReservationSubmissionDto> result : results) {
+                assertThat(result.get().status()).isEqualTo(ReservationSubmissionDto.QUEUED);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(queue.drainOnce(Duration.ZERO)).isEqualTo(1);
+    }
+
+    private ReservationSubmissionQueue queue(int capacity) {
+        return new ReservationSubmissionQueue(
+                new AsyncReservationProperties(true, capacity, 100, Duration.ZERO, Duration.ofMinutes(1),
+                        1_000, Duration.ofSeconds(1)),
+                batchProcessor,
+                new SimpleMeterRegistry()
+        );
+    }
+
+    private static ReservationCreateRequestDto request(String orderId) {
+        return new ReservationCreateRequestDto(orderId, List.of(new ReservationItemRequestDto("SKU1", "MAIN", 1L)));
+    }
+}